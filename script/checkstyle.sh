@@ -10,4 +10,9 @@ if [ $? == 0 ]; then
     exit 1
 fi
 
+grep "<error" build/reports/checkstyle/jmh.xml
+if [ $? == 0 ]; then
+    exit 1
+fi
+
 exit 0
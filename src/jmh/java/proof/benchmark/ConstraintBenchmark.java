@@ -0,0 +1,73 @@
+package proof.benchmark;
+
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import proof.data.KuratowskiConstraint;
+import proof.data.Path;
+import proof.data.reader.ConstraintReader;
+import proof.exception.InvalidConstraintException;
+import proof.exception.ReaderException;
+import proof.validator.ConstraintValidator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and validating the Kuratowski constraints of all leaves. Reading a constraint
+ * mostly consists of constructing its {@link Path paths}, while validating it checks the
+ * disjointness of the paths and the K33 or K5 structure.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ConstraintBenchmark {
+
+  /**
+   * Reads all constraints including their paths.
+   *
+   * @param state the loaded log
+   * @param blackhole consumer of the read constraints
+   * @throws ReaderException if any constraint is malformed
+   */
+  @Benchmark
+  public void readConstraints(LogState state, Blackhole blackhole) throws ReaderException {
+    ConstraintReader reader = new ConstraintReader(state.graph);
+
+    for (int i = 0; i < state.leaves.length(); i++) {
+      JSONArray constraints = state.leaves.getJSONObject(i).getJSONArray("constraints");
+
+      for (int j = 0; j < constraints.length(); j++) {
+        blackhole.consume(reader.read(constraints.getJSONObject(j)));
+      }
+    }
+  }
+
+  /**
+   * Validates all previously read constraints.
+   *
+   * @param state the loaded log
+   * @throws InvalidConstraintException if any constraint is invalid
+   */
+  @Benchmark
+  public void validateConstraints(LogState state) throws InvalidConstraintException {
+    ConstraintValidator validator = new ConstraintValidator(state.graph);
+
+    for (List<KuratowskiConstraint> constraints : state.constraints) {
+      for (KuratowskiConstraint constraint : constraints) {
+        validator.validate(constraint);
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package proof.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import proof.exception.InvalidCoverageException;
+import proof.validator.BranchCoverageValidator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link BranchCoverageValidator}, i.e. reading the fixed variables of all leaves and
+ * merging sibling leaves until the root of the branch and bound tree is reached.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CoverageBenchmark {
+
+  /**
+   * Validates the branch coverage of all leaves.
+   *
+   * @param state the loaded log
+   * @throws InvalidCoverageException if the leaves do not cover all branches
+   */
+  @Benchmark
+  public void validateCoverage(LogState state) throws InvalidCoverageException {
+    new BranchCoverageValidator(state.graph).validate(state.leaves);
+  }
+}
@@ -0,0 +1,102 @@
+package proof.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import proof.exception.InvalidProofException;
+import proof.solver.LinearProgramGenerator;
+import proof.solver.LpWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link LinearProgramGenerator}. A new generator is used for each invocation, thus
+ * the base model is never reused across invocations, but across the leaves of a single invocation
+ * if their expansions match.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class GeneratorBenchmark {
+
+  /**
+   * Generates the linear program of each leaf.
+   *
+   * @param state the loaded log
+   * @param blackhole consumer of the generated programs
+   * @throws InvalidProofException if the expansions of any leaf are invalid
+   */
+  @Benchmark
+  public void generate(LogState state, Blackhole blackhole) throws InvalidProofException {
+    LinearProgramGenerator generator = new LinearProgramGenerator(state.graph);
+
+    for (int i = 0; i < state.leaves.length(); i++) {
+      blackhole.consume(generator.createLinearProgram(state.fixedVariables.get(i),
+          state.leaves.getJSONObject(i), state.constraints.get(i)));
+    }
+  }
+
+  /**
+   * Reads the constraints of each leaf again, generates its linear program, and writes it in CPLEX
+   * LP format. The output is discarded, such that the file system is not measured.
+   *
+   * @param state the loaded log
+   * @param blackhole consumer of the number of written characters
+   * @throws InvalidProofException if the expansions of any leaf are invalid
+   * @throws IOException never
+   */
+  @Benchmark
+  public void generateAndWrite(LogState state, Blackhole blackhole) throws InvalidProofException,
+      IOException {
+    LinearProgramGenerator generator = new LinearProgramGenerator(state.graph);
+    LpWriter writer = new LpWriter(false);
+    CountingWriter out = new CountingWriter();
+
+    for (int i = 0; i < state.leaves.length(); i++) {
+      writer.write(generator.createLinearProgram(state.fixedVariables.get(i),
+          state.leaves.getJSONObject(i)), out);
+    }
+
+    blackhole.consume(out.length);
+  }
+
+  /**
+   * Discards all output, only its length is counted.
+   */
+  private static class CountingWriter extends Writer {
+    private long length = 0;
+
+    @Override
+    public void write(char[] buffer, int offset, int count) {
+      length += count;
+    }
+
+    @Override
+    public void write(String text) {
+      length += text.length();
+    }
+
+    @Override
+    public void write(int character) {
+      length++;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+}
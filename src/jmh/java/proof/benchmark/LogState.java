@@ -0,0 +1,173 @@
+package proof.benchmark;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import proof.data.CrossingIndex;
+import proof.data.Graph;
+import proof.data.KuratowskiConstraint;
+import proof.data.reader.ConstraintReader;
+import proof.data.reader.CrossingReader;
+import proof.data.reader.GraphReader;
+import proof.exception.ExceptionHelper;
+import proof.exception.InvalidConfigurationException;
+import proof.exception.InvalidProofException;
+import proof.generator.ProofGenerator;
+import proof.util.Config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A log loaded into memory once per benchmark. The log is given by the name of a resource in
+ * {@code src/test/resources/log}, by the path of any JSON file, or by {@code generated-<depth>}.
+ * The latter is a proof created by the {@link ProofGenerator} whose branch tree has
+ * {@code 2^<depth>} leaves, such that the benchmarks cover logs of growing size. All leaves and
+ * their Kuratowski constraints are read in advance, such that each benchmark measures a single
+ * stage only.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+@State(Scope.Benchmark)
+public class LogState {
+  private static final String RESOURCES = "src/test/resources/log/";
+  private static final Pattern GENERATED = Pattern.compile("generated-(\\d+)");
+  private static final int GENERATED_NODES = 16;
+  private static final int GENERATED_EDGES = 60;
+  private static final int GENERATED_CONSTRAINTS = 4;
+
+  /**
+   * The log, only non-trivial proofs contain any leaves.
+   */
+  @Param({"job74", "generated-4", "generated-7", "generated-10"})
+  public String log;
+
+  String text;
+  Graph graph;
+  JSONArray leaves;
+  List<Map<CrossingIndex, Boolean>> fixedVariables;
+  List<List<KuratowskiConstraint>> constraints;
+
+  /**
+   * Loads and reads the log.
+   *
+   * @throws IOException if the log could not be loaded
+   * @throws InvalidProofException if the proof contained in the log is malformed
+   */
+  @Setup
+  public void load() throws IOException, InvalidProofException {
+    Path file = resolve(log);
+    text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    createConfig(file);
+
+    JSONObject json = new JSONObject(text);
+    graph = new GraphReader().read(json.getJSONObject("graph"));
+    JSONObject solution = json.getJSONObject("solution");
+    leaves = solution.has("leaves") ? solution.getJSONArray("leaves") : new JSONArray();
+    fixedVariables = new ArrayList<>();
+    constraints = new ArrayList<>();
+    CrossingReader crossingReader = new CrossingReader(graph);
+    ConstraintReader constraintReader = new ConstraintReader(graph);
+
+    for (int i = 0; i < leaves.length(); i++) {
+      JSONObject leaf = leaves.getJSONObject(i);
+      JSONArray variables = leaf.getJSONArray("fixedVariables");
+      Map<CrossingIndex, Boolean> vars = new HashMap<>();
+
+      for (int j = 0; j < variables.length(); j++) {
+        JSONObject variable = variables.getJSONObject(j);
+        vars.put(crossingReader.read(variable.getJSONArray("crossing")),
+            variable.getInt("value") == 1);
+      }
+
+      JSONArray jsonConstraints = leaf.getJSONArray("constraints");
+      List<KuratowskiConstraint> leafConstraints = new ArrayList<>(jsonConstraints.length());
+
+      for (int j = 0; j < jsonConstraints.length(); j++) {
+        leafConstraints.add(constraintReader.read(jsonConstraints.getJSONObject(j)));
+      }
+
+      fixedVariables.add(vars);
+      constraints.add(leafConstraints);
+    }
+  }
+
+  /**
+   * Returns the path of a log. Generated logs are written to a temporary file first.
+   *
+   * @param log name of a resource, path of a JSON file, or {@code generated-<depth>}
+   * @return the path
+   * @throws IOException if a generated log could not be written
+   */
+  static Path resolve(String log) throws IOException {
+    Matcher matcher = GENERATED.matcher(log);
+
+    if (matcher.matches()) {
+      return generate(Integer.parseInt(matcher.group(1)));
+    }
+
+    return log.endsWith(".json") ? Paths.get(log) : Paths.get(RESOURCES + log + ".json");
+  }
+
+  /**
+   * Writes a generated proof to a temporary file, which is deleted when the benchmark exits.
+   *
+   * @param depth depth of the branch tree
+   * @return the path of the written proof
+   * @throws IOException if the proof could not be written
+   */
+  private static Path generate(int depth) throws IOException {
+    ProofGenerator generator = new ProofGenerator(GENERATED_NODES, GENERATED_EDGES, 1, depth,
+        GENERATED_CONSTRAINTS, 0, 0);
+    Path file = Files.createTempFile("generated-" + depth + "-", ".json");
+    file.toFile().deleteOnExit();
+
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      generator.write(out);
+    }
+
+    return file;
+  }
+
+  /**
+   * Creates the global configuration required by the linear program generator, unless it already
+   * exists. All output is discarded.
+   *
+   * @param file the loaded log
+   */
+  private static void createConfig(Path file) {
+    try {
+      Config.get();
+    } catch (RuntimeException runtimeException) {
+      // config does not exist yet
+      try {
+        Config.create(new String[] {"-f", file.toString(), "-s", "internal"},
+            new PrintStream(new OutputStream() {
+              @Override
+              public void write(int data) {
+                // don't write anything
+              }
+            }));
+      } catch (InvalidConfigurationException e) {
+        throw ExceptionHelper.wrap(e, new IllegalStateException(
+            "Unable to create configuration."));
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package proof.benchmark;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import proof.data.Graph;
+import proof.data.reader.GraphReader;
+import proof.data.reader.LogReader;
+import proof.exception.InvalidProofException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures streaming a whole log by the {@link LogReader}, including reading the graph. Unlike all
+ * other benchmarks, this one also covers trivial proofs.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+
+  /**
+   * The log, see {@link LogState#log}.
+   */
+  @Param({"job10", "job109", "job74", "generated-4", "generated-7", "generated-10"})
+  public String log;
+
+  private String text;
+
+  @Setup
+  public void load() throws IOException {
+    text = new String(Files.readAllBytes(LogState.resolve(log)), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads the graph and streams all leaves.
+   *
+   * @param blackhole consumer of all read objects
+   * @return whether the solution is trivial
+   * @throws InvalidProofException if the log is malformed
+   */
+  @Benchmark
+  public boolean readLog(final Blackhole blackhole) throws InvalidProofException {
+    LogReader reader = new LogReader(new StringReader(text));
+    Graph graph = new GraphReader().read(reader.readGraph());
+    blackhole.consume(graph);
+
+    return reader.readSolution(new LogReader.LeafHandler() {
+      @Override
+      public void handle(JSONObject leaf) {
+        blackhole.consume(leaf);
+      }
+    });
+  }
+}
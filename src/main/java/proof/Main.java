@@ -1,14 +1,16 @@
 package proof;
 
 import org.json.JSONException;
-import org.json.JSONObject;
 
+import proof.data.reader.LogReader;
 import proof.exception.InvalidConfigurationException;
 import proof.exception.InvalidProofException;
 import proof.util.Config;
 import proof.validator.MainValidator;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 
 /**
@@ -35,16 +37,38 @@ public abstract class Main {
 
     Config.get().logger.println(Config.get().report + "\n");
 
-    try {
-      String input = new String(Files.readAllBytes(Config.get().file));
-      JSONObject main = new JSONObject(input);
+    boolean readable = true;
+
+    // the log is streamed, such that only a single leaf is kept in memory at any time
+    try (BufferedReader input =
+        Files.newBufferedReader(Config.get().file, StandardCharsets.UTF_8)) {
       Config.get().logger.println("START VALIDATION\n");
-      new MainValidator().validate(main);
+      new MainValidator().validate(new LogReader(input));
       Config.get().logger.println("\nVALIDATION SUCCESSFULL");
     } catch (IOException | JSONException e) {
       System.out.println("Failed to read the requested file.");
       e.printStackTrace();
+      readable = false;
+    } finally {
+      writeMetrics();
+    }
+
+    if (!readable) {
       System.exit(1);
     }
   }
+
+  /**
+   * Writes the collected metrics if requested, even if the validation failed.
+   */
+  private static void writeMetrics() {
+    if (Config.get().metricsFile != null) {
+      try {
+        Config.get().metrics.write(Config.get().metricsFile);
+      } catch (IOException e) {
+        System.out.println("Failed to write the metrics.");
+        e.printStackTrace();
+      }
+    }
+  }
 }
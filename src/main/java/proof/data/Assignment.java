@@ -0,0 +1,169 @@
+package proof.data;
+
+import java.util.Arrays;
+
+/**
+ * Represents the fixed variables of a single leaf. Variables are identified by dense indices, see
+ * {@link proof.data.reader.VariablesReader}. An assignment is stored as a sorted array holding one
+ * entry per fixed variable, the index of the variable shifted by one bit and its value in the
+ * lowest bit. Thus, memory is linear in the depth of the leaf, regardless of the number of
+ * distinct branching variables within the whole tree.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class Assignment {
+  private int[] entries = new int[4];
+  private int size = 0;
+
+  /**
+   * Fixes a single variable. Overrides any previous value.
+   *
+   * @param variable index of the variable
+   * @param value value of the variable
+   */
+  public void fix(int variable, boolean value) {
+    if (variable < 0 || variable > Integer.MAX_VALUE >> 1) {
+      throw new IllegalArgumentException("Invalid variable index: " + variable);
+    }
+
+    int position = find(variable);
+    int entry = variable << 1 | (value ? 1 : 0);
+
+    if (position >= 0) {
+      entries[position] = entry;
+    } else {
+      position = -position - 1;
+
+      if (size == entries.length) {
+        entries = Arrays.copyOf(entries, 2 * size);
+      }
+
+      System.arraycopy(entries, position, entries, position + 1, size - position);
+      entries[position] = entry;
+      size++;
+    }
+  }
+
+  /**
+   * Releases a single variable, such that it is no longer fixed.
+   *
+   * @param variable index of the variable
+   */
+  public void release(int variable) {
+    int position = find(variable);
+
+    if (position >= 0) {
+      System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+      size--;
+    }
+  }
+
+  /**
+   * Returns whether the variable is fixed.
+   *
+   * @param variable index of the variable
+   * @return {@code true} iff the variable is fixed
+   */
+  public boolean isFixed(int variable) {
+    return find(variable) >= 0;
+  }
+
+  /**
+   * Returns the value of a variable. Variables that are not fixed are reported as {@code false}.
+   *
+   * @param variable index of the variable
+   * @return the value of the variable
+   */
+  public boolean getValue(int variable) {
+    int position = find(variable);
+    return position >= 0 && (entries[position] & 1) != 0;
+  }
+
+  /**
+   * Returns the number of fixed variables.
+   *
+   * @return the number of fixed variables
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the smallest index of a fixed variable that is greater or equal to {@code from}.
+   *
+   * @param from index to start from
+   * @return the index of the next fixed variable or {@code -1} if there is none
+   */
+  public int nextFixed(int from) {
+    int position = find(Math.max(from, 0));
+
+    if (position < 0) {
+      position = -position - 1;
+    }
+
+    return position < size ? entries[position] >>> 1 : -1;
+  }
+
+  /**
+   * Returns whether both assignments fix the same variables to the same values, except for the
+   * value of a single variable.
+   *
+   * @param other assignment to compare with
+   * @param variable variable whose value is ignored
+   * @return {@code true} iff the assignments are equal except for the given variable
+   */
+  public boolean equalsExcept(Assignment other, int variable) {
+    boolean result = size == other.size;
+
+    for (int i = 0; result && i < size; i++) {
+      int difference = entries[i] ^ other.entries[i];
+
+      if (entries[i] >>> 1 == variable) {
+        difference &= ~1;
+      }
+
+      result = difference == 0;
+    }
+
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder("{");
+
+    for (int i = 0; i < size; i++) {
+      result.append(i == 0 ? "" : ", ").append(entries[i] >>> 1).append('=')
+          .append(entries[i] & 1);
+    }
+
+    return result.append('}').toString();
+  }
+
+  /**
+   * Searches for the entry of a variable.
+   *
+   * @param variable index of the variable
+   * @return the position of the entry if the variable is fixed, {@code -(insertion point) - 1}
+   *         otherwise
+   */
+  private int find(int variable) {
+    int low = 0;
+    int high = size - 1;
+
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int current = entries[middle] >>> 1;
+
+      if (current < variable) {
+        low = middle + 1;
+      } else if (current > variable) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+
+    return -(low + 1);
+  }
+}
@@ -1,5 +1,7 @@
 package proof.data;
 
+import proof.util.LongSet;
+
 import java.util.Arrays;
 
 /**
@@ -8,6 +10,12 @@ import java.util.Arrays;
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
 public class CrossingIndex {
+  /**
+   * Number of bits per edge and segment index in packed keys.
+   */
+  private static final int PACKED_BITS = 16;
+  private static final long PACKED_MASK = (1L << PACKED_BITS) - 1;
+
   public final SegmentIndex[] segments = new SegmentIndex[2];
 
   /**
@@ -42,6 +50,71 @@ public class CrossingIndex {
     }
   }
 
+  /**
+   * Creates a crossing from its packed key.
+   *
+   * @param key the packed key, see {@link #pack(int, int, int, int)}
+   * @return the crossing
+   */
+  public static CrossingIndex unpack(long key) {
+    int edgeA = (int) ((key >>> 3 * PACKED_BITS) & PACKED_MASK);
+    int segmentA = (int) ((key >>> 2 * PACKED_BITS) & PACKED_MASK);
+    int edgeB = (int) ((key >>> PACKED_BITS) & PACKED_MASK);
+    int segmentB = (int) (key & PACKED_MASK);
+
+    return new CrossingIndex(edgeA, segmentA, edgeB, segmentB);
+  }
+
+  /**
+   * Packs a crossing into a single primitive key. Each of the four indices is stored in 16 bits,
+   * the segment of the lower edge in the upper half. Thus, equal crossings have equal keys
+   * regardless of the order of their segments.
+   *
+   * @param edgeA edge of the first segment
+   * @param segmentA index of the first segment
+   * @param edgeB the edge of the second segment
+   * @param segmentB index of the second segment
+   * @return the packed key
+   * @throws IllegalArgumentException if any index exceeds the range of the packed key
+   */
+  public static long pack(int edgeA, int segmentA, int edgeB, int segmentB) {
+    if (edgeA > edgeB) {
+      return pack(edgeB, segmentB, edgeA, segmentA);
+    }
+
+    return packIndex(edgeA) << 3 * PACKED_BITS | packIndex(segmentA) << 2 * PACKED_BITS
+        | packIndex(edgeB) << PACKED_BITS | packIndex(segmentB);
+  }
+
+  /**
+   * Packs this crossing into a single primitive key, see {@link #pack(int, int, int, int)}.
+   *
+   * @return the packed key
+   */
+  public long pack() {
+    return pack(segments[0].edge, segments[0].segment, segments[1].edge, segments[1].segment);
+  }
+
+  /**
+   * Returns whether all crossings among the given edges and segments can be packed, see
+   * {@link #pack(int, int, int, int)}.
+   *
+   * @param maxEdge the highest edge index
+   * @param maxSegment the highest segment index
+   * @return {@code true} iff both indices are within the range of packed keys
+   */
+  public static boolean isPackable(int maxEdge, int maxSegment) {
+    return maxEdge <= PACKED_MASK && maxSegment <= PACKED_MASK;
+  }
+
+  private static long packIndex(int index) {
+    if (index < 0 || index > PACKED_MASK) {
+      throw new IllegalArgumentException("Index exceeds the range of packed crossings: " + index);
+    }
+
+    return index;
+  }
+
   /**
    * Returns true iff the other crossing can not exist with this crossing. (i.e. both crossings
    * share a single segment).
@@ -79,7 +152,7 @@ public class CrossingIndex {
 
   @Override
   public int hashCode() {
-    return segments[0].hashCode() + segments[1].hashCode();
+    return LongSet.hash(31 * segments[0].pack() + segments[1].pack());
   }
 
   @Override
@@ -3,6 +3,7 @@ package proof.data;
 import proof.exception.InvalidGraphException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,6 +17,17 @@ public class Graph {
   private final int[] targets;
   private final int[] costs;
   private boolean immutable;
+
+  /**
+   * Packed adjacency matrix of all edges, bit {@code e1 * m + e2} is set iff both are adjacent.
+   * Available once the graph is immutable.
+   */
+  private long[] edgeAdjacency = null;
+
+  /**
+   * Ascending indices of all non-adjacent edges per edge. Available once the graph is immutable.
+   */
+  private int[][] nonAdjacentEdges = null;
   private final int claimedLowerBound;
 
   public static final int NO_EDGE = -1;
@@ -162,7 +174,7 @@ public class Graph {
 
   /**
    * Makes this graph immutable. Future calls of {@code addEdge} will throw an
-   * {@link UnsupportedOperationException}.
+   * {@link UnsupportedOperationException}. Precomputes the adjacency of all edges.
    */
   public void makeImmutable() throws InvalidGraphException {
     immutable = true;
@@ -180,6 +192,28 @@ public class Graph {
     if (counter != costs.length) {
       throw new InvalidGraphException("Can not make partially read graph immutable.");
     }
+
+    int m = getNumberOfEdges();
+    long[] adjacency = new long[(int) (((long) m * m + 63) / 64)];
+    nonAdjacentEdges = new int[m][];
+
+    for (int e1 = 0; e1 < m; e1++) {
+      int[] edges = new int[m];
+      int size = 0;
+
+      for (int e2 = 0; e2 < m; e2++) {
+        if (computeAdjacency(e1, e2)) {
+          long bit = (long) e1 * m + e2;
+          adjacency[(int) (bit >>> 6)] |= 1L << bit;
+        } else {
+          edges[size++] = e2;
+        }
+      }
+
+      nonAdjacentEdges[e1] = Arrays.copyOf(edges, size);
+    }
+
+    edgeAdjacency = adjacency;
   }
 
   /**
@@ -231,6 +265,38 @@ public class Graph {
    * @return {@code true} iff the edges are adjacent
    */
   public boolean areEdgesAdjacent(int e1, int e2) {
+    if (edgeAdjacency == null) {
+      return computeAdjacency(e1, e2);
+    }
+
+    long bit = (long) e1 * getNumberOfEdges() + e2;
+    return (edgeAdjacency[(int) (bit >>> 6)] & (1L << bit)) != 0;
+  }
+
+  /**
+   * Returns all edges that do not share a common incident node with the given edge, in ascending
+   * order. The returned array must not be modified.
+   *
+   * @param edge index of the edge
+   * @return indices of all non-adjacent edges
+   * @throws IllegalStateException if the graph is not yet immutable
+   */
+  public int[] getNonAdjacentEdges(int edge) {
+    if (nonAdjacentEdges == null) {
+      throw new IllegalStateException("Graph must be immutable.");
+    }
+
+    return nonAdjacentEdges[edge];
+  }
+
+  /**
+   * Compares the incident nodes of both edges.
+   *
+   * @param e1 index of the first edge
+   * @param e2 index of the second edge
+   * @return {@code true} iff the edges are adjacent
+   */
+  private boolean computeAdjacency(int e1, int e2) {
     int s1 = getEdgeSource(e1);
     int t1 = getEdgeTarget(e1);
     int s2 = getEdgeSource(e2);
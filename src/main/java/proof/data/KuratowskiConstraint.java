@@ -0,0 +1,43 @@
+package proof.data;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents a single Kuratowski constraint, i.e. a supposed Kuratowski subdivision along with the
+ * crossings that must be realized for its paths to exist. The constraint is parsed once and shared
+ * by all consumers.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class KuratowskiConstraint {
+  private final String type;
+  private final Set<CrossingIndex> requiredCrossings;
+  private final List<Path> paths;
+
+  /**
+   * Creates a new Kuratowski constraint.
+   *
+   * @param type type of the subdivision, either {@code K33} or {@code K5}
+   * @param requiredCrossings crossings required by the paths
+   * @param paths all Kuratowski paths
+   */
+  public KuratowskiConstraint(String type, Set<CrossingIndex> requiredCrossings, List<Path> paths) {
+    this.type = type;
+    this.requiredCrossings = Collections.unmodifiableSet(requiredCrossings);
+    this.paths = Collections.unmodifiableList(paths);
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public Set<CrossingIndex> getRequiredCrossings() {
+    return requiredCrossings;
+  }
+
+  public List<Path> getPaths() {
+    return paths;
+  }
+}
@@ -3,10 +3,14 @@ package proof.data;
 import proof.exception.ExceptionHelper;
 import proof.exception.InvalidGraphException;
 import proof.exception.InvalidPathException;
+import proof.util.LongMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -29,9 +33,17 @@ public class Path {
   }
 
   private final Set<CrossingIndex> crossings;
+  private final LongMap<CrossingIndex> crossingsBySegment;
   private final Graph graph;
   private final List<Section> sections;
 
+  /**
+   * All (dummy) nodes visited by this path except for its source and target.
+   */
+  private final Set<Object> nodes = new HashSet<>();
+  private Object first = null;
+  private Object last = null;
+
   /**
    * Initializes a new Kuratowski path.
    *
@@ -39,9 +51,42 @@ public class Path {
    * @param crossings currently realized crossings
    */
   public Path(Graph graph, Set<CrossingIndex> crossings) {
+    this(graph, crossings, indexCrossings(crossings));
+  }
+
+  /**
+   * Initializes a new Kuratowski path. The index of crossings is shared by all paths of the same
+   * Kuratowski constraint and must not be modified.
+   *
+   * @param graph underlying non-expanded graph
+   * @param crossings currently realized crossings
+   * @param crossingsBySegment the crossings indexed by packed segment, see
+   *        {@link #indexCrossings(Set)}
+   */
+  public Path(Graph graph, Set<CrossingIndex> crossings,
+      LongMap<CrossingIndex> crossingsBySegment) {
     this.crossings = crossings;
+    this.crossingsBySegment = crossingsBySegment;
     this.graph = graph;
-    sections = new LinkedList<Section>();
+    sections = new ArrayList<Section>();
+  }
+
+  /**
+   * Maps both segments of each crossing to the crossing itself. Allows for finding the crossing on
+   * a specific segment in constant time. Segments are packed via {@link SegmentIndex#pack()}.
+   *
+   * @param crossings currently realized crossings
+   * @return the crossings indexed by packed segment
+   */
+  public static LongMap<CrossingIndex> indexCrossings(Set<CrossingIndex> crossings) {
+    LongMap<CrossingIndex> result = new LongMap<>(2 * crossings.size());
+
+    for (CrossingIndex crossing : crossings) {
+      result.put(crossing.segments[0].pack(), crossing);
+      result.put(crossing.segments[1].pack(), crossing);
+    }
+
+    return result;
   }
 
   /**
@@ -70,28 +115,26 @@ public class Path {
       throw ExceptionHelper.wrap(e, new InvalidPathException("Edge does not exist."));
     }
 
-    if (!sections.isEmpty()) {
-      sections.add(0, section);
-      Object sourceObj = getSource();
-      Object targetObj = getTarget();
-      boolean connected = sourceObj.equals(targetObj);
-      sections.remove(0);
+    Object sectionSource = getDummyNode(section, true);
 
-      if (!connected) {
-        throw new InvalidPathException("Path is disconnected: " + sourceObj + " != " + targetObj
-            + ".");
-      }
+    if (!sections.isEmpty() && !sectionSource.equals(last)) {
+      throw new InvalidPathException("Path is disconnected: " + sectionSource + " != " + last
+          + ".");
     }
 
-    sections.add(section);
-
-    // validate all (dummy) vertices
-    getDummyNode(0, true);
-    getDummyNode(sections.size() - 1, false);
+    final Object sectionTarget = getDummyNode(section, false);
 
-    if (collectNodes().size() != sections.size() - 1) {
+    // the source of the path might be visited again
+    if (!sections.isEmpty() && !nodes.add(sectionSource)) {
       throw new InvalidPathException("Path contains duplicate nodes.");
     }
+
+    if (sections.isEmpty()) {
+      first = sectionSource;
+    }
+
+    sections.add(section);
+    last = sectionTarget;
   }
 
   /**
@@ -101,12 +144,7 @@ public class Path {
    * @return the first (dummy) node of this path
    */
   public Object getSource() {
-    try {
-      return getDummyNode(0, true);
-    } catch (InvalidPathException e) {
-      // this should never happen since each path is validated upon construction
-      throw ExceptionHelper.wrap(e, new RuntimeException());
-    }
+    return first;
   }
 
   /**
@@ -116,12 +154,48 @@ public class Path {
    * @return the last (dummy) node of this path
    */
   public Object getTarget() {
-    try {
-      return getDummyNode(sections.size() - 1, false);
-    } catch (InvalidPathException e) {
-      // this should never happen since each path is validated upon construction
-      throw ExceptionHelper.wrap(e, new RuntimeException());
-    }
+    return last;
+  }
+
+  /**
+   * Returns the number of sections, each of them being part of a single edge.
+   *
+   * @return the number of sections
+   */
+  public int getNumberOfSections() {
+    return sections.size();
+  }
+
+  /**
+   * Returns the edge of a section.
+   *
+   * @param section index of the section
+   * @return the index of the edge
+   */
+  public int getSectionEdge(int section) {
+    return sections.get(section).edge;
+  }
+
+  /**
+   * Returns the first segment of a section as given in the proof. Might be {@code -1} for sections
+   * starting at the source of the edge.
+   *
+   * @param section index of the section
+   * @return the start index on the edge
+   */
+  public int getSectionStart(int section) {
+    return sections.get(section).start;
+  }
+
+  /**
+   * Returns the last segment of a section as given in the proof. Might exceed the number of
+   * expansions for sections ending at the target of the edge.
+   *
+   * @param section index of the section
+   * @return the end index on the edge
+   */
+  public int getSectionEnd(int section) {
+    return sections.get(section).end;
   }
 
   /**
@@ -131,45 +205,87 @@ public class Path {
    * @return {@code true} iff the paths are disjoint
    */
   public boolean isDisjointTo(Path path) {
-    if (graph != path.graph) {
-      throw new IllegalArgumentException("Can't compare paths from different graphs");
-    }
+    return findIntersection(Arrays.asList(this, path)) == null;
+  }
 
-    if (!crossings.equals(path.crossings)) {
-      throw new IllegalArgumentException("Can't compare paths with different realized crossings");
-    }
+  /**
+   * Finds two paths that are not disjoint (except for their sources and targets). Each inner
+   * (dummy) node is assigned to the first path visiting it, such that each path is traversed only
+   * once.
+   *
+   * @param paths paths sharing the same graph and realized crossings
+   * @return the lexicographically smallest pair of intersecting paths or {@code null} if all paths
+   *         are pairwise disjoint
+   */
+  public static int[] findIntersection(List<Path> paths) {
+    for (Path path : paths) {
+      if (paths.get(0).graph != path.graph) {
+        throw new IllegalArgumentException("Can't compare paths from different graphs");
+      }
 
-    try {
-      Set<Object> nodes = collectNodes();
-      nodes.addAll(collectDummies());
-      nodes.add(getSource());
-      nodes.add(getTarget());
+      if (!paths.get(0).crossings.equals(path.crossings)) {
+        throw new IllegalArgumentException("Can't compare paths with different realized crossings");
+      }
+    }
 
-      int expected = nodes.size();
+    Map<Object, Integer> owners = new HashMap<>();
+    int[] result = null;
 
-      nodes.removeAll(path.collectNodes());
-      nodes.removeAll(path.collectDummies());
+    for (int i = 0; i < paths.size(); i++) {
+      for (Object node : paths.get(i).collectInnerNodes()) {
+        Integer owner = owners.get(node);
 
-      boolean result = true;
-      result &= nodes.size() == expected;
+        if (owner == null) {
+          owners.put(node, i);
+        } else {
+          result = getSmallerPair(result, owner, i);
+        }
+      }
+    }
 
-      nodes = path.collectNodes();
-      nodes.addAll(path.collectDummies());
-      nodes.add(path.getSource());
-      nodes.add(path.getTarget());
+    // inner nodes must not be the source or target of any other path
+    for (int i = 0; i < paths.size(); i++) {
+      for (Object node : new Object[] {paths.get(i).first, paths.get(i).last}) {
+        Integer owner = owners.get(node);
 
-      expected = nodes.size();
+        if (owner != null && owner != i) {
+          result = getSmallerPair(result, Math.min(owner, i), Math.max(owner, i));
+        }
+      }
+    }
 
-      nodes.removeAll(collectNodes());
-      nodes.removeAll(collectDummies());
+    return result;
+  }
 
-      result &= nodes.size() == expected;
+  /**
+   * Returns the lexicographically smaller pair of path indices.
+   *
+   * @param pair the current pair, might be {@code null}
+   * @param first smaller index of the other pair
+   * @param second larger index of the other pair
+   * @return the smaller pair
+   */
+  private static int[] getSmallerPair(int[] pair, int first, int second) {
+    int[] result = pair;
 
-      return result;
-    } catch (InvalidPathException e) {
-      // this should never happen since each path is validated upon construction
-      throw ExceptionHelper.wrap(e, new RuntimeException());
+    if (pair == null || first < pair[0] || (first == pair[0] && second < pair[1])) {
+      result = new int[] {first, second};
     }
+
+    return result;
+  }
+
+  /**
+   * Returns all (dummy) nodes along this path, excluding the source and target of the path unless
+   * they are visited in between.
+   *
+   * @return the set of nodes and crossings
+   */
+  private Set<Object> collectInnerNodes() {
+    Set<Object> result = new HashSet<Object>(collectDummies());
+    result.addAll(nodes);
+
+    return result;
   }
 
   /**
@@ -195,23 +311,6 @@ public class Path {
     return result;
   }
 
-  /**
-   * Returns the set of all (dummy) nodes incident to segments along this path except for the source
-   * and target of this path.
-   *
-   * @return the set of nodes
-   * @throws InvalidPathException if any required crossing is not realized
-   */
-  private Set<Object> collectNodes() throws InvalidPathException {
-    Set<Object> result = new HashSet<>();
-
-    for (int i = 1; i < sections.size(); i++) {
-      result.add(getDummyNode(i, true));
-    }
-
-    return result;
-  }
-
   /**
    * Returns whether this path shares a common start or end with the other one.
    *
@@ -226,14 +325,13 @@ public class Path {
   /**
    * Returns the node or crossing at the end (or start) of the given segment range.
    *
-   * @param pos position of the segment range in this path
+   * @param section the segment range
    * @param getSource whether to return the source instead of the target
    * @return the node or crossing
    * @throws InvalidPathException if any required crossing is not realized
    */
-  private Object getDummyNode(int pos, boolean getSource) throws InvalidPathException {
+  private Object getDummyNode(Section section, boolean getSource) throws InvalidPathException {
     Object result = null;
-    Section section = sections.get(pos);
 
     int node = section.source;
     int index = section.start;
@@ -258,15 +356,6 @@ public class Path {
   }
 
   private CrossingIndex findCrossing(int edge, int index) {
-    SegmentIndex seg = new SegmentIndex(edge, index);
-    CrossingIndex result = null;
-
-    for (CrossingIndex cr : crossings) {
-      if (cr.segments[0].equals(seg) || cr.segments[1].equals(seg)) {
-        result = cr;
-      }
-    }
-
-    return result;
+    return crossingsBySegment.get(SegmentIndex.pack(edge, index));
   }
 }
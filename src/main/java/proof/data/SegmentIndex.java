@@ -1,5 +1,7 @@
 package proof.data;
 
+import proof.util.LongSet;
+
 /**
  * Represents a single segment on a single edge.
  *
@@ -27,6 +29,27 @@ public class SegmentIndex {
     this.segment = segment;
   }
 
+  /**
+   * Packs a segment into a single primitive key. The edge is stored in the upper, the segment in
+   * the lower 32 bits.
+   *
+   * @param edge edge index
+   * @param segment segment index
+   * @return the packed key
+   */
+  public static long pack(int edge, int segment) {
+    return ((long) edge << 32) | (segment & 0xffffffffL);
+  }
+
+  /**
+   * Packs this segment into a single primitive key, see {@link #pack(int, int)}.
+   *
+   * @return the packed key
+   */
+  public long pack() {
+    return pack(edge, segment);
+  }
+
   @Override
   public boolean equals(Object other) {
     boolean result = other != null;
@@ -44,7 +67,7 @@ public class SegmentIndex {
 
   @Override
   public int hashCode() {
-    return edge + segment;
+    return LongSet.hash(pack());
   }
 
   @Override
@@ -0,0 +1,72 @@
+package proof.data.reader;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import proof.data.CrossingIndex;
+import proof.data.Graph;
+import proof.data.KuratowskiConstraint;
+import proof.data.Path;
+import proof.exception.ExceptionHelper;
+import proof.exception.ReaderException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Used for reading a single {@link KuratowskiConstraint}. Each path is read and validated exactly
+ * once. The required crossings are indexed once and shared by all paths.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class ConstraintReader implements Reader<JSONObject> {
+  private final Graph graph;
+  private final CrossingReader crossingReader;
+
+  /**
+   * Creates a new constraint reader.
+   *
+   * @param graph underlying non-expanded graph
+   */
+  public ConstraintReader(Graph graph) {
+    this.graph = graph;
+    crossingReader = new CrossingReader(graph);
+  }
+
+  /**
+   * Reads a single Kuratowski constraint, consisting of its type, the required crossings, and the
+   * Kuratowski paths.
+   *
+   * @throws ReaderException if any crossing is infeasible or any path is invalid
+   */
+  @Override
+  public KuratowskiConstraint read(JSONObject input) throws ReaderException {
+    Set<CrossingIndex> requiredCrossings = new LinkedHashSet<>();
+    JSONArray crossings = input.getJSONArray("requiredCrossings");
+
+    for (int i = 0; i < crossings.length(); i++) {
+      try {
+        requiredCrossings.add(crossingReader.read(crossings.getJSONArray(i)));
+      } catch (ReaderException e) {
+        throw ExceptionHelper.wrap(e, new ReaderException("Encountered infeasible crossing."));
+      }
+    }
+
+    PathReader pathReader =
+        new PathReader(graph, requiredCrossings, Path.indexCrossings(requiredCrossings));
+    JSONArray jsonPaths = input.getJSONArray("paths");
+    List<Path> paths = new ArrayList<>(jsonPaths.length());
+
+    for (int i = 0; i < jsonPaths.length(); i++) {
+      try {
+        paths.add(pathReader.read(jsonPaths.getJSONArray(i)));
+      } catch (ReaderException e) {
+        throw ExceptionHelper.wrap(e, new ReaderException("Path " + i + " is invalid."));
+      }
+    }
+
+    return new KuratowskiConstraint(input.getString("type"), requiredCrossings, paths);
+  }
+}
@@ -0,0 +1,230 @@
+package proof.data.reader;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import proof.exception.InvalidProofException;
+
+/**
+ * Streaming reader for a complete log file. In contrast to parsing the whole log at once, only the
+ * graph and a single leaf are kept in memory at any time. This requires the graph to precede the
+ * solution in the log, which is the order used by the OCM logger. Otherwise, the solution is read
+ * at once.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LogReader {
+
+  /**
+   * Receives the leaves of the branch and bound tree one at a time.
+   */
+  public interface LeafHandler {
+    /**
+     * Called for each leaf in order of appearance.
+     *
+     * @param leaf JSON object describing the leaf
+     * @throws InvalidProofException if the leaf is invalid
+     */
+    public void handle(JSONObject leaf) throws InvalidProofException;
+  }
+
+  private final JSONTokener tokener;
+  private JSONObject solution = null;
+  private boolean graphRead = false;
+
+  /**
+   * Creates a new log reader.
+   *
+   * @param input character stream containing the log
+   * @throws JSONException if the log does not start with a JSON object
+   */
+  public LogReader(java.io.Reader input) {
+    tokener = new JSONTokener(input);
+
+    if (tokener.nextClean() != '{') {
+      throw tokener.syntaxError("A JSONObject text must begin with '{'");
+    }
+  }
+
+  /**
+   * Reads the graph. Must be called exactly once, before {@link #readSolution(LeafHandler)}.
+   *
+   * @return JSON object describing the graph
+   * @throws JSONException if the log is malformed or does not contain a graph
+   */
+  public JSONObject readGraph() {
+    if (graphRead) {
+      throw new IllegalStateException("Graph has already been read.");
+    }
+
+    graphRead = true;
+
+    for (String key = nextKey(); key != null; key = nextKey()) {
+      if ("graph".equals(key)) {
+        return asObject(tokener.nextValue(), key);
+      } else if ("solution".equals(key)) {
+        solution = asObject(tokener.nextValue(), key);
+      } else {
+        tokener.nextValue();
+      }
+    }
+
+    throw new JSONException("JSONObject[\"graph\"] not found.");
+  }
+
+  /**
+   * Reads the solution and passes each leaf to the handler. Leaves following the claim of a
+   * trivial solution are skipped.
+   *
+   * @param handler receives the leaves
+   * @return whether the solution is claimed to be trivial
+   * @throws InvalidProofException if the handler rejects any leaf
+   * @throws JSONException if the log is malformed or does not contain a solution
+   */
+  public boolean readSolution(LeafHandler handler) throws InvalidProofException {
+    if (!graphRead) {
+      throw new IllegalStateException("Graph must be read before the solution.");
+    }
+
+    if (solution == null) {
+      for (String key = nextKey(); key != null; key = nextKey()) {
+        if ("solution".equals(key)) {
+          return readSolutionObject(handler);
+        } else {
+          tokener.nextValue();
+        }
+      }
+
+      throw new JSONException("JSONObject[\"solution\"] not found.");
+    } else {
+      boolean result = solution.getBoolean("trivial");
+      JSONArray leaves = solution.optJSONArray("leaves");
+
+      for (int i = 0; !result && leaves != null && i < leaves.length(); i++) {
+        handler.handle(leaves.getJSONObject(i));
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * Reads the solution object, streaming the leaves to the handler.
+   *
+   * @param handler receives the leaves
+   * @return whether the solution is claimed to be trivial
+   * @throws InvalidProofException if the handler rejects any leaf
+   */
+  private boolean readSolutionObject(LeafHandler handler) throws InvalidProofException {
+    Boolean result = null;
+
+    if (tokener.nextClean() != '{') {
+      throw tokener.syntaxError("JSONObject[\"solution\"] is not a JSONObject.");
+    }
+
+    for (String key = nextKey(); key != null; key = nextKey()) {
+      if ("leaves".equals(key)) {
+        readLeaves(Boolean.TRUE.equals(result) ? null : handler);
+      } else if ("trivial".equals(key)) {
+        Object value = tokener.nextValue();
+
+        if (!(value instanceof Boolean)) {
+          throw new JSONException("JSONObject[\"trivial\"] is not a Boolean.");
+        }
+
+        result = (Boolean) value;
+      } else {
+        tokener.nextValue();
+      }
+    }
+
+    if (result == null) {
+      throw new JSONException("JSONObject[\"trivial\"] not found.");
+    }
+
+    return result;
+  }
+
+  /**
+   * Reads the array of leaves, one leaf at a time.
+   *
+   * @param handler receives the leaves, {@code null} if the leaves are to be skipped
+   * @throws InvalidProofException if the handler rejects any leaf
+   */
+  private void readLeaves(LeafHandler handler) throws InvalidProofException {
+    if (tokener.nextClean() != '[') {
+      throw tokener.syntaxError("JSONObject[\"leaves\"] is not a JSONArray.");
+    }
+
+    if (tokener.nextClean() == ']') {
+      return;
+    }
+
+    tokener.back();
+
+    while (true) {
+      JSONObject leaf = asObject(tokener.nextValue(), "leaves");
+
+      if (handler != null) {
+        handler.handle(leaf);
+      }
+
+      switch (tokener.nextClean()) {
+        case ',':
+          break;
+        case ']':
+          return;
+        default:
+          throw tokener.syntaxError("Expected a ',' or ']'");
+      }
+    }
+  }
+
+  /**
+   * Reads the next key of the current object, including the following colon. Will consume the
+   * separating comma of the previous entry.
+   *
+   * @return the key or {@code null} if the end of the object has been reached
+   */
+  private String nextKey() {
+    char next = tokener.nextClean();
+
+    if (next == ',' || next == ';') {
+      next = tokener.nextClean();
+    }
+
+    switch (next) {
+      case 0:
+        throw tokener.syntaxError("A JSONObject text must end with '}'");
+      case '}':
+        return null;
+      default:
+        tokener.back();
+    }
+
+    String result = tokener.nextValue().toString();
+
+    if (tokener.nextClean() != ':') {
+      throw tokener.syntaxError("Expected a ':' after a key");
+    }
+
+    return result;
+  }
+
+  /**
+   * Asserts the value is a JSON object.
+   *
+   * @param value parsed value
+   * @param key key of the value, used for error messages only
+   * @return the value as JSON object
+   */
+  private JSONObject asObject(Object value, String key) {
+    if (!(value instanceof JSONObject)) {
+      throw new JSONException("JSONObject[\"" + key + "\"] is not a JSONObject.");
+    }
+
+    return (JSONObject) value;
+  }
+}
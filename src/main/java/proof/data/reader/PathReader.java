@@ -7,6 +7,7 @@ import proof.data.CrossingIndex;
 import proof.data.Graph;
 import proof.data.Path;
 import proof.exception.InvalidPathException;
+import proof.util.LongMap;
 
 import java.util.Set;
 
@@ -18,15 +19,31 @@ import java.util.Set;
 public class PathReader implements Reader<JSONArray> {
   private final Graph graph;
   private final Set<CrossingIndex> crossings;
+  private final LongMap<CrossingIndex> crossingsBySegment;
 
   /**
-   * Constructs a new {@link Path} reader.
+   * Constructs a new {@link Path} reader. The crossings are indexed for each path, since they might
+   * be modified in between.
    *
    * @param graph underlying non-expanded graph
    * @param crossings currently realized crossings
    */
   public PathReader(Graph graph, Set<CrossingIndex> crossings) {
+    this(graph, crossings, null);
+  }
+
+  /**
+   * Constructs a new {@link Path} reader. All paths share the given index of crossings.
+   *
+   * @param graph underlying non-expanded graph
+   * @param crossings currently realized crossings
+   * @param crossingsBySegment the crossings indexed by packed segment, see
+   *        {@link Path#indexCrossings(Set)}
+   */
+  public PathReader(Graph graph, Set<CrossingIndex> crossings,
+      LongMap<CrossingIndex> crossingsBySegment) {
     this.crossings = crossings;
+    this.crossingsBySegment = crossingsBySegment;
     this.graph = graph;
   }
 
@@ -37,7 +54,8 @@ public class PathReader implements Reader<JSONArray> {
    */
   @Override
   public Path read(JSONArray input) throws InvalidPathException {
-    Path result = new Path(graph, crossings);
+    Path result = crossingsBySegment == null ? new Path(graph, crossings)
+        : new Path(graph, crossings, crossingsBySegment);
 
     if (input.length() == 0) {
       throw new InvalidPathException("Path is empty.");
@@ -3,28 +3,34 @@ package proof.data.reader;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import proof.data.Assignment;
 import proof.data.CrossingIndex;
 import proof.data.Graph;
 import proof.exception.ReaderException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Reads all variables fixed on a single branch.
+ * Reads all variables fixed on a single branch. Each crossing is assigned a dense index upon its
+ * first occurrence. Indices are consistent over all branches read by the same reader.
  *
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
 public class VariablesReader implements Reader<JSONArray> {
   private final Graph graph;
+  private final Map<CrossingIndex, Integer> indices = new HashMap<>();
 
   public VariablesReader(Graph graph) {
     this.graph = graph;
   }
 
   @Override
-  public Map<CrossingIndex, Boolean> read(JSONArray fixedVariables) throws ReaderException {
-    Map<CrossingIndex, Boolean> result = new HashMap<CrossingIndex, Boolean>();
+  public Assignment read(JSONArray fixedVariables) throws ReaderException {
+    Assignment result = new Assignment();
+    List<CrossingIndex> realizedCrossings = new ArrayList<>();
     CrossingReader crossingReader = new CrossingReader(graph);
 
     for (int j = 0; j < fixedVariables.length(); j++) {
@@ -33,17 +39,38 @@ public class VariablesReader implements Reader<JSONArray> {
       CrossingIndex crossing = crossingReader.read(variable.getJSONArray("crossing"));
       boolean crossingRealized = variable.getInt("value") == 1;
 
-      for (CrossingIndex cross : result.keySet()) {
-        if (crossingRealized && result.get(cross) && crossing.conflicting(cross)) {
-          throw new ReaderException("Conflicting fixed variables: " + cross + " and " + crossing
-              + ".");
+      if (crossingRealized) {
+        for (CrossingIndex cross : realizedCrossings) {
+          if (crossing.conflicting(cross)) {
+            throw new ReaderException("Conflicting fixed variables: " + cross + " and " + crossing
+                + ".");
+          }
         }
+
+        realizedCrossings.add(crossing);
       }
 
-      result.put(crossing, crossingRealized);
+      result.fix(getIndex(crossing), crossingRealized);
     }
 
     return result;
   }
 
+  /**
+   * Returns the index of the variable representing the crossing. Assigns a new index if the
+   * crossing has not been encountered before.
+   *
+   * @param crossing crossing to be looked up
+   * @return the index of the variable
+   */
+  private int getIndex(CrossingIndex crossing) {
+    Integer result = indices.get(crossing);
+
+    if (result == null) {
+      result = indices.size();
+      indices.put(crossing, result);
+    }
+
+    return result;
+  }
 }
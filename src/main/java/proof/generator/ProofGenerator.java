@@ -0,0 +1,508 @@
+package proof.generator;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import proof.exception.ExceptionHelper;
+import proof.exception.InvalidConfigurationException;
+import proof.util.LongSet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Generates synthetic proofs of arbitrary size for benchmarking the validator. Each proof consists
+ * of a complete branch tree, whose leaves contain random Kuratowski subdivisions. All subdivisions
+ * are structurally valid and the proof is formatted like any log created by the OCM solver.
+ *
+ * <p>
+ * The graph contains a clique on its first nodes that is as large as the number of edges permits.
+ * The remaining nodes are attached by a chain, further edges are added at random. Subdivisions are
+ * embedded into the clique. Their paths are either single edges, pass a node of the clique not
+ * used otherwise, or switch edges at a required crossing of the expanded graph.
+ * </p>
+ *
+ * <p>
+ * The first constraint of each leaf does not require any crossing. Thus, the linear programs prove
+ * a lower bound of {@code 1} at least. Greater bounds allow for more expansions, but might not be
+ * provable.
+ * </p>
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class ProofGenerator {
+  private static final int DEFAULT_NODES = 8;
+  private static final int DEFAULT_EDGES = 28;
+
+  public static final String USAGE = "SYNOPSIS\n"
+      + "  generator [-n <nodes>] [-m <edges>] [-b <bound>] [-d <depth>] [-c <constraints>]\n"
+      + "            [-e <expansions>] [-s <seed>] [-o <file>]\n\n"
+      + "OPTIONS\n\n"
+      + "  -n <nodes>, --nodes <nodes>\n"
+      + "\tNumber of nodes of the graph. Defaults to " + DEFAULT_NODES + ".\n\n"
+      + "  -m <edges>, --edges <edges>\n"
+      + "\tNumber of edges of the graph, at least 28. Defaults to " + DEFAULT_EDGES
+      + ".\n\n"
+      + "  -b <bound>, --bound <bound>\n"
+      + "\tThe claimed lower bound. Defaults to 1, greater bounds might not be\n"
+      + "\tprovable.\n\n"
+      + "  -d <depth>, --depth <depth>\n"
+      + "\tDepth of the branch tree, which has 2^<depth> leaves. Defaults to 0.\n\n"
+      + "  -c <constraints>, --constraints <constraints>\n"
+      + "\tNumber of Kuratowski constraints per leaf. Defaults to 1.\n\n"
+      + "  -e <expansions>, --expansions <expansions>\n"
+      + "\tNumber of additional segments of each edge, at most <bound> - 2.\n"
+      + "\tDefaults to 0.\n\n"
+      + "  -s <seed>, --seed <seed>\n"
+      + "\tSeed of the random number generator. Defaults to 0.\n\n"
+      + "  -o <file>, --output <file>\n"
+      + "\tWrite the proof to <file> instead of the standard output.";
+
+  /**
+   * Minimum size of the clique. Each subdivision requires six nodes and two additional ones for
+   * routing its paths.
+   */
+  static final int MIN_CLIQUE_SIZE = 8;
+
+  /**
+   * Maximum depth of the branch tree, such that all leaves can be indexed.
+   */
+  static final int MAX_DEPTH = 30;
+
+  private final int numberOfNodes;
+  private final int claimedLowerBound;
+  private final int constraintsPerLeaf;
+  private final int expansions;
+  private final Random random;
+
+  private final int cliqueSize;
+  private final int[] sources;
+  private final int[] targets;
+
+  /**
+   * Branching variables, each given by two non-adjacent edges and the segments on them.
+   */
+  private final int[][] variables;
+
+  /**
+   * The expansions of all edges, identical for all leaves.
+   */
+  private final String jsonExpansions;
+
+  /**
+   * Creates a new random proof. Leaves are generated while writing the proof.
+   *
+   * @param numberOfNodes number of nodes of the graph
+   * @param numberOfEdges number of edges of the graph
+   * @param claimedLowerBound the claimed lower bound
+   * @param depth depth of the complete branch tree
+   * @param constraintsPerLeaf number of Kuratowski constraints of each leaf
+   * @param expansions number of additional segments of each edge
+   * @param seed seed of the random number generator
+   * @throws IllegalArgumentException if there is no such proof
+   */
+  public ProofGenerator(int numberOfNodes, int numberOfEdges, int claimedLowerBound, int depth,
+      int constraintsPerLeaf, int expansions, long seed) {
+    long maxEdges = (long) numberOfNodes * (numberOfNodes - 1) / 2;
+
+    if (numberOfNodes < MIN_CLIQUE_SIZE || numberOfEdges > maxEdges
+        || numberOfEdges < MIN_CLIQUE_SIZE * (MIN_CLIQUE_SIZE - 1) / 2) {
+      throw new IllegalArgumentException("There is no graph with " + numberOfNodes + " nodes and "
+          + numberOfEdges + " edges containing a clique on " + MIN_CLIQUE_SIZE + " nodes.");
+    }
+
+    if (claimedLowerBound < 1 || depth < 0 || depth > MAX_DEPTH || constraintsPerLeaf < 1) {
+      throw new IllegalArgumentException("Invalid bound, depth, or number of constraints.");
+    }
+
+    if (expansions < 0 || expansions > Math.max(0, claimedLowerBound - 2)) {
+      throw new IllegalArgumentException("Edges of a graph with a claimed lower bound of "
+          + claimedLowerBound + " can not be expanded " + expansions + " times.");
+    }
+
+    this.numberOfNodes = numberOfNodes;
+    this.claimedLowerBound = claimedLowerBound;
+    this.constraintsPerLeaf = constraintsPerLeaf;
+    this.expansions = expansions;
+    random = new Random(seed);
+
+    int size = MIN_CLIQUE_SIZE;
+
+    while (size < numberOfNodes && (size + 1) * size / 2 <= numberOfEdges) {
+      size++;
+    }
+
+    cliqueSize = size;
+    sources = new int[numberOfEdges];
+    targets = new int[numberOfEdges];
+    createEdges();
+    variables = createVariables(depth);
+
+    JSONObject result = new JSONObject();
+
+    for (int e = 0; e < numberOfEdges; e++) {
+      result.put(String.valueOf(e), expansions);
+    }
+
+    jsonExpansions = result.toString();
+  }
+
+  /**
+   * Generates a proof according to the given command line arguments, see {@link #USAGE}.
+   *
+   * @param args command line arguments
+   */
+  public static void main(String[] args) {
+    ProofGenerator generator = null;
+    String file = null;
+
+    try {
+      int[] values = {DEFAULT_NODES, DEFAULT_EDGES, 1, 0, 1, 0, 0};
+      String[] names = {"nodes", "edges", "bound", "depth", "constraints", "expansions", "seed"};
+      String shortNames = "nmbdces";
+
+      for (int i = 0; i < args.length; i++) {
+        if (i + 1 == args.length) {
+          throw new InvalidConfigurationException("Missing value of parameter: " + args[i]);
+        }
+
+        String name = args[i].trim();
+
+        if (name.equals("-o") || name.equals("--output")) {
+          file = args[++i];
+          continue;
+        }
+
+        int index = -1;
+
+        for (int j = 0; j < names.length; j++) {
+          if (name.equals("-" + shortNames.charAt(j)) || name.equals("--" + names[j])) {
+            index = j;
+          }
+        }
+
+        if (index == -1) {
+          throw new InvalidConfigurationException("Unknown command line parameter: " + name);
+        }
+
+        values[index] = parseInteger(args[++i], names[index]);
+      }
+
+      generator = new ProofGenerator(values[0], values[1], values[2], values[3], values[4],
+          values[5], values[6]);
+    } catch (InvalidConfigurationException | IllegalArgumentException e) {
+      System.out.println(e.getMessage() + "\n");
+      System.out.println(USAGE);
+      System.exit(1);
+    }
+
+    try (Writer out = file == null
+        ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+        : Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8)) {
+      generator.write(out);
+    } catch (IOException e) {
+      System.out.println("Failed to write the proof.");
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Writes the whole proof in JSON. Leaves are written one constraint after another, such that
+   * proofs of any size can be generated.
+   *
+   * @param out target of the proof
+   * @throws IOException if writing to the output fails
+   */
+  public void write(Writer out) throws IOException {
+    out.write("{\"graph\":{\"claimedLowerBound\":" + claimedLowerBound + ",\"numberOfNodes\":"
+        + numberOfNodes + ",\"edges\":[");
+
+    for (int e = 0; e < sources.length; e++) {
+      JSONObject edge = new JSONObject();
+      edge.put("id", e);
+      edge.put("source", sources[e]);
+      edge.put("target", targets[e]);
+      edge.put("cost", 1);
+      out.write((e == 0 ? "\n" : ",\n") + edge);
+    }
+
+    out.write("]},\n\"solution\":{\"trivial\":false,\"leaves\":[");
+
+    for (int leaf = 0; leaf < 1 << variables.length; leaf++) {
+      out.write(leaf == 0 ? "\n" : ",\n");
+      writeLeaf(out, leaf);
+    }
+
+    out.write("]}}\n");
+    out.flush();
+  }
+
+  /**
+   * Writes a single leaf. Its index determines the values of all branching variables.
+   *
+   * @param out target of the leaf
+   * @param leaf index of the leaf
+   * @throws IOException if writing to the output fails
+   */
+  private void writeLeaf(Writer out, int leaf) throws IOException {
+    JSONArray fixedVariables = new JSONArray();
+
+    for (int i = 0; i < variables.length; i++) {
+      JSONObject variable = new JSONObject();
+      int[] var = variables[i];
+      variable.put("crossing", createCrossing(var[0], var[1], var[2], var[3]));
+      variable.put("value", (leaf >> i) & 1);
+      fixedVariables.put(variable);
+    }
+
+    out.write("{\"fixedVariables\":" + fixedVariables + ",\n\"expansions\":" + jsonExpansions
+        + ",\n\"constraints\":[");
+
+    for (int j = 0; j < constraintsPerLeaf; j++) {
+      out.write((j == 0 ? "\n" : ",\n") + createConstraint(j));
+    }
+
+    out.write("]}");
+  }
+
+  /**
+   * Adds the clique, the chain of all other nodes and random edges until the graph is complete.
+   */
+  private void createEdges() {
+    LongSet edges = new LongSet(sources.length);
+    int e = 0;
+
+    for (int i = 0; i < cliqueSize; i++) {
+      for (int ii = i + 1; ii < cliqueSize; ii++) {
+        e = addEdge(edges, e, i, ii);
+      }
+    }
+
+    for (int i = cliqueSize; i < numberOfNodes && e < sources.length; i++) {
+      e = addEdge(edges, e, i - 1, i);
+    }
+
+    while (e < sources.length) {
+      int source = random.nextInt(numberOfNodes);
+      int target = random.nextInt(numberOfNodes);
+
+      if (source != target) {
+        e = addEdge(edges, e, Math.min(source, target), Math.max(source, target));
+      }
+    }
+  }
+
+  /**
+   * Adds an edge unless it already exists.
+   *
+   * @param edges all existing edges
+   * @param edge index of the next edge
+   * @param source source of the edge, smaller than the target
+   * @param target target of the edge
+   * @return the index of the next edge
+   */
+  private int addEdge(LongSet edges, int edge, int source, int target) {
+    if (!edges.add((long) source * numberOfNodes + target)) {
+      return edge;
+    }
+
+    sources[edge] = source;
+    targets[edge] = target;
+
+    return edge + 1;
+  }
+
+  /**
+   * Chooses distinct crossings of non-adjacent edges of the clique to branch on.
+   *
+   * @param depth depth of the branch tree
+   * @return the edges and segments of each variable
+   */
+  private int[][] createVariables(int depth) {
+    int[][] result = new int[depth][];
+    LongSet chosen = new LongSet(depth);
+    int numberOfCliqueEdges = cliqueSize * (cliqueSize - 1) / 2;
+
+    for (int i = 0; i < depth;) {
+      int e = random.nextInt(numberOfCliqueEdges);
+      int f = random.nextInt(numberOfCliqueEdges);
+
+      if (sources[e] != sources[f] && sources[e] != targets[f] && targets[e] != sources[f]
+          && targets[e] != targets[f] && chosen.add((long) Math.min(e, f) * sources.length
+              + Math.max(e, f))) {
+        result[i++] = new int[] {e, random.nextInt(expansions + 1), f,
+            random.nextInt(expansions + 1)};
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates a random Kuratowski constraint. The first constraint of each leaf consists of edges
+   * only. Paths of further constraints pass a spare node or, for every other constraint, switch
+   * edges at a crossing.
+   *
+   * @param index index of the constraint within its leaf
+   * @return the constraint in JSON
+   */
+  private JSONObject createConstraint(int index) {
+    int[] nodes = new int[cliqueSize];
+
+    for (int i = 0; i < cliqueSize; i++) {
+      nodes[i] = i;
+    }
+
+    // the Kuratowski nodes and two spare nodes are drawn by a partial shuffle
+    for (int i = 0; i < MIN_CLIQUE_SIZE; i++) {
+      int j = i + random.nextInt(cliqueSize - i);
+      int tmp = nodes[i];
+      nodes[i] = nodes[j];
+      nodes[j] = tmp;
+    }
+
+    boolean k33 = random.nextBoolean();
+    int[][] ends = new int[k33 ? 9 : 10][];
+    int p = 0;
+
+    for (int i = 0; i < (k33 ? 3 : 5); i++) {
+      for (int ii = k33 ? 3 : i + 1; ii < (k33 ? 6 : 5); ii++) {
+        ends[p++] = new int[] {nodes[i], nodes[ii]};
+      }
+    }
+
+    int spare = nodes[k33 ? 6 : 5];
+    int otherSpare = nodes[k33 ? 7 : 6];
+    int routed = random.nextInt(ends.length);
+    JSONArray paths = new JSONArray();
+    JSONArray requiredCrossings = new JSONArray();
+
+    for (int i = 0; i < ends.length; i++) {
+      JSONArray path = new JSONArray();
+      int from = ends[i][0];
+      int to = ends[i][1];
+
+      if (i != routed || index == 0) {
+        path.put(createSection(from, -1, to, -1));
+      } else if (index % 2 == 0) {
+        path.put(createSection(from, -1, spare, -1));
+        path.put(createSection(spare, -1, to, -1));
+      } else {
+        // the path leaves its first edge at the crossing with the second one
+        int first = getEdge(from, spare);
+        int second = getEdge(otherSpare, to);
+        int firstSegment = random.nextInt(expansions + 1);
+        int secondSegment = random.nextInt(expansions + 1);
+        requiredCrossings.put(createCrossing(first, firstSegment, second, secondSegment));
+        path.put(createSection(from, -1, spare, firstSegment));
+        path.put(createSection(otherSpare, secondSegment, to, -1));
+      }
+
+      paths.put(path);
+    }
+
+    JSONObject result = new JSONObject();
+    result.put("type", k33 ? "K33" : "K5");
+    result.put("paths", paths);
+    result.put("requiredCrossings", requiredCrossings);
+
+    return result;
+  }
+
+  /**
+   * Creates a section traversing the edge between two nodes of the clique. A section starts and
+   * ends either at a node or at a crossing on the edge.
+   *
+   * @param from node the section starts at or towards
+   * @param fromSegment segment of the crossing the section starts at, {@code -1} for the node
+   * @param to node the section ends at or towards
+   * @param toSegment segment of the crossing the section ends at, {@code -1} for the node
+   * @return the section in JSON
+   */
+  private JSONObject createSection(int from, int fromSegment, int to, int toSegment) {
+    int e = getEdge(from, to);
+    boolean keepDirection = sources[e] == from;
+    int sourceSegment = keepDirection ? fromSegment : toSegment;
+    int targetSegment = keepDirection ? toSegment : fromSegment;
+
+    JSONObject result = new JSONObject();
+    result.put("edge", createEdge(e));
+    result.put("start", sourceSegment == -1 ? -1 : sourceSegment);
+    result.put("end", targetSegment == -1 ? claimedLowerBound : targetSegment);
+    result.put("keepDirection", keepDirection);
+
+    return result;
+  }
+
+  private JSONArray createCrossing(int edge, int segment, int otherEdge, int otherSegment) {
+    JSONArray result = new JSONArray();
+    result.put(createSegment(edge, segment));
+    result.put(createSegment(otherEdge, otherSegment));
+
+    return result;
+  }
+
+  private JSONObject createSegment(int edge, int segment) {
+    JSONObject result = new JSONObject();
+    result.put("edge", createEdge(edge));
+    result.put("segment", segment);
+
+    return result;
+  }
+
+  private JSONObject createEdge(int edge) {
+    JSONObject result = new JSONObject();
+    result.put("source", sources[edge]);
+    result.put("target", targets[edge]);
+
+    return result;
+  }
+
+  /**
+   * Returns the index of an edge of the clique, which are added in lexicographical order.
+   *
+   * @param node one of the nodes
+   * @param otherNode the other node
+   * @return the index of the edge
+   */
+  private int getEdge(int node, int otherNode) {
+    int i = Math.min(node, otherNode);
+    int ii = Math.max(node, otherNode);
+
+    return i * (2 * cliqueSize - i - 1) / 2 + ii - i - 1;
+  }
+
+  /**
+   * Parses a non-negative integer, such as the number of nodes.
+   *
+   * @param value command line argument
+   * @param name name of the parsed quantity, used for error messages
+   * @return the integer
+   * @throws InvalidConfigurationException if the argument is not a non-negative integer
+   */
+  private static int parseInteger(String value, String name)
+      throws InvalidConfigurationException {
+    int result = 0;
+
+    try {
+      result = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw ExceptionHelper.wrap(e, new InvalidConfigurationException("Invalid " + name + ": "
+          + value));
+    }
+
+    if (result < 0) {
+      throw new InvalidConfigurationException(Character.toUpperCase(name.charAt(0))
+          + name.substring(1) + " must not be negative: " + value);
+    }
+
+    return result;
+  }
+}
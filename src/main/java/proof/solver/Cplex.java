@@ -13,6 +13,25 @@ class Cplex extends Solver {
     return "cplex -c read " + filename + " optimize quit";
   }
 
+  /**
+   * Sessions rely on the interactive shell reporting unknown commands along with their name. This
+   * has not been verified for any release of CPLEX yet, each session is probed before use.
+   */
+  @Override
+  protected String getSessionCommand() {
+    return "cplex";
+  }
+
+  @Override
+  protected String getSessionInput(String filename) {
+    return "read " + filename + "\noptimize\n";
+  }
+
+  @Override
+  protected String getVersionCommand() {
+    return "cplex -c quit";
+  }
+
   @Override
   protected void handleLine(String line) throws LinearProgramException {
     if (line.contains(" - Optimal:")) {
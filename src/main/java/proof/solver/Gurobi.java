@@ -13,6 +13,11 @@ class Gurobi extends Solver {
     return "gurobi_cl " + filename;
   }
 
+  @Override
+  protected String getVersionCommand() {
+    return "gurobi_cl --version";
+  }
+
   @Override
   protected void handleLine(String line) throws LinearProgramException {
     boolean empty = line.contains("(null): 0 rows, 0 columns, 0 nonzeros");
@@ -0,0 +1,102 @@
+package proof.solver;
+
+import proof.exception.ExceptionHelper;
+import proof.exception.LinearProgramException;
+import proof.util.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Pure Java linear program solver that does not rely on any external software. Linear programs are
+ * solved in-process by the {@link RevisedSimplex} method, which is suitable for small and medium
+ * sized programs. The reported objective value is derived from the dual solution and rounded
+ * safely, see {@link RevisedSimplex#getSafeObjectiveBound()}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+class InternalSolver extends Solver {
+  /**
+   * Version of this solver. Must be increased whenever changes might affect the results.
+   */
+  private static final String VERSION = "internal 1";
+
+  @Override
+  public double solve(String filename) throws LinearProgramException {
+    LinearProgram program = null;
+
+    try {
+      program = new LinearProgramParser().parse(Paths.get(filename));
+    } catch (IOException e) {
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, filename));
+    } catch (ParseException e) {
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, filename, "Line "
+          + e.getErrorOffset() + ": " + e.getMessage()));
+    }
+
+    return solve(program, filename);
+  }
+
+  /**
+   * Solves a linear program directly, without writing any file.
+   *
+   * @param program the linear program
+   * @param filename name of the linear program, used for error messages only
+   * @return the optimal objective value
+   * @throws LinearProgramException if the linear program is infeasible, unbounded, or could not be
+   *         solved due to numerical issues
+   */
+  @Override
+  public double solve(LinearProgram program, String filename) throws LinearProgramException {
+    RevisedSimplex simplex = new RevisedSimplex(program);
+    RevisedSimplex.Status status = null;
+    long start = System.nanoTime();
+
+    try {
+      status = simplex.solve();
+    } catch (ArithmeticException e) {
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, filename, e.getMessage()));
+    } finally {
+      if (getMetrics() != null) {
+        getMetrics().recordSince(Metrics.Phase.SOLVE, start);
+      }
+    }
+
+    if (status == RevisedSimplex.Status.INFEASIBLE) {
+      throw new LinearProgramException(this, filename, "Linear program is infeasible.");
+    } else if (status == RevisedSimplex.Status.UNBOUNDED) {
+      throw new LinearProgramException(this, filename, "Linear program is unbounded.");
+    }
+
+    Double result = simplex.getSafeObjectiveBound();
+
+    // the bound is not finite if any relevant variable is unbounded
+    if (result == null) {
+      throw new LinearProgramException(this, filename,
+          "No safe bound on the objective value could be derived.");
+    }
+
+    return result;
+  }
+
+  @Override
+  public String getVersion() {
+    return VERSION;
+  }
+
+  @Override
+  protected boolean isAvailable() {
+    return true;
+  }
+
+  @Override
+  protected String getCommand(String filename) {
+    return "internal";
+  }
+
+  @Override
+  protected void handleLine(String line) {
+    // the output of external processes is never parsed
+  }
+}
@@ -0,0 +1,311 @@
+package proof.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse representation of a linear program. Each column (i.e. variable) has a cost, and a lower
+ * and upper bound. Columns are identified by their index. Names are required for serialization
+ * only and can thus be provided on demand, see {@link ColumnNamer}. Each row (i.e. constraint)
+ * is bounded from below and above, thus {@code lower <= a * x <= upper}. Infinite bounds are
+ * represented by {@link Double#POSITIVE_INFINITY} and {@link Double#NEGATIVE_INFINITY}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LinearProgram {
+  private boolean maximize = false;
+
+  private int numberOfColumns = 0;
+  private final List<String> names;
+  private final Map<String, Integer> columns;
+  private ColumnNamer namer = null;
+  private double[] costs;
+  private double[] columnLower;
+  private double[] columnUpper;
+
+  private final List<int[]> rowColumns;
+  private final List<double[]> rowCoefficients;
+  private double[] rowLower;
+  private double[] rowUpper;
+
+  private final List<Integer> commentRows;
+  private final List<String> comments;
+
+  /**
+   * Provides the names of columns that were added without an explicit name.
+   */
+  public interface ColumnNamer {
+    /**
+     * Returns the name of a column. Names must be unique.
+     *
+     * @param column index of the column
+     * @return the name of the column
+     */
+    String getName(int column);
+  }
+
+  /**
+   * Creates an empty linear program.
+   */
+  public LinearProgram() {
+    names = new ArrayList<>();
+    columns = new HashMap<>();
+    costs = new double[16];
+    columnLower = new double[16];
+    columnUpper = new double[16];
+    rowColumns = new ArrayList<>();
+    rowCoefficients = new ArrayList<>();
+    rowLower = new double[16];
+    rowUpper = new double[16];
+    commentRows = new ArrayList<>();
+    comments = new ArrayList<>();
+  }
+
+  /**
+   * Creates a copy of another linear program. Since rows can not be modified, their coefficients
+   * are shared by both programs.
+   *
+   * @param other the program to be copied
+   */
+  public LinearProgram(LinearProgram other) {
+    maximize = other.maximize;
+    numberOfColumns = other.numberOfColumns;
+    names = new ArrayList<>(other.names);
+    columns = new HashMap<>(other.columns);
+    namer = other.namer;
+    costs = other.costs.clone();
+    columnLower = other.columnLower.clone();
+    columnUpper = other.columnUpper.clone();
+    rowColumns = new ArrayList<>(other.rowColumns);
+    rowCoefficients = new ArrayList<>(other.rowCoefficients);
+    rowLower = other.rowLower.clone();
+    rowUpper = other.rowUpper.clone();
+    commentRows = new ArrayList<>(other.commentRows);
+    comments = new ArrayList<>(other.comments);
+  }
+
+  public boolean isMaximize() {
+    return maximize;
+  }
+
+  /**
+   * Sets the direction of optimization. Programs are minimized by default.
+   *
+   * @param maximize {@code true} iff the objective is to be maximized
+   */
+  public void setMaximize(boolean maximize) {
+    this.maximize = maximize;
+  }
+
+  public int getNumberOfColumns() {
+    return numberOfColumns;
+  }
+
+  public int getNumberOfRows() {
+    return rowColumns.size();
+  }
+
+  /**
+   * Adds a new column with the given cost and bounds.
+   *
+   * @param name unique name of the column
+   * @param cost coefficient of the column in the objective function
+   * @param lower lower bound of the variable
+   * @param upper upper bound of the variable
+   * @return the index of the new column
+   * @throws IllegalArgumentException if the name is already in use
+   */
+  public int addColumn(String name, double cost, double lower, double upper) {
+    if (columns.containsKey(name)) {
+      throw new IllegalArgumentException("Duplicate column: " + name);
+    }
+
+    int result = addColumn(cost, lower, upper);
+    names.set(result, name);
+    columns.put(name, result);
+
+    return result;
+  }
+
+  /**
+   * Adds a new column without an explicit name. The name is obtained from the
+   * {@link ColumnNamer} if required.
+   *
+   * @param cost coefficient of the column in the objective function
+   * @param lower lower bound of the variable
+   * @param upper upper bound of the variable
+   * @return the index of the new column
+   */
+  public int addColumn(double cost, double lower, double upper) {
+    int result = numberOfColumns++;
+
+    if (result == costs.length) {
+      costs = Arrays.copyOf(costs, 2 * result);
+      columnLower = Arrays.copyOf(columnLower, 2 * result);
+      columnUpper = Arrays.copyOf(columnUpper, 2 * result);
+    }
+
+    names.add(null);
+    costs[result] = cost;
+    columnLower[result] = lower;
+    columnUpper[result] = upper;
+
+    return result;
+  }
+
+  /**
+   * Returns the index of a column. Only explicitly named columns are considered.
+   *
+   * @param name name of the column
+   * @return the index or {@code -1} if there is no such column
+   */
+  public int getColumn(String name) {
+    Integer result = columns.get(name);
+    return result == null ? -1 : result;
+  }
+
+  /**
+   * Returns the name of a column. Columns without an explicit name are named by the
+   * {@link ColumnNamer} or after their index if there is none.
+   *
+   * @param column index of the column
+   * @return the name of the column
+   */
+  public String getColumnName(int column) {
+    String result = names.get(column);
+
+    if (result == null) {
+      result = namer == null ? ("x" + column) : namer.getName(column);
+    }
+
+    return result;
+  }
+
+  /**
+   * Sets the provider for the names of all columns that were added without an explicit name.
+   *
+   * @param namer the provider of column names
+   */
+  public void setColumnNamer(ColumnNamer namer) {
+    this.namer = namer;
+  }
+
+  public double getCost(int column) {
+    return costs[column];
+  }
+
+  public void setCost(int column, double cost) {
+    costs[column] = cost;
+  }
+
+  public double getLowerBound(int column) {
+    return columnLower[column];
+  }
+
+  public double getUpperBound(int column) {
+    return columnUpper[column];
+  }
+
+  /**
+   * Sets the bounds of a single column.
+   *
+   * @param column index of the column
+   * @param lower lower bound of the variable
+   * @param upper upper bound of the variable
+   */
+  public void setBounds(int column, double lower, double upper) {
+    columnLower[column] = lower;
+    columnUpper[column] = upper;
+  }
+
+  /**
+   * Adds a new row. Each column must occur at most once.
+   *
+   * @param indices indices of all columns with non-zero coefficients
+   * @param coefficients the respective coefficients
+   * @param lower lower bound of the row
+   * @param upper upper bound of the row
+   * @return the index of the new row
+   */
+  public int addRow(int[] indices, double[] coefficients, double lower, double upper) {
+    if (indices.length != coefficients.length) {
+      throw new IllegalArgumentException("Number of indices and coefficients differ.");
+    }
+
+    int result = rowColumns.size();
+
+    if (result == rowLower.length) {
+      rowLower = Arrays.copyOf(rowLower, 2 * result);
+      rowUpper = Arrays.copyOf(rowUpper, 2 * result);
+    }
+
+    rowColumns.add(indices);
+    rowCoefficients.add(coefficients);
+    rowLower[result] = lower;
+    rowUpper[result] = upper;
+
+    return result;
+  }
+
+  /**
+   * Returns the indices of all columns with non-zero coefficients in a row. The returned array must
+   * not be modified.
+   *
+   * @param row index of the row
+   * @return the column indices
+   */
+  public int[] getRowColumns(int row) {
+    return rowColumns.get(row);
+  }
+
+  /**
+   * Returns the coefficients of a row, see {@link #getRowColumns(int)}. The returned array must
+   * not be modified.
+   *
+   * @param row index of the row
+   * @return the coefficients
+   */
+  public double[] getRowCoefficients(int row) {
+    return rowCoefficients.get(row);
+  }
+
+  public double getRowLowerBound(int row) {
+    return rowLower[row];
+  }
+
+  public double getRowUpperBound(int row) {
+    return rowUpper[row];
+  }
+
+  /**
+   * Adds a comment preceding the next row. Comments are not relevant for the solution, but are
+   * included in serialized programs.
+   *
+   * @param comment single line of text
+   */
+  public void addComment(String comment) {
+    commentRows.add(rowColumns.size());
+    comments.add(comment);
+  }
+
+  public int getNumberOfComments() {
+    return comments.size();
+  }
+
+  public String getComment(int index) {
+    return comments.get(index);
+  }
+
+  /**
+   * Returns the row preceded by a comment.
+   *
+   * @param index index of the comment
+   * @return the index of the row, equals the number of rows for trailing comments
+   */
+  public int getCommentRow(int index) {
+    return commentRows.get(index);
+  }
+}
@@ -5,24 +5,29 @@ import org.json.JSONObject;
 
 import proof.data.CrossingIndex;
 import proof.data.Graph;
+import proof.data.KuratowskiConstraint;
 import proof.data.Path;
-import proof.data.SegmentIndex;
-import proof.data.reader.CrossingReader;
-import proof.data.reader.PathReader;
+import proof.data.reader.ConstraintReader;
 import proof.exception.ExceptionHelper;
-import proof.exception.InvalidGraphException;
 import proof.exception.InvalidProofException;
-import proof.exception.ReaderException;
 import proof.util.Config;
+import proof.util.LongSet;
 import proof.util.Statistics;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * Class for generating the linear program used to prove the lower bound. The program is returned in
- * CPLEX LP file format.
+ * Class for generating the linear program used to prove the lower bound. The program is created as
+ * a sparse {@link LinearProgram}, which can be passed to a {@link Solver} directly or be written by
+ * an {@link LpWriter}. Columns are named on demand only. The leaf-independent base model of the
+ * most recent expansions is kept and shared by all leaves with the same expansions.
  *
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
@@ -30,7 +35,31 @@ public class LinearProgramGenerator {
   private final Graph graph;
   private final int[] expansions;
   private final Statistics stats = new Statistics();
-  private final Set<CrossingIndex> variables = new HashSet<CrossingIndex>();
+
+  /**
+   * The first column of the crossings between each edge and its non-adjacent edges, in the order
+   * of {@link Graph#getNonAdjacentEdges(int)}. Only defined for edges of higher index.
+   */
+  private int[][] columnOffsets = null;
+
+  /**
+   * The base model of the current expansions (see {@link #createBaseModel()}) along with its
+   * statistics. Consecutive leaves commonly share the same expansions.
+   */
+  private LinearProgram baseModel = null;
+  private Map<String, Integer> baseStats = null;
+
+  /**
+   * Whether all crossings of the current expansions can be packed (see
+   * {@link CrossingIndex#isPackable(int, int)}). Otherwise, crossings are collected as objects.
+   */
+  private boolean packable = true;
+
+  /**
+   * Whether to omit all columns not required by any Kuratowski constraint, see
+   * {@link #createSparseModel(LinearProgram, int)}.
+   */
+  private boolean sparse = false;
 
   /**
    * Initializes a new generator.
@@ -43,323 +72,584 @@ public class LinearProgramGenerator {
   }
 
   /**
-   * Returns a linear program based on the expanded graph and all given Kuratowski subdivisions. The
-   * program is returned in CPLEX LP file format.
+   * Returns a linear program based on the expanded graph and all given Kuratowski subdivisions.
    *
    * @param fixedVariables currently fixed branching variables
    * @param leaf JSON object containing all relevant information for this leaf
-   * @return the generated linear program in CPLEX LP file format
-   * @throws InvalidProofException if the number of expansions on any edge is negative
+   * @return the generated linear program
+   * @throws InvalidProofException if the number of expansions on any edge is negative or any
+   *         constraint is invalid
    */
-  public String createLinearProgram(Map<CrossingIndex, Boolean> fixedVariables, JSONObject leaf)
-      throws InvalidProofException {
-    final StringBuilder result = new StringBuilder();
-
+  public LinearProgram createLinearProgram(Map<CrossingIndex, Boolean> fixedVariables,
+      JSONObject leaf) throws InvalidProofException {
     JSONArray jsonConstraints = leaf.getJSONArray("constraints");
-    JSONObject jsonExpansions = leaf.getJSONObject("expansions");
+    List<KuratowskiConstraint> constraints = new ArrayList<>(jsonConstraints.length());
+    ConstraintReader reader = new ConstraintReader(graph);
 
-    stats.clear();
-    stats.put("fixed variables", fixedVariables.size());
-    stats.put("Kuratowski constraints", jsonConstraints.length());
+    for (int i = 0; i < jsonConstraints.length(); i++) {
+      constraints.add(reader.read(jsonConstraints.getJSONObject(i)));
+    }
+
+    return createLinearProgram(fixedVariables, leaf, constraints);
+  }
+
+  /**
+   * Returns a linear program based on the expanded graph and the given Kuratowski subdivisions.
+   * The constraints of the leaf are not read again, such that validated constraints can be shared.
+   *
+   * @param fixedVariables currently fixed branching variables
+   * @param leaf JSON object containing the expansions of this leaf
+   * @param constraints all Kuratowski constraints of this leaf
+   * @return the generated linear program
+   * @throws InvalidProofException if the number of expansions on any edge is negative
+   */
+  public LinearProgram createLinearProgram(Map<CrossingIndex, Boolean> fixedVariables,
+      JSONObject leaf, List<KuratowskiConstraint> constraints) throws InvalidProofException {
+    JSONObject jsonExpansions = leaf.getJSONObject("expansions");
+    int[] leafExpansions = new int[graph.getNumberOfEdges()];
 
     // parse expansions (i.e. the variables to be generated)
     for (int e = 0; e < graph.getNumberOfEdges(); e++) {
-      expansions[e] = jsonExpansions.getInt(String.valueOf(e));
+      leafExpansions[e] = jsonExpansions.getInt(String.valueOf(e));
 
-      if (expansions[e] < 0) {
+      if (leafExpansions[e] < 0) {
         throw new InvalidProofException("The amount of additional segments must not be negative.");
       }
     }
 
-    result.append("Minimize\nobj:\n");
-    result.append(generateObjective());
+    stats.clear();
+
+    if (baseModel != null && Arrays.equals(leafExpansions, expansions)) {
+      for (Map.Entry<String, Integer> entry : baseStats.entrySet()) {
+        stats.put(entry.getKey(), entry.getValue());
+      }
+    } else {
+      System.arraycopy(leafExpansions, 0, expansions, 0, expansions.length);
+      baseModel = createBaseModel();
+      baseStats = new HashMap<>(stats);
+    }
+
+    LinearProgram result = new LinearProgram(baseModel);
+
+    // all variables are continuous on the interval [0,1], unless fixed due to branching
+    for (Map.Entry<CrossingIndex, Boolean> entry : fixedVariables.entrySet()) {
+      int column = getColumn(entry.getKey());
+
+      if (column != -1) {
+        double value = entry.getValue() ? 1 : 0;
+        result.setBounds(column, value, value);
+      }
+    }
+
+    stats.put("fixed variables", fixedVariables.size());
+    stats.put("Kuratowski constraints", constraints.size());
+
+    for (int i = 0; i < constraints.size(); i++) {
+      result.addComment("Kuratowski Constraint " + i);
+      addKuratowski(result, constraints.get(i));
+    }
+
+    if (sparse) {
+      result = createSparseModel(result, baseModel.getNumberOfRows());
+    }
+
+    for (String line : stats.format()) {
+      Config.get().logger.print("    " + line);
+    }
+
+    return result;
+  }
+
+  /**
+   * Enables or disables sparse linear programs. Sparse programs only contain the columns of
+   * crossings that occur in any Kuratowski constraint, are fixed, or have a non-zero lower bound.
+   * Their optimal objective value never exceeds the one of the full program (see
+   * {@link #createSparseModel(LinearProgram, int)}), thus they still prove valid lower bounds.
+   * However, the lower bound might be weaker since some of the base model is relaxed.
+   *
+   * @param sparse {@code true} iff sparse linear programs should be generated
+   */
+  public void setSparse(boolean sparse) {
+    this.sparse = sparse;
+  }
+
+  /**
+   * Returns whether sparse linear programs are generated, see {@link #setSparse(boolean)}.
+   *
+   * @return {@code true} iff sparse linear programs are generated
+   */
+  public boolean isSparse() {
+    return sparse;
+  }
+
+  /**
+   * Creates the part of the linear program that solely depends on the graph and the expansions:
+   * the objective function as well as all simplicity, ordering, and first segment constraints.
+   *
+   * @return the base model
+   */
+  private LinearProgram createBaseModel() {
+    int maxSegment = 0;
 
-    stats.put("variables", variables.size());
+    for (int e = 0; e < graph.getNumberOfEdges(); e++) {
+      maxSegment = Math.max(maxSegment, expansions[e]);
+    }
 
-    result.append("\nSubject To");
+    packable = CrossingIndex.isPackable(graph.getNumberOfEdges() - 1, maxSegment);
+    LinearProgram result = createObjective();
+    stats.put("variables", result.getNumberOfColumns());
 
     // note that simplicity is not required on the first segment
-    result.append("\n\\ Simplicity Constraints");
+    result.addComment("Simplicity Constraints");
 
     for (int e = 0; e < graph.getNumberOfEdges(); e++) {
       for (int s = 1; s <= expansions[e]; s++) {
-        result.append("\n" + sumVariables(e, s) + " <= 1");
+        Row row = new Row();
+        sumVariables(row, e, s, 1);
+        row.addTo(result, Double.NEGATIVE_INFINITY, 1);
         stats.increase("simplicity constraints");
       }
     }
 
-    result.append("\n\\ Ordering Constraints");
+    result.addComment("Ordering Constraints");
 
     for (int e = 0; e < graph.getNumberOfEdges(); e++) {
       for (int s = 1; s < expansions[e]; s++) {
-        result.append("\n" + sumVariables(e, s) + sumVariables(e, s + 1, true) + " >= 0");
+        Row row = new Row();
+        sumVariables(row, e, s, 1);
+        sumVariables(row, e, s + 1, -1);
+        row.addTo(result, 0, Double.POSITIVE_INFINITY);
         stats.increase("ordering constraints");
       }
     }
 
-    result.append("\n\\ First Segment Constraints");
+    result.addComment("First Segment Constraints");
 
     // first segment constraints are generated for fully expanded edges only
     // note that an edge will cross with at most every non-adjacent edge once
     for (int e = 0; e < graph.getNumberOfEdges(); e++) {
-      int maxExpansions = graph.getNumberOfEdges();
+      int maxExpansions =
+          Math.min(graph.getNonAdjacentEdges(e).length, graph.getClaimedLowerBound() - 2);
 
-      for (int f = 0; f < graph.getNumberOfEdges(); f++) {
-        if (graph.areEdgesAdjacent(e, f)) {
-          maxExpansions--;
-        }
+      if (maxExpansions > 0 && expansions[e] == maxExpansions) {
+        Row row = new Row();
+        sumVariables(row, e, expansions[e], 1);
+        sumVariables(row, e, 0, -1);
+        row.addTo(result, 0, Double.POSITIVE_INFINITY);
+        stats.increase("first segment constraints");
       }
+    }
 
-      maxExpansions = Math.min(maxExpansions, graph.getClaimedLowerBound() - 2);
+    return result;
+  }
 
-      if (maxExpansions > 0 && expansions[e] == maxExpansions) {
-        result.append("\n" + sumVariables(e, expansions[e]) + sumVariables(e, 0, true) + " >= 0");
-        stats.increase("first segment constraints");
+  /**
+   * Restricts a linear program to the columns relevant for its Kuratowski constraints. A column is
+   * kept if it occurs in any Kuratowski constraint, has a negative cost, a non-zero lower bound, or
+   * is fixed. All other columns are omitted, i.e. fixed to zero.
+   *
+   * <p>
+   * The resulting program is a relaxation of a projection: Setting all omitted columns of any
+   * feasible solution to zero does not increase the objective value, since their costs are
+   * non-negative. It does not violate any column bound, nor any Kuratowski constraint. Each other
+   * row is kept only if decreasing the omitted columns cannot violate it, which holds for upper
+   * bounded rows with non-negative coefficients (e.g. simplicity constraints) or lower bounded rows
+   * with non-positive coefficients. All remaining rows are dropped. Thus, the optimal objective
+   * value of the sparse program is at most the one of the full program.
+   * </p>
+   *
+   * @param program the full linear program
+   * @param firstKuratowskiRow index of the first row representing a Kuratowski constraint
+   * @return the sparse linear program
+   */
+  private LinearProgram createSparseModel(LinearProgram program, int firstKuratowskiRow) {
+    int[] columns = new int[program.getNumberOfColumns()];
+    Arrays.fill(columns, -1);
+
+    for (int i = firstKuratowskiRow; i < program.getNumberOfRows(); i++) {
+      for (int column : program.getRowColumns(i)) {
+        columns[column] = 0;
       }
     }
 
-    for (int i = 0; i < jsonConstraints.length(); i++) {
-      result.append("\n\\ Kuratowski Constraint " + i + "\n");
-      result.append(generateKuratowski(jsonConstraints.getJSONObject(i)));
+    LinearProgram result = new LinearProgram();
+    result.setMaximize(program.isMaximize());
+    result.addComment("Sparse model: omitted variables are fixed to 0, any constraint that might be"
+        + " violated by doing so is omitted as well");
+
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      double lower = program.getLowerBound(j);
+
+      if (columns[j] == 0 || program.getCost(j) < 0 || lower != 0
+          || lower == program.getUpperBound(j)) {
+        columns[j] =
+            result.addColumn(program.getColumnName(j), program.getCost(j), lower,
+                program.getUpperBound(j));
+      } else {
+        columns[j] = -1;
+      }
     }
 
-    result.append("\nBounds");
-    result.append(generateBounds(fixedVariables));
-    result.append("\nEnd");
+    int comment = 0;
 
-    for (String line : stats.format()) {
-      Config.get().logger.print("    " + line);
-    }
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      for (; comment < program.getNumberOfComments() && program.getCommentRow(comment) <= i;
+          comment++) {
+        result.addComment(program.getComment(comment));
+      }
 
-    return result.toString();
-  }
+      double lower = program.getRowLowerBound(i);
+      double upper = program.getRowUpperBound(i);
+      int[] rowColumns = program.getRowColumns(i);
+      double[] rowCoefficients = program.getRowCoefficients(i);
+      boolean valid = true;
+      Row row = new Row();
+
+      for (int k = 0; k < rowColumns.length && valid; k++) {
+        if (columns[rowColumns[k]] != -1) {
+          row.add(columns[rowColumns[k]], rowCoefficients[k]);
+        } else if (rowCoefficients[k] > 0) {
+          valid = lower == Double.NEGATIVE_INFINITY;
+        } else {
+          valid = upper == Double.POSITIVE_INFINITY;
+        }
+      }
 
-  /**
-   * Generates and returns a single Kuratowski constraint.
-   *
-   * @param constraint JSON structure containing all paths and required crossings
-   * @return CPLEX LP file format compliant description of the constraint
-   * @throws InvalidProofException if a required crossing turns out to be infeasible
-   */
-  private String generateKuratowski(JSONObject constraint) throws InvalidProofException {
-    final StringBuilder result = new StringBuilder();
-    Set<CrossingIndex> requiredCrossings = new HashSet<>();
-    CrossingReader crossReader = new CrossingReader(graph);
-
-    // collect required crossings
-    for (int i = 0; i < constraint.getJSONArray("requiredCrossings").length(); i++) {
-      try {
-        CrossingIndex crossing =
-            crossReader.read(constraint.getJSONArray("requiredCrossings").getJSONArray(i));
-        requiredCrossings.add(crossing);
-      } catch (ReaderException e) {
-        throw ExceptionHelper
-            .wrap(e, new InvalidProofException("Encountered infeasible crossing."));
+      if (!valid) {
+        stats.increase("omitted constraints");
+      } else if (row.size > 0 || lower > 0 || upper < 0) {
+        row.addTo(result, lower, upper);
       }
     }
 
-    boolean first = true;
-    JSONArray paths = constraint.getJSONArray("paths");
-    PathReader pathReader = new PathReader(graph, requiredCrossings);
-    Set<CrossingIndex> feasibleCrossings = new HashSet<>();
+    for (; comment < program.getNumberOfComments(); comment++) {
+      result.addComment(program.getComment(comment));
+    }
 
-    // collect feasible crossings for resolving the Kuratowski subdivision
-    for (int i = 0; i < paths.length(); i++) {
-      JSONArray path1 = paths.getJSONArray(i);
+    stats.put("omitted variables", program.getNumberOfColumns() - result.getNumberOfColumns());
 
-      for (int k = i + 1; k < paths.length(); k++) {
-        JSONArray path2 = paths.getJSONArray(k);
-        Path p1 = pathReader.read(path1);
-        Path p2 = pathReader.read(path2);
+    return result;
+  }
 
+  /**
+   * Adds a single Kuratowski constraint.
+   *
+   * @param program target of the constraint
+   * @param constraint the Kuratowski constraint, containing all paths and required crossings
+   */
+  private void addKuratowski(LinearProgram program, KuratowskiConstraint constraint) {
+    List<Path> paths = constraint.getPaths();
+    LongSet packedCrossings = packable ? new LongSet() : null;
+    Set<CrossingIndex> feasibleCrossings = packable ? null : new LinkedHashSet<CrossingIndex>();
 
+    // collect feasible crossings for resolving the Kuratowski subdivision
+    for (int i = 0; i < paths.size(); i++) {
+      for (int k = i + 1; k < paths.size(); k++) {
         // crossing adjacent paths do not resolve the subdivision
-        if (!p1.isAdjacentTo(p2)) {
-          feasibleCrossings.addAll(collectFeasibleCrossings(path1, path2));
+        if (!paths.get(i).isAdjacentTo(paths.get(k))) {
+          collectFeasibleCrossings(paths.get(i), paths.get(k), packedCrossings,
+              feasibleCrossings);
         }
       }
     }
 
-    for (CrossingIndex crossing : feasibleCrossings) {
-      result.append((first ? "" : " + ") + createVarName(crossing));
-      first = false;
+    // a crossing might be both feasible and required, thus coefficients are accumulated
+    Map<Integer, Double> coefficients = new LinkedHashMap<>();
+
+    if (packable) {
+      for (int i = 0; i < packedCrossings.size(); i++) {
+        CrossingIndex crossing = CrossingIndex.unpack(packedCrossings.get(i));
+        coefficients.put(getOrAddColumn(program, crossing), 1.0);
+      }
+    } else {
+      for (CrossingIndex crossing : feasibleCrossings) {
+        coefficients.put(getOrAddColumn(program, crossing), 1.0);
+      }
     }
 
-    for (CrossingIndex crossing : requiredCrossings) {
-      result.append(" - " + createVarName(crossing));
+    for (CrossingIndex crossing : constraint.getRequiredCrossings()) {
+      int column = getOrAddColumn(program, crossing);
+      Double previous = coefficients.get(column);
+      coefficients.put(column, previous == null ? -1 : (previous - 1));
     }
 
-    result.append(" >= " + (1 - requiredCrossings.size()));
+    Row row = new Row();
+
+    for (Map.Entry<Integer, Double> entry : coefficients.entrySet()) {
+      if (entry.getValue() != 0) {
+        row.add(entry.getKey(), entry.getValue());
+      }
+    }
 
-    return result.toString();
+    row.addTo(program, 1 - constraint.getRequiredCrossings().size(), Double.POSITIVE_INFINITY);
   }
 
   /**
-   * Collects all feasible {@link #variables} over all segments of two paths.
+   * Collects all feasible crossings over all segments of two paths. Crossings are packed (see
+   * {@link CrossingIndex#pack(int, int, int, int)}), since the same crossing is commonly collected
+   * for many pairs of paths. Crossings of graphs exceeding the range of packed keys are collected
+   * as objects instead.
    *
    * @param path1 first path
    * @param path2 second path
-   * @return the set of feasible crossings
-   * @throws InvalidProofException if any required edge does not exist
+   * @param packedResult target of the packed feasible crossings, {@code null} if not packable
+   * @param result target of the feasible crossings if not packable
    */
-  private Set<CrossingIndex> collectFeasibleCrossings(JSONArray path1, JSONArray path2)
-      throws InvalidProofException {
-    Set<CrossingIndex> result = new HashSet<>();
-
-    for (int i = 0; i < path1.length(); i++) {
-      for (int k = 0; k < path2.length(); k++) {
-        JSONObject segRange1 = path1.getJSONObject(i);
-        JSONObject segRange2 = path2.getJSONObject(k);
-
-        try {
-          int edge1 =
-              graph.getEdgeId(segRange1.getJSONObject("edge").getInt("source"), segRange1
-                  .getJSONObject("edge").getInt("target"));
-
-          int edge2 =
-              graph.getEdgeId(segRange2.getJSONObject("edge").getInt("source"), segRange2
-                  .getJSONObject("edge").getInt("target"));
-
-          int startSeg1 = Math.max(0, segRange1.getInt("start"));
-          int startSeg2 = Math.max(0, segRange2.getInt("start"));
-
-          int endSeg1 = Math.min(expansions[edge1], segRange1.getInt("end"));
-          int endSeg2 = Math.min(expansions[edge2], segRange2.getInt("end"));
-
-          // since the first segment might participate in multiple paths this condition could
-          // be false
-          if (!graph.areEdgesAdjacent(edge1, edge2)) {
-            for (int s1 = startSeg1; s1 <= endSeg1; s1++) {
-              for (int s2 = startSeg2; s2 <= endSeg2; s2++) {
+  private void collectFeasibleCrossings(Path path1, Path path2, LongSet packedResult,
+      Set<CrossingIndex> result) {
+    for (int i = 0; i < path1.getNumberOfSections(); i++) {
+      int edge1 = path1.getSectionEdge(i);
+      int startSeg1 = Math.max(0, path1.getSectionStart(i));
+      int endSeg1 = Math.min(expansions[edge1], path1.getSectionEnd(i));
+
+      for (int k = 0; k < path2.getNumberOfSections(); k++) {
+        int edge2 = path2.getSectionEdge(k);
+
+        // since the first segment might participate in multiple paths this condition could
+        // be false
+        if (!graph.areEdgesAdjacent(edge1, edge2)) {
+          int startSeg2 = Math.max(0, path2.getSectionStart(k));
+          int endSeg2 = Math.min(expansions[edge2], path2.getSectionEnd(k));
+
+          for (int s1 = startSeg1; s1 <= endSeg1; s1++) {
+            for (int s2 = startSeg2; s2 <= endSeg2; s2++) {
+              if (packedResult != null) {
+                packedResult.add(CrossingIndex.pack(edge1, s1, edge2, s2));
+              } else {
                 result.add(new CrossingIndex(edge1, s1, edge2, s2));
               }
             }
           }
-        } catch (InvalidGraphException e) {
-          throw ExceptionHelper.wrap(e, new InvalidProofException("Edge does not exist."));
         }
       }
     }
-
-    return result;
   }
 
   /**
-   * Generates the lower and upper bound for all variables. All variables are continuous on the
-   * interval {@code [0,1]}. However, some variables might be fixed to either {@code 1} or {@code 0}
-   * due to branching.
+   * Creates a linear program containing the objective function to be minimized. There is a column
+   * for each feasible variable. Since adjacent edges will never cross in any optimal drawing of a
+   * graph they are not considered as feasible variables. The cost of any crossing equals the
+   * product of the weight of both involved edges. Weighted edges commonly occur in pre-processed
+   * graphs.
    *
-   * @param fixedVariables currently fixed branching variables
-   * @return CPLEX LP file format compliant description of all bounds
+   * @return the linear program without any rows
    */
-  private String generateBounds(Map<CrossingIndex, Boolean> fixedVariables) {
-    final StringBuilder result = new StringBuilder();
+  private LinearProgram createObjective() {
+    LinearProgram result = new LinearProgram();
+    int numberOfPairs = 0;
+    columnOffsets = new int[graph.getNumberOfEdges()][];
 
-    for (CrossingIndex var : variables) {
-      int min = 0;
-      int max = 1;
+    for (int e1 = 0; e1 < graph.getNumberOfEdges(); e1++) {
+      int[] nonAdjacentEdges = graph.getNonAdjacentEdges(e1);
+      columnOffsets[e1] = new int[nonAdjacentEdges.length];
+      Arrays.fill(columnOffsets[e1], -1);
 
-      if (fixedVariables.containsKey(var)) {
-        if (fixedVariables.get(var)) {
-          min = 1;
-        } else {
-          max = 0;
-        }
+      for (int e2 : nonAdjacentEdges) {
+        numberOfPairs += e2 > e1 ? 1 : 0;
       }
-
-      result.append("\n " + min + " <= " + createVarName(var) + " <= " + max);
     }
 
-    return result.toString();
-  }
-
-  /**
-   * Generates the objective function to be minimized. Clears and collects all feasible
-   * {@link #variables}. Since adjacent edges will never cross in any optimal drawing of a graph
-   * they are not considered as feasible variables. The cost of any crossing equals the product of
-   * the weight of both involved edges. Weighted edges commonly occur in pre-processed graphs.
-   *
-   * @return the objective function in CPLEX LP file format
-   */
-  private String generateObjective() {
-    final StringBuilder result = new StringBuilder();
-    boolean first = true;
-    variables.clear();
+    CrossingNamer namer = new CrossingNamer(numberOfPairs);
 
     for (int e1 = 0; e1 < graph.getNumberOfEdges(); e1++) {
-      for (int e2 = e1 + 1; e2 < graph.getNumberOfEdges(); e2++) {
-        if (!graph.areEdgesAdjacent(e1, e2)) {
+      int[] nonAdjacentEdges = graph.getNonAdjacentEdges(e1);
+
+      for (int k = 0; k < nonAdjacentEdges.length; k++) {
+        int e2 = nonAdjacentEdges[k];
+
+        if (e2 > e1) {
           int cost = graph.getEdgeCost(e1) * graph.getEdgeCost(e2);
-          String weight = cost == 1 ? "" : (Integer.toString(cost) + " ");
+          columnOffsets[e1][k] = result.getNumberOfColumns();
+          namer.addPair(result.getNumberOfColumns(), e1, e2, expansions[e2] + 1);
 
           for (int s1 = 0; s1 <= expansions[e1]; s1++) {
             for (int s2 = 0; s2 <= expansions[e2]; s2++) {
-              CrossingIndex crossing = new CrossingIndex(e1, s1, e2, s2);
-              String prefix = first ? " " : " + ";
-              result.append(prefix + weight + createVarName(crossing));
-              variables.add(crossing);
-              first = false;
+              result.addColumn(cost, 0, 1);
             }
           }
         }
       }
     }
 
-    return result.toString();
+    result.setColumnNamer(namer);
+
+    return result;
   }
 
   /**
-   * Returns the positive sum over all feasible variables (i.e. crossings) including the given
-   * segment.
+   * Adds the sum over all feasible variables (i.e. crossings) including the given segment.
    *
-   * @param edge edge index
-   * @param segment segment index
-   * @return string CPLEX LP file format compliant representation of the sum over all feasible
-   *         variables
+   * @param row target of the sum
+   * @param edge The edge
+   * @param segment The segment
+   * @param coefficient coefficient of each variable, {@code -1} to add the negative sum
    */
-  private String sumVariables(int edge, int segment) {
-    return sumVariables(edge, segment, false);
+  private void sumVariables(Row row, int edge, int segment, double coefficient) {
+    for (int e : graph.getNonAdjacentEdges(edge)) {
+      for (int i = 0; i <= expansions[e]; i++) {
+        row.add(getColumn(edge, segment, e, i), coefficient);
+      }
+    }
   }
 
   /**
-   * Returns the sum over all feasible variables (i.e. crossings) including the given segment.
+   * Returns the column of the variable associated with the crossing.
    *
-   * @param edge The edge
-   * @param segment The segment
-   * @param substract Whether to return the negative sum
-   * @return a CPLEX LP file format compliant representation of the sum over all feasible variables
+   * @param crossing the crossing
+   * @return the index of the column or {@code -1} if the crossing is infeasible
    */
-  private String sumVariables(int edge, int segment, boolean substract) {
-    final StringBuilder result = new StringBuilder();
-    boolean first = true;
+  private int getColumn(CrossingIndex crossing) {
+    return getColumn(crossing.segments[0].edge, crossing.segments[0].segment,
+        crossing.segments[1].edge, crossing.segments[1].segment);
+  }
 
-    for (int e = 0; e < graph.getNumberOfEdges(); e++) {
-      if (!graph.areEdgesAdjacent(edge, e)) {
-        for (int i = 0; i <= expansions[e]; i++) {
-          if (substract) {
-            result.append(" - ");
-          } else if (!first) {
-            result.append(" + ");
-          }
-          result.append(createVarName(new CrossingIndex(edge, segment, e, i)));
-          first = false;
-        }
-      }
+  /**
+   * Returns the column of the variable associated with the crossing of two segments.
+   *
+   * @param edge1 edge of the first segment
+   * @param segment1 index of the first segment
+   * @param edge2 edge of the second segment
+   * @param segment2 index of the second segment
+   * @return the index of the column or {@code -1} if the crossing is infeasible
+   */
+  private int getColumn(int edge1, int segment1, int edge2, int segment2) {
+    if (edge1 > edge2) {
+      return getColumn(edge2, segment2, edge1, segment1);
     }
 
-    return result.toString();
+    int k = Arrays.binarySearch(graph.getNonAdjacentEdges(edge1), edge2);
+    int result = -1;
+
+    if (k >= 0 && segment1 <= expansions[edge1] && segment2 <= expansions[edge2]) {
+      result = columnOffsets[edge1][k] + segment1 * (expansions[edge2] + 1) + segment2;
+    }
+
+    return result;
   }
 
   /**
-   * Returns the name of the variable associated with the crossing. Note that the crossing ensures
-   * the uniqueness of each name.
+   * Returns the column of the variable associated with the crossing. Infeasible crossings are
+   * added as new columns without any cost and upper bound.
    *
-   * @param crossing crossing which should be named
-   * @return a unique label for the crossing
+   * @param program the linear program
+   * @param crossing the crossing
+   * @return the index of the column
    */
-  private String createVarName(CrossingIndex crossing) {
-    SegmentIndex s1 = crossing.segments[0];
-    SegmentIndex s2 = crossing.segments[1];
-    return "x_e" + s1.edge + "_s" + s1.segment + "_e" + s2.edge + "_s" + s2.segment;
+  private int getOrAddColumn(LinearProgram program, CrossingIndex crossing) {
+    int result = getColumn(crossing);
+
+    if (result == -1) {
+      String name =
+          CrossingNamer.getName(crossing.segments[0].edge, crossing.segments[0].segment,
+              crossing.segments[1].edge, crossing.segments[1].segment);
+      result = program.getColumn(name);
+
+      if (result == -1) {
+        result = program.addColumn(name, 0, 0, Double.POSITIVE_INFINITY);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Names the columns of the base model after their crossings. Note that the crossing ensures the
+   * uniqueness of each name. The columns of each pair of edges are stored consecutively, ordered by
+   * the segment of the first edge and then by the segment of the second edge.
+   */
+  private static class CrossingNamer implements LinearProgram.ColumnNamer {
+    private final int[] offsets;
+    private final int[] firstEdges;
+    private final int[] secondEdges;
+    private final int[] widths;
+    private int numberOfPairs = 0;
+
+    /**
+     * Creates a new namer.
+     *
+     * @param capacity the number of pairs of edges
+     */
+    CrossingNamer(int capacity) {
+      offsets = new int[capacity];
+      firstEdges = new int[capacity];
+      secondEdges = new int[capacity];
+      widths = new int[capacity];
+    }
+
+    /**
+     * Adds the columns of a pair of edges. Pairs must be added in the order of their columns.
+     *
+     * @param offset the first column of the pair
+     * @param firstEdge the edge of lower index
+     * @param secondEdge the edge of higher index
+     * @param width the number of segments of the second edge
+     */
+    void addPair(int offset, int firstEdge, int secondEdge, int width) {
+      offsets[numberOfPairs] = offset;
+      firstEdges[numberOfPairs] = firstEdge;
+      secondEdges[numberOfPairs] = secondEdge;
+      widths[numberOfPairs] = width;
+      numberOfPairs++;
+    }
+
+    @Override
+    public String getName(int column) {
+      int pair = Arrays.binarySearch(offsets, 0, numberOfPairs, column);
+      pair = pair < 0 ? (-pair - 2) : pair;
+      int offset = column - offsets[pair];
+
+      return getName(firstEdges[pair], offset / widths[pair], secondEdges[pair],
+          offset % widths[pair]);
+    }
+
+    /**
+     * Returns the name of the variable associated with the crossing of two segments.
+     *
+     * @param edge1 edge of the first segment
+     * @param segment1 index of the first segment
+     * @param edge2 edge of the second segment
+     * @param segment2 index of the second segment
+     * @return the name
+     */
+    static String getName(int edge1, int segment1, int edge2, int segment2) {
+      return "x_e" + edge1 + "_s" + segment1 + "_e" + edge2 + "_s" + segment2;
+    }
+  }
+
+  /**
+   * Collects the non-zero coefficients of a single row.
+   */
+  private static class Row {
+    private int[] columns = new int[16];
+    private double[] coefficients = new double[16];
+    private int size = 0;
+
+    /**
+     * Adds a column to the row. Each column must be added at most once.
+     *
+     * @param column index of the column
+     * @param coefficient coefficient of the column
+     */
+    void add(int column, double coefficient) {
+      if (size == columns.length) {
+        columns = Arrays.copyOf(columns, 2 * size);
+        coefficients = Arrays.copyOf(coefficients, 2 * size);
+      }
+
+      columns[size] = column;
+      coefficients[size++] = coefficient;
+    }
+
+    /**
+     * Adds the row to a linear program.
+     *
+     * @param program the linear program
+     * @param lower lower bound of the row
+     * @param upper upper bound of the row
+     */
+    void addTo(LinearProgram program, double lower, double upper) {
+      program.addRow(Arrays.copyOf(columns, size), Arrays.copyOf(coefficients, size), lower,
+          upper);
+    }
   }
 }
@@ -0,0 +1,435 @@
+package proof.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses linear programs given in CPLEX LP file format. Supports the objective, constraints, and
+ * bounds sections. Section keywords must be placed on separate lines, as done by the
+ * {@link LinearProgramGenerator}. Integrality sections are not supported.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+class LinearProgramParser {
+  private static final Pattern TOKEN = Pattern.compile("\\s*(?:(<=|=<|>=|=>|<|>|=)|([+-])|(:)"
+      + "|((?:\\d+\\.?\\d*|\\.\\d+)(?:[eE][+-]?\\d+)?)"
+      + "|([A-Za-z_!\"#$%&()/,;?@`'{}|~][A-Za-z0-9_!\"#$%&()/,.;?@`'{}|~\\[\\]]*))");
+
+  private static final int RELATION = 1;
+  private static final int SIGN = 2;
+  private static final int COLON = 3;
+  private static final int NUMBER = 4;
+  private static final int NAME = 5;
+
+  private static final int NONE = 0;
+  private static final int OBJECTIVE = 1;
+  private static final int CONSTRAINTS = 2;
+  private static final int BOUNDS = 3;
+  private static final int END = 4;
+
+  private LinearProgram program;
+  private List<Token> tokens;
+  private int position;
+
+  /**
+   * Single token of the LP file.
+   */
+  private static class Token {
+    final int type;
+    final String text;
+    final int line;
+
+    Token(int type, String text, int line) {
+      this.type = type;
+      this.text = text;
+      this.line = line;
+    }
+  }
+
+  /**
+   * Parses a linear program.
+   *
+   * @param file file containing the linear program
+   * @return the parsed linear program
+   * @throws IOException if the file could not be read
+   * @throws ParseException if the file is not a valid linear program, the offset is the line
+   */
+  LinearProgram parse(Path file) throws IOException, ParseException {
+    program = new LinearProgram();
+    int section = NONE;
+    boolean hasObjective = false;
+    List<Token> objective = new ArrayList<>();
+    List<Token> constraints = new ArrayList<>();
+
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+      int lineNumber = 0;
+
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        lineNumber++;
+        int comment = line.indexOf('\\');
+        line = (comment == -1 ? line : line.substring(0, comment)).trim();
+
+        if (line.isEmpty()) {
+          continue;
+        }
+
+        int keyword = parseKeyword(line, lineNumber);
+
+        if (keyword != NONE) {
+          section = keyword;
+          hasObjective |= keyword == OBJECTIVE;
+        } else if (section == OBJECTIVE) {
+          tokenize(line, lineNumber, objective);
+        } else if (section == CONSTRAINTS) {
+          tokenize(line, lineNumber, constraints);
+        } else if (section == BOUNDS) {
+          tokens = new ArrayList<>();
+          tokenize(line, lineNumber, tokens);
+          position = 0;
+          parseBound(lineNumber);
+        } else {
+          throw new ParseException("Unexpected content outside of any section.", lineNumber);
+        }
+      }
+
+      if (!hasObjective) {
+        throw new ParseException("Missing objective.", lineNumber);
+      }
+
+      if (section != END) {
+        throw new ParseException("Missing end of linear program.", lineNumber);
+      }
+    }
+
+    parseObjective(objective);
+    parseConstraints(constraints);
+
+    return program;
+  }
+
+  /**
+   * Checks whether a line consists of a section keyword only.
+   *
+   * @param line trimmed line
+   * @param lineNumber number of the line
+   * @return the section introduced by the keyword or {@link #NONE}
+   * @throws ParseException if the section is not supported
+   */
+  private int parseKeyword(String line, int lineNumber) throws ParseException {
+    int result = NONE;
+
+    switch (line.toLowerCase().replaceAll("\\s+", " ")) {
+      case "maximize":
+      case "maximise":
+      case "maximum":
+      case "max":
+        program.setMaximize(true);
+        result = OBJECTIVE;
+        break;
+      case "minimize":
+      case "minimise":
+      case "minimum":
+      case "min":
+        result = OBJECTIVE;
+        break;
+      case "subject to":
+      case "such that":
+      case "st":
+      case "s.t.":
+      case "st.":
+        result = CONSTRAINTS;
+        break;
+      case "bounds":
+      case "bound":
+        result = BOUNDS;
+        break;
+      case "general":
+      case "generals":
+      case "gen":
+      case "integer":
+      case "integers":
+      case "binary":
+      case "binaries":
+      case "bin":
+      case "semi-continuous":
+      case "semis":
+      case "semi":
+        throw new ParseException("Integer variables are not supported.", lineNumber);
+      case "end":
+        result = END;
+        break;
+      default:
+        result = NONE;
+    }
+
+    return result;
+  }
+
+  /**
+   * Splits a line into tokens.
+   *
+   * @param line the line
+   * @param lineNumber number of the line
+   * @param result list to which all tokens are appended
+   * @throws ParseException if the line contains invalid characters
+   */
+  private void tokenize(String line, int lineNumber, List<Token> result) throws ParseException {
+    Matcher matcher = TOKEN.matcher(line);
+    int end = 0;
+
+    while (end < line.length()) {
+      if (!matcher.find(end) || matcher.start() != end) {
+        throw new ParseException("Unexpected character: " + line.substring(end).trim(), lineNumber);
+      }
+
+      for (int type = RELATION; type <= NAME; type++) {
+        if (matcher.group(type) != null) {
+          result.add(new Token(type, matcher.group(type), lineNumber));
+        }
+      }
+
+      end = matcher.end();
+    }
+  }
+
+  /**
+   * Parses the objective function.
+   *
+   * @param objective all tokens of the objective section
+   * @throws ParseException if the objective is invalid
+   */
+  private void parseObjective(List<Token> objective) throws ParseException {
+    tokens = objective;
+    position = 0;
+    skipLabel();
+
+    Map<Integer, Double> terms = parseExpression();
+
+    if (position < tokens.size()) {
+      throw unexpected();
+    }
+
+    for (Map.Entry<Integer, Double> term : terms.entrySet()) {
+      program.setCost(term.getKey(), term.getValue());
+    }
+  }
+
+  /**
+   * Parses all constraints.
+   *
+   * @param constraints all tokens of the constraints section
+   * @throws ParseException if any constraint is invalid
+   */
+  private void parseConstraints(List<Token> constraints) throws ParseException {
+    tokens = constraints;
+    position = 0;
+
+    while (position < tokens.size()) {
+      skipLabel();
+      Map<Integer, Double> terms = parseExpression();
+
+      if (position == tokens.size() || tokens.get(position).type != RELATION) {
+        throw unexpected();
+      }
+
+      String relation = tokens.get(position++).text;
+      double rhs = parseValue();
+      int[] indices = new int[terms.size()];
+      double[] coefficients = new double[terms.size()];
+      int i = 0;
+
+      for (Map.Entry<Integer, Double> term : terms.entrySet()) {
+        indices[i] = term.getKey();
+        coefficients[i++] = term.getValue();
+      }
+
+      double lower = relation.contains("<") ? Double.NEGATIVE_INFINITY : rhs;
+      double upper = relation.contains(">") ? Double.POSITIVE_INFINITY : rhs;
+      program.addRow(indices, coefficients, lower, upper);
+    }
+  }
+
+  /**
+   * Parses a single line of the bounds section.
+   *
+   * @param lineNumber number of the line
+   * @throws ParseException if the bound is invalid
+   */
+  private void parseBound(int lineNumber) throws ParseException {
+    if (tokens.size() == 2 && tokens.get(0).type == NAME
+        && tokens.get(1).text.equalsIgnoreCase("free")) {
+      program.setBounds(getColumn(tokens.get(0).text), Double.NEGATIVE_INFINITY,
+          Double.POSITIVE_INFINITY);
+      return;
+    }
+
+    Double leftValue = null;
+    String leftRelation = null;
+
+    if (tokens.get(0).type != NAME || isInfinity(tokens.get(0))) {
+      leftValue = parseValue();
+      leftRelation = expect(RELATION).text;
+    }
+
+    int column = getColumn(expect(NAME).text);
+    double lower = program.getLowerBound(column);
+    double upper = program.getUpperBound(column);
+
+    if (leftValue != null) {
+      if (leftRelation.contains("<")) {
+        lower = leftValue;
+      } else if (leftRelation.contains(">")) {
+        upper = leftValue;
+      } else {
+        lower = upper = leftValue;
+      }
+    }
+
+    if (position < tokens.size()) {
+      String relation = expect(RELATION).text;
+      double value = parseValue();
+
+      if (relation.contains("<")) {
+        upper = value;
+      } else if (relation.contains(">")) {
+        lower = value;
+      } else {
+        lower = upper = value;
+      }
+    }
+
+    if (position < tokens.size()) {
+      throw unexpected();
+    }
+
+    program.setBounds(column, lower, upper);
+  }
+
+  /**
+   * Parses a linear expression. Stops at the first relation or at the end of the tokens.
+   *
+   * @return the coefficients of all occurring columns, columns might be given multiple times
+   * @throws ParseException if the expression is invalid
+   */
+  private Map<Integer, Double> parseExpression() throws ParseException {
+    Map<Integer, Double> result = new LinkedHashMap<>();
+    boolean first = true;
+
+    while (position < tokens.size() && tokens.get(position).type != RELATION) {
+      double coefficient = 1;
+      boolean signed = false;
+
+      while (position < tokens.size() && tokens.get(position).type == SIGN) {
+        coefficient *= tokens.get(position++).text.equals("-") ? -1 : 1;
+        signed = true;
+      }
+
+      if (!first && !signed) {
+        throw unexpected();
+      }
+
+      if (position < tokens.size() && tokens.get(position).type == NUMBER) {
+        coefficient *= Double.parseDouble(tokens.get(position++).text);
+      }
+
+      int column = getColumn(expect(NAME).text);
+      Double previous = result.get(column);
+      result.put(column, previous == null ? coefficient : (previous + coefficient));
+      first = false;
+    }
+
+    return result;
+  }
+
+  /**
+   * Parses a signed number, which might be infinite.
+   *
+   * @return the value
+   * @throws ParseException if there is no number
+   */
+  private double parseValue() throws ParseException {
+    double sign = 1;
+
+    if (position < tokens.size() && tokens.get(position).type == SIGN) {
+      sign = tokens.get(position++).text.equals("-") ? -1 : 1;
+    }
+
+    if (position < tokens.size() && isInfinity(tokens.get(position))) {
+      position++;
+      return sign * Double.POSITIVE_INFINITY;
+    }
+
+    return sign * Double.parseDouble(expect(NUMBER).text);
+  }
+
+  /**
+   * Skips the label of a constraint or the objective function, if present.
+   */
+  private void skipLabel() {
+    if (position + 1 < tokens.size() && tokens.get(position).type == NAME
+        && tokens.get(position + 1).type == COLON) {
+      position += 2;
+    }
+  }
+
+  /**
+   * Consumes the next token.
+   *
+   * @param type expected type of the token
+   * @return the token
+   * @throws ParseException if the next token is of another type
+   */
+  private Token expect(int type) throws ParseException {
+    if (position == tokens.size() || tokens.get(position).type != type) {
+      throw unexpected();
+    }
+
+    return tokens.get(position++);
+  }
+
+  /**
+   * Creates an exception for the current token.
+   *
+   * @return the exception
+   */
+  private ParseException unexpected() {
+    if (position == tokens.size()) {
+      int line = tokens.isEmpty() ? 0 : tokens.get(tokens.size() - 1).line;
+      return new ParseException("Unexpected end of section.", line);
+    }
+
+    Token token = tokens.get(position);
+    return new ParseException("Unexpected token: " + token.text, token.line);
+  }
+
+  private boolean isInfinity(Token token) {
+    return token.type == NAME
+        && (token.text.equalsIgnoreCase("inf") || token.text.equalsIgnoreCase("infinity"));
+  }
+
+  /**
+   * Returns the index of a column. Creates the column if necessary.
+   *
+   * @param name name of the column
+   * @return the index of the column
+   */
+  private int getColumn(String name) {
+    int result = program.getColumn(name);
+
+    if (result == -1) {
+      result = program.addColumn(name, 0, 0, Double.POSITIVE_INFINITY);
+    }
+
+    return result;
+  }
+}
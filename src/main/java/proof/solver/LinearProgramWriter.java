@@ -0,0 +1,121 @@
+package proof.solver;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializes a {@link LinearProgram} in a file format understood by external solvers. Columns are
+ * either written by their names or by compact names derived from their indices. Compact names
+ * considerably reduce the size of the written file, since every column occurs in many rows. The
+ * original names are then available via {@link #writeNames(LinearProgram, Writer)}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+abstract class LinearProgramWriter {
+  private final boolean compactNames;
+
+  /**
+   * Creates a new writer.
+   *
+   * @param compactNames {@code true} iff columns should be named after their indices
+   */
+  LinearProgramWriter(boolean compactNames) {
+    this.compactNames = compactNames;
+  }
+
+  /**
+   * Returns the extension of the file format, which is used by solvers to detect the format.
+   *
+   * @return the file extension including the leading dot
+   */
+  abstract String getExtension();
+
+  /**
+   * Writes a linear program.
+   *
+   * @param program the linear program
+   * @param out target of the program, should be buffered
+   * @throws IOException if writing to the output fails
+   */
+  abstract void write(LinearProgram program, Writer out) throws IOException;
+
+  /**
+   * Writes the original name of each column, preceded by the name written by this writer. There is
+   * a single column per line.
+   *
+   * @param program the linear program
+   * @param out target of the names, should be buffered
+   * @throws IOException if writing to the output fails
+   */
+  void writeNames(LinearProgram program, Writer out) throws IOException {
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      out.write(getColumnName(program, j));
+      out.write(' ');
+      out.write(program.getColumnName(j));
+      out.write('\n');
+    }
+
+    out.flush();
+  }
+
+  /**
+   * Returns the name of a column as written by this writer.
+   *
+   * @param program the linear program
+   * @param column index of the column
+   * @return the name of the column
+   */
+  protected String getColumnName(LinearProgram program, int column) {
+    return compactNames ? ("x" + column) : program.getColumnName(column);
+  }
+
+  /**
+   * Determines the columns whose upper bound is implied by a single row, such that it need not be
+   * written. This holds if the row has a finite upper bound {@code u}, only non-negative
+   * coefficients, and only columns with a non-negative lower bound, since then {@code a_j x_j <= u}
+   * for each column {@code j} of the row. For instance, the simplicity constraints imply the upper
+   * bound of each crossing on an expanded segment.
+   *
+   * @param program the linear program
+   * @return {@code true} at the index of each column with an implied upper bound
+   */
+  protected boolean[] findImpliedUpperBounds(LinearProgram program) {
+    boolean[] result = new boolean[program.getNumberOfColumns()];
+
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      double upper = program.getRowUpperBound(i);
+      int[] columns = program.getRowColumns(i);
+      double[] coefficients = program.getRowCoefficients(i);
+      boolean implies = upper != Double.POSITIVE_INFINITY;
+
+      for (int k = 0; implies && k < columns.length; k++) {
+        implies = coefficients[k] >= 0 && program.getLowerBound(columns[k]) >= 0;
+      }
+
+      for (int k = 0; implies && k < columns.length; k++) {
+        if (coefficients[k] > 0 && upper / coefficients[k] <= program.getUpperBound(columns[k])) {
+          result[columns[k]] = true;
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Writes a number. Integral values are written without any decimal places.
+   *
+   * @param out target of the number
+   * @param value the number, might be infinite
+   * @throws IOException if writing to the output fails
+   */
+  protected void writeNumber(Writer out, double value) throws IOException {
+    if (Double.isInfinite(value)) {
+      out.write(value > 0 ? "+inf" : "-inf");
+    } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      out.write(Long.toString((long) value));
+    } else {
+      out.write(Double.toString(value));
+    }
+  }
+}
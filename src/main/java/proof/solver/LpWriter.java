@@ -0,0 +1,193 @@
+package proof.solver;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializes a {@link LinearProgram} in CPLEX LP file format. Rows bounded from both sides are
+ * written as two separate constraints, rows without any finite bound are omitted.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LpWriter extends LinearProgramWriter {
+
+  /**
+   * Creates a new LP writer.
+   *
+   * @param compactNames {@code true} iff columns should be named after their indices
+   */
+  public LpWriter(boolean compactNames) {
+    super(compactNames);
+  }
+
+  @Override
+  String getExtension() {
+    return ".lp";
+  }
+
+  @Override
+  public void write(LinearProgram program, Writer out) throws IOException {
+    out.write(program.isMaximize() ? "Maximize\nobj:\n" : "Minimize\nobj:\n");
+    boolean first = true;
+
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      if (program.getCost(j) != 0) {
+        out.write(first ? " " : (program.getCost(j) < 0 ? " - " : " + "));
+        writeTerm(out, program, j, program.getCost(j), first);
+        first = false;
+      }
+    }
+
+    out.write("\nSubject To");
+    int comment = 0;
+
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      for (; comment < program.getNumberOfComments() && program.getCommentRow(comment) <= i;
+          comment++) {
+        writeComment(out, program.getComment(comment));
+      }
+
+      double lower = program.getRowLowerBound(i);
+      double upper = program.getRowUpperBound(i);
+
+      if (lower == upper) {
+        writeRow(out, program, i, " = ", lower);
+      } else {
+        if (lower != Double.NEGATIVE_INFINITY) {
+          writeRow(out, program, i, " >= ", lower);
+        }
+
+        if (upper != Double.POSITIVE_INFINITY) {
+          writeRow(out, program, i, " <= ", upper);
+        }
+      }
+    }
+
+    for (; comment < program.getNumberOfComments(); comment++) {
+      writeComment(out, program.getComment(comment));
+    }
+
+    out.write("\nBounds");
+    boolean[] impliedUpperBounds = findImpliedUpperBounds(program);
+
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      double upper = impliedUpperBounds[j] ? Double.POSITIVE_INFINITY : program.getUpperBound(j);
+      writeBounds(out, program, j, upper);
+    }
+
+    out.write("\nEnd");
+    out.flush();
+  }
+
+  /**
+   * Writes the bounds of a single column on a separate line. Bounds equal to the default interval
+   * {@code [0,inf)} are omitted, as well as the entire line if both bounds equal the default.
+   *
+   * @param out target of the bounds
+   * @param program the linear program
+   * @param column index of the column
+   * @param upper upper bound to be written, infinite if implied by any row
+   * @throws IOException if writing to the output fails
+   */
+  private void writeBounds(Writer out, LinearProgram program, int column, double upper)
+      throws IOException {
+    double lower = program.getLowerBound(column);
+    String name = getColumnName(program, column);
+
+    if (lower == program.getUpperBound(column)) {
+      out.write("\n ");
+      out.write(name);
+      out.write(" = ");
+      writeNumber(out, lower);
+    } else if (Double.isInfinite(lower) && Double.isInfinite(upper)) {
+      out.write("\n ");
+      out.write(name);
+      out.write(" free");
+    } else if (Double.isInfinite(upper)) {
+      if (lower != 0) {
+        out.write("\n ");
+        out.write(name);
+        out.write(" >= ");
+        writeNumber(out, lower);
+      }
+    } else if (lower == 0 && upper >= 0) {
+      // some solvers assume a negative upper bound to imply an infinite lower bound
+      out.write("\n ");
+      out.write(name);
+      out.write(" <= ");
+      writeNumber(out, upper);
+    } else {
+      out.write("\n ");
+      writeNumber(out, lower);
+      out.write(" <= ");
+      out.write(name);
+      out.write(" <= ");
+      writeNumber(out, upper);
+    }
+  }
+
+  /**
+   * Writes a comment on a separate line.
+   *
+   * @param out target of the comment
+   * @param comment the comment
+   * @throws IOException if writing to the output fails
+   */
+  private void writeComment(Writer out, String comment) throws IOException {
+    out.write("\n\\ ");
+    out.write(comment);
+  }
+
+  /**
+   * Writes a single constraint on a separate line.
+   *
+   * @param out target of the constraint
+   * @param program the linear program
+   * @param row index of the row
+   * @param relation relation between the row and its bound
+   * @param bound right-hand side of the constraint
+   * @throws IOException if writing to the output fails
+   */
+  private void writeRow(Writer out, LinearProgram program, int row, String relation, double bound)
+      throws IOException {
+    int[] columns = program.getRowColumns(row);
+    double[] coefficients = program.getRowCoefficients(row);
+    out.write('\n');
+
+    for (int k = 0; k < columns.length; k++) {
+      if (k > 0) {
+        out.write(coefficients[k] < 0 ? " - " : " + ");
+      }
+
+      writeTerm(out, program, columns[k], coefficients[k], k == 0);
+    }
+
+    out.write(relation);
+    writeNumber(out, bound);
+  }
+
+  /**
+   * Writes the product of a coefficient and a column. The sign is omitted unless this is the first
+   * term of a sum.
+   *
+   * @param out target of the term
+   * @param program the linear program
+   * @param column index of the column
+   * @param coefficient the coefficient
+   * @param first {@code true} iff this is the first term of a sum
+   * @throws IOException if writing to the output fails
+   */
+  private void writeTerm(Writer out, LinearProgram program, int column, double coefficient,
+      boolean first) throws IOException {
+    if (first && coefficient < 0) {
+      out.write("- ");
+    }
+
+    if (Math.abs(coefficient) != 1) {
+      writeNumber(out, Math.abs(coefficient));
+      out.write(' ');
+    }
+
+    out.write(getColumnName(program, column));
+  }
+}
@@ -0,0 +1,243 @@
+package proof.solver;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializes a {@link LinearProgram} in free MPS file format. Rows are named after their indices
+ * and rows without any finite bound are omitted. Comments are not written. Since all sections are
+ * column-wise, the rows are transposed before writing.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+class MpsWriter extends LinearProgramWriter {
+
+  /**
+   * Creates a new MPS writer.
+   *
+   * @param compactNames {@code true} iff columns should be named after their indices
+   */
+  MpsWriter(boolean compactNames) {
+    super(compactNames);
+  }
+
+  @Override
+  String getExtension() {
+    return ".mps";
+  }
+
+  @Override
+  void write(LinearProgram program, Writer out) throws IOException {
+    out.write("NAME linear-program\n");
+
+    if (program.isMaximize()) {
+      out.write("OBJSENSE\n    MAX\n");
+    }
+
+    out.write("ROWS\n N obj\n");
+
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      double lower = program.getRowLowerBound(i);
+      double upper = program.getRowUpperBound(i);
+
+      if (lower == upper) {
+        writeRowType(out, "E", i);
+      } else if (lower != Double.NEGATIVE_INFINITY) {
+        writeRowType(out, "G", i);
+      } else if (upper != Double.POSITIVE_INFINITY) {
+        writeRowType(out, "L", i);
+      }
+    }
+
+    writeColumns(program, out);
+    out.write("RHS\n");
+
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      double lower = program.getRowLowerBound(i);
+      double rhs = lower == Double.NEGATIVE_INFINITY ? program.getRowUpperBound(i) : lower;
+
+      if (rhs != 0 && !Double.isInfinite(rhs)) {
+        out.write(" rhs c");
+        out.write(Integer.toString(i));
+        out.write(' ');
+        writeNumber(out, rhs);
+        out.write('\n');
+      }
+    }
+
+    out.write("RANGES\n");
+
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      double lower = program.getRowLowerBound(i);
+      double upper = program.getRowUpperBound(i);
+
+      if (lower != upper && !Double.isInfinite(lower) && !Double.isInfinite(upper)) {
+        out.write(" rng c");
+        out.write(Integer.toString(i));
+        out.write(' ');
+        writeNumber(out, upper - lower);
+        out.write('\n');
+      }
+    }
+
+    out.write("BOUNDS\n");
+    boolean[] impliedUpperBounds = findImpliedUpperBounds(program);
+
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      double upper = impliedUpperBounds[j] ? Double.POSITIVE_INFINITY : program.getUpperBound(j);
+      writeBounds(program, out, j, upper);
+    }
+
+    out.write("ENDATA\n");
+    out.flush();
+  }
+
+  /**
+   * Declares a single row.
+   *
+   * @param out target of the declaration
+   * @param type type of the row
+   * @param row index of the row
+   * @throws IOException if writing to the output fails
+   */
+  private void writeRowType(Writer out, String type, int row) throws IOException {
+    out.write(' ');
+    out.write(type);
+    out.write(" c");
+    out.write(Integer.toString(row));
+    out.write('\n');
+  }
+
+  /**
+   * Writes the objective coefficient and all non-zero row coefficients of each column.
+   *
+   * @param program the linear program
+   * @param out target of the columns section
+   * @throws IOException if writing to the output fails
+   */
+  private void writeColumns(LinearProgram program, Writer out) throws IOException {
+    int[] starts = new int[program.getNumberOfColumns() + 1];
+
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      if (isWritten(program, i)) {
+        for (int column : program.getRowColumns(i)) {
+          starts[column + 1]++;
+        }
+      }
+    }
+
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      starts[j + 1] += starts[j];
+    }
+
+    int[] rows = new int[starts[program.getNumberOfColumns()]];
+    double[] coefficients = new double[rows.length];
+    int[] next = starts.clone();
+
+    for (int i = 0; i < program.getNumberOfRows(); i++) {
+      if (isWritten(program, i)) {
+        int[] columns = program.getRowColumns(i);
+        double[] rowCoefficients = program.getRowCoefficients(i);
+
+        for (int k = 0; k < columns.length; k++) {
+          rows[next[columns[k]]] = i;
+          coefficients[next[columns[k]]++] = rowCoefficients[k];
+        }
+      }
+    }
+
+    out.write("COLUMNS\n");
+
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      String name = getColumnName(program, j);
+      int entries = 0;
+
+      // each column must be declared, even if it does not occur anywhere
+      if (program.getCost(j) != 0 || starts[j] == starts[j + 1]) {
+        out.write(' ');
+        out.write(name);
+        out.write(" obj ");
+        writeNumber(out, program.getCost(j));
+        entries++;
+      }
+
+      // up to two entries are written per line
+      for (int k = starts[j]; k < starts[j + 1]; k++) {
+        if (entries % 2 == 0) {
+          out.write(entries == 0 ? " " : "\n ");
+          out.write(name);
+        }
+
+        out.write(" c");
+        out.write(Integer.toString(rows[k]));
+        out.write(' ');
+        writeNumber(out, coefficients[k]);
+        entries++;
+      }
+
+      out.write('\n');
+    }
+  }
+
+  /**
+   * Writes the bounds of a single column. Bounds equal to the default interval {@code [0,inf)} are
+   * omitted.
+   *
+   * @param program the linear program
+   * @param out target of the bounds
+   * @param column index of the column
+   * @param upper upper bound to be written, infinite if implied by any row
+   * @throws IOException if writing to the output fails
+   */
+  private void writeBounds(LinearProgram program, Writer out, int column, double upper)
+      throws IOException {
+    double lower = program.getLowerBound(column);
+
+    if (lower == program.getUpperBound(column)) {
+      writeBound(program, out, "FX", column, lower);
+    } else if (Double.isInfinite(lower) && Double.isInfinite(upper)) {
+      writeBound(program, out, "FR", column, null);
+    } else {
+      if (Double.isInfinite(lower)) {
+        writeBound(program, out, "MI", column, null);
+      } else if (lower != 0 || upper < 0) {
+        // some solvers assume a negative upper bound to imply an infinite lower bound
+        writeBound(program, out, "LO", column, lower);
+      }
+
+      if (!Double.isInfinite(upper)) {
+        writeBound(program, out, "UP", column, upper);
+      }
+    }
+  }
+
+  /**
+   * Writes a single bound.
+   *
+   * @param program the linear program
+   * @param out target of the bound
+   * @param type type of the bound
+   * @param column index of the column
+   * @param value value of the bound, {@code null} for bounds without any value
+   * @throws IOException if writing to the output fails
+   */
+  private void writeBound(LinearProgram program, Writer out, String type, int column, Double value)
+      throws IOException {
+    out.write(' ');
+    out.write(type);
+    out.write(" bnd ");
+    out.write(getColumnName(program, column));
+
+    if (value != null) {
+      out.write(' ');
+      writeNumber(out, value);
+    }
+
+    out.write('\n');
+  }
+
+  private boolean isWritten(LinearProgram program, int row) {
+    return program.getRowLowerBound(row) != Double.NEGATIVE_INFINITY
+        || program.getRowUpperBound(row) != Double.POSITIVE_INFINITY;
+  }
+}
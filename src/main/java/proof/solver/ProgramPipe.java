@@ -0,0 +1,161 @@
+package proof.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a linear program into a named pipe, such that the solver parses the program while it is
+ * still being written. Nothing is stored on disk. Named pipes are created by {@code mkfifo}, thus
+ * they are only available on Unix-like systems. Each {@link Solver} creates a single pipe and
+ * reuses it for all linear programs. Note that the program is generated completely before it is
+ * written, only writing and parsing overlap.
+ *
+ * <p>
+ * Opening a named pipe for writing blocks until the solver opens it for reading. If the solver
+ * fails before reading the whole program, the writing thread is released by {@link #close()}.
+ * </p>
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+class ProgramPipe extends Thread {
+  /**
+   * Maximum time in milliseconds to wait for the writing thread before releasing it again.
+   */
+  private static final long RELEASE_INTERVAL = 100;
+
+  /**
+   * Maximum time in milliseconds to wait for the writing thread to finish once the solver has read
+   * the program.
+   */
+  private static final long FINISH_TIMEOUT = 1000;
+
+  /**
+   * Whether named pipes can be created on this system, {@code null} if not known yet.
+   */
+  private static Boolean supported = null;
+
+  private final LinearProgram program;
+  private final LinearProgramWriter writer;
+  private final File pipe;
+  private volatile IOException failure = null;
+  private volatile boolean released = false;
+
+  /**
+   * Creates a new thread writing to an existing named pipe, see {@link #create(File)}. The thread
+   * is not started yet.
+   *
+   * @param program the linear program
+   * @param writer writer of the desired file format
+   * @param pipe the named pipe
+   */
+  ProgramPipe(LinearProgram program, LinearProgramWriter writer, File pipe) {
+    this.program = program;
+    this.writer = writer;
+    this.pipe = pipe;
+    setDaemon(true);
+  }
+
+  /**
+   * Creates a named pipe. Once creating a pipe has failed, no further attempts are made.
+   *
+   * @param file the path of the pipe, must not exist yet
+   * @return {@code true} iff the named pipe has been created
+   */
+  static synchronized boolean create(File file) {
+    if (supported != null && !supported) {
+      return false;
+    }
+
+    boolean result = false;
+
+    try {
+      ProcessBuilder builder = new ProcessBuilder("mkfifo", file.getAbsolutePath());
+      builder.redirectErrorStream(true);
+      Process process = builder.start();
+
+      try (InputStream output = process.getInputStream()) {
+        while (output.read() != -1) {
+          // discard the output
+        }
+      }
+
+      result = process.waitFor() == 0;
+    } catch (IOException e) {
+      // mkfifo is not available
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    supported = result;
+
+    return result;
+  }
+
+  @Override
+  public void run() {
+    try (Writer out = Files.newBufferedWriter(pipe.toPath(), StandardCharsets.US_ASCII)) {
+      writer.write(program, out);
+    } catch (IOException e) {
+      failure = e;
+    }
+  }
+
+  /**
+   * Waits until the whole program has been written. Must only be called once the solver has read
+   * the program, otherwise writing is aborted.
+   *
+   * @return {@code true} iff the program has been read completely, i.e. writing has neither failed
+   *         nor been aborted
+   */
+  boolean finish() {
+    try {
+      join(FINISH_TIMEOUT);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    return close() && failure == null && !released;
+  }
+
+  /**
+   * Aborts writing unless the program has been written already. Opening the pipe for both reading
+   * and writing never blocks, thus releases the thread if the pipe has not been opened by any
+   * solver. Once the pipe is closed again, all pending writes fail.
+   *
+   * <p>
+   * A solver that holds the pipe open without reading keeps the thread blocked. Thus, attempts are
+   * given up after {@link #FINISH_TIMEOUT}. The caller has to destroy the solver process then,
+   * which breaks the pipe.
+   * </p>
+   *
+   * @return {@code true} iff the thread has terminated
+   */
+  boolean close() {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FINISH_TIMEOUT);
+
+    while (isAlive() && System.nanoTime() < deadline) {
+      released = true;
+
+      try {
+        new RandomAccessFile(pipe, "rw").close();
+      } catch (IOException e) {
+        // the pipe has been removed
+      }
+
+      try {
+        join(RELEASE_INTERVAL);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    return !isAlive();
+  }
+}
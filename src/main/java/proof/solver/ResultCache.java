@@ -0,0 +1,322 @@
+package proof.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Persistent cache of optimal objective values. Each entry is stored in a separate file, named
+ * after the SHA-256 hash of the solver, its version, and the linear program. Thus, results are
+ * reused across runs whenever the very same program is solved by the very same solver. Linear
+ * programs are hashed in their sparse representation, column names and comments are ignored.
+ *
+ * <p>
+ * The least recently used entries are removed once the number of entries exceeds the maximum.
+ * Solvers of unknown version (see {@link Solver#getVersion()}) are never cached. Since the cache
+ * is optional, failing I/O operations are treated like cache misses.
+ * </p>
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class ResultCache {
+  /**
+   * Default maximum number of entries.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+  /**
+   * Fraction of the maximum number of entries that is kept when evicting entries. Entries are
+   * evicted in batches, since this requires listing the whole directory.
+   */
+  private static final double EVICTION_RATIO = 0.9;
+
+  private final Path directory;
+  private final int maxEntries;
+  private int entries = 0;
+  private long lastAccess = 0;
+
+  /**
+   * Opens a cache. The directory is created if necessary.
+   *
+   * @param directory directory containing all entries
+   * @param maxEntries maximum number of entries
+   * @throws IOException if the directory could not be created or read
+   */
+  public ResultCache(Path directory, int maxEntries) throws IOException {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("The cache must hold at least a single entry.");
+    }
+
+    this.directory = directory;
+    this.maxEntries = maxEntries;
+    Files.createDirectories(directory);
+    entries = listEntries().size();
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Returns the cached optimal objective value of a linear program.
+   *
+   * @param program the linear program
+   * @param solver solver that is used to solve the program
+   * @return the objective value or {@code null} if there is no such entry
+   */
+  public Double get(LinearProgram program, Solver solver) {
+    return get(getKey(program, solver), solver);
+  }
+
+  /**
+   * Returns the cached optimal objective value of a linear program. Entries are read without
+   * holding the lock of this cache, such that concurrent validations are not serialized.
+   *
+   * @param key the key of the linear program, see {@link #getKey(LinearProgram, Solver)}
+   * @param solver solver that is used to solve the program
+   * @return the objective value or {@code null} if there is no such entry
+   */
+  public Double get(String key, Solver solver) {
+    Double result = null;
+
+    if (key != null && Files.exists(directory.resolve(key))) {
+      Path file = directory.resolve(key);
+
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        String solverName = reader.readLine();
+        String version = reader.readLine();
+        String value = reader.readLine();
+
+        // guard against hash collisions
+        if (solver.getClass().getName().equals(solverName)
+            && solver.getVersion().equals(version) && value != null) {
+          result = Double.valueOf(value);
+        }
+      } catch (IOException | NumberFormatException e) {
+        // corrupted entries are ignored
+      }
+
+      if (result != null) {
+        touch(file);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Stores the optimal objective value of a linear program.
+   *
+   * @param program the linear program
+   * @param solver solver that has solved the program
+   * @param value the optimal objective value
+   */
+  public void put(LinearProgram program, Solver solver, double value) {
+    put(getKey(program, solver), solver, value);
+  }
+
+  /**
+   * Stores the optimal objective value of a linear program. Entries are written to a temporary
+   * file first and moved atomically, such that concurrent validations may share the same cache.
+   * Only moving the entry and counting the entries holds the lock of this cache.
+   *
+   * @param key the key of the linear program, see {@link #getKey(LinearProgram, Solver)}
+   * @param solver solver that has solved the program
+   * @param value the optimal objective value
+   */
+  public void put(String key, Solver solver, double value) {
+    if (key != null) {
+      Path file = directory.resolve(key);
+      Path temp = null;
+
+      try {
+        temp = Files.createTempFile(directory, "entry", ".tmp");
+
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+          out.write(solver.getClass().getName() + "\n" + solver.getVersion() + "\n" + value + "\n");
+        }
+
+        store(temp, file);
+        temp = null;
+      } catch (IOException e) {
+        // the result is not cached
+      } finally {
+        if (temp != null) {
+          // the entry has not been moved, it would never be evicted otherwise
+          temp.toFile().delete();
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves a written entry to its final location and evicts entries if necessary.
+   *
+   * @param temp the temporary file containing the entry
+   * @param file the file of the entry
+   * @throws IOException if the entry could not be moved
+   */
+  private synchronized void store(Path temp, Path file) throws IOException {
+    final boolean exists = Files.exists(file);
+
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    touch(file);
+
+    if (!exists && ++entries > maxEntries) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the least recently used entries.
+   *
+   * @throws IOException if the directory could not be read
+   */
+  private void evict() throws IOException {
+    List<Path> files = listEntries();
+    final List<FileTime> times = new ArrayList<>();
+    List<Integer> order = new ArrayList<>();
+
+    for (int i = 0; i < files.size(); i++) {
+      times.add(Files.getLastModifiedTime(files.get(i)));
+      order.add(i);
+    }
+
+    Collections.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer first, Integer second) {
+        return times.get(first).compareTo(times.get(second));
+      }
+    });
+
+    int remaining = files.size();
+
+    for (int i = 0; i < order.size() && remaining > maxEntries * EVICTION_RATIO; i++) {
+      Files.deleteIfExists(files.get(order.get(i)));
+      remaining--;
+    }
+
+    entries = remaining;
+  }
+
+  /**
+   * Marks an entry as recently used. Access times are strictly increasing within a single cache.
+   *
+   * @param file the file of the entry
+   */
+  private synchronized void touch(Path file) {
+    lastAccess = Math.max(System.currentTimeMillis(), lastAccess + 1);
+
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(lastAccess));
+    } catch (IOException e) {
+      // the entry might be evicted too early
+    }
+  }
+
+  /**
+   * Lists the files of all entries.
+   *
+   * @return the files
+   * @throws IOException if the directory could not be read
+   */
+  private List<Path> listEntries() throws IOException {
+    List<Path> result = new ArrayList<>();
+
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "[0-9a-f]*")) {
+      for (Path file : stream) {
+        if (file.getFileName().toString().matches("[0-9a-f]{64}")) {
+          result.add(file);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Computes the key of a linear program solved by a specific solver. The whole program is hashed,
+   * thus the key should be computed once for both looking up and storing the result.
+   *
+   * @param program the linear program
+   * @param solver the solver
+   * @return the hexadecimal hash or {@code null} if the version of the solver is unknown
+   */
+  public static String getKey(LinearProgram program, Solver solver) {
+    if (solver.getVersion() == null) {
+      return null;
+    }
+
+    MessageDigest digest = null;
+
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+
+    // the program is passed to the digest only
+    OutputStream sink = new OutputStream() {
+      @Override
+      public void write(int data) {}
+    };
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new DigestOutputStream(sink, digest)))) {
+      out.writeUTF(solver.getClass().getName());
+      out.writeUTF(solver.getVersion());
+      out.writeBoolean(program.isMaximize());
+      out.writeInt(program.getNumberOfColumns());
+
+      for (int j = 0; j < program.getNumberOfColumns(); j++) {
+        out.writeDouble(program.getCost(j));
+        out.writeDouble(program.getLowerBound(j));
+        out.writeDouble(program.getUpperBound(j));
+      }
+
+      out.writeInt(program.getNumberOfRows());
+
+      for (int i = 0; i < program.getNumberOfRows(); i++) {
+        int[] columns = program.getRowColumns(i);
+        double[] coefficients = program.getRowCoefficients(i);
+        out.writeInt(columns.length);
+
+        for (int k = 0; k < columns.length; k++) {
+          out.writeInt(columns[k]);
+          out.writeDouble(coefficients[k]);
+        }
+
+        out.writeDouble(program.getRowLowerBound(i));
+        out.writeDouble(program.getRowUpperBound(i));
+      }
+    } catch (IOException e) {
+      // this should never happen since no actual I/O is performed
+      throw new IllegalStateException(e);
+    }
+
+    StringBuilder result = new StringBuilder();
+
+    for (byte b : digest.digest()) {
+      result.append(String.format("%02x", b & 0xff));
+    }
+
+    return result.toString();
+  }
+}
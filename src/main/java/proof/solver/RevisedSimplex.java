@@ -0,0 +1,597 @@
+package proof.solver;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Bounded primal revised simplex method operating on a {@link LinearProgram}. Each row {@code i}
+ * is represented by a logical variable {@code r_i = a_i * x} that inherits the bounds of the row,
+ * thus all constraints read {@code A * x - r = 0} and the logical variables form the initial basis.
+ * Infeasible starting points are resolved by minimizing the sum of infeasibilities first. The
+ * inverse of the basis is kept in product form, i.e. as a sequence of eta matrices, each of which
+ * differs from the identity in a single column only. Each pivot appends another eta matrix and
+ * the sequence is recomputed periodically. Only the non-zero entries of each eta matrix are
+ * stored, thus memory grows with the number of non-zero coefficients rather than quadratically
+ * with the number of rows.
+ *
+ * <p>
+ * Since floating point arithmetic is inexact, the reported objective value is derived from the dual
+ * solution instead of the primal one: For any dual vector the Lagrangian relaxation yields a
+ * lower bound on the optimum of a minimization problem, which is evaluated exactly. Thus the
+ * reported optimum of a minimization problem never exceeds the actual optimum, provided all
+ * variables and rows with non-zero reduced costs or duals are bounded accordingly.
+ * </p>
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+class RevisedSimplex {
+  private static final double FEASIBILITY_TOLERANCE = 1e-9;
+  private static final double OPTIMALITY_TOLERANCE = 1e-9;
+  private static final double PIVOT_TOLERANCE = 1e-11;
+  private static final double DEGENERATE_STEP = 1e-12;
+  private static final int REFACTORIZATION_INTERVAL = 100;
+  private static final int MAX_DEGENERATE_STEPS = 50;
+
+  /**
+   * Outcome of the simplex method.
+   */
+  enum Status {
+    OPTIMAL, INFEASIBLE, UNBOUNDED
+  }
+
+  private final LinearProgram program;
+  private final int rows;
+  private final int columns;
+  private final int[] columnStart;
+  private final int[] columnRows;
+  private final double[] columnValues;
+  private final double[] costs;
+  private final double[] lower;
+  private final double[] upper;
+  private final double[] values;
+  private final int[] basis;
+  private final int[] position;
+  private final double[] duals;
+
+  /**
+   * The eta matrices, each given by its pivot position, its pivot, and the remaining non-zero
+   * entries of its column, which are stored consecutively starting at {@code etaStart}.
+   */
+  private int etas = 0;
+  private int[] etaPositions = new int[16];
+  private double[] etaPivots = new double[16];
+  private int[] etaStart = new int[17];
+  private int[] etaRows = new int[64];
+  private double[] etaValues = new double[64];
+
+  /**
+   * Prepares the simplex method for the given linear program.
+   *
+   * @param program the linear program to be solved
+   */
+  RevisedSimplex(LinearProgram program) {
+    this.program = program;
+    rows = program.getNumberOfRows();
+    columns = program.getNumberOfColumns();
+
+    // store the coefficient matrix column-wise
+    columnStart = new int[columns + 1];
+
+    for (int i = 0; i < rows; i++) {
+      for (int column : program.getRowColumns(i)) {
+        columnStart[column + 1]++;
+      }
+    }
+
+    for (int j = 0; j < columns; j++) {
+      columnStart[j + 1] += columnStart[j];
+    }
+
+    int[] next = columnStart.clone();
+    columnRows = new int[columnStart[columns]];
+    columnValues = new double[columnStart[columns]];
+
+    for (int i = 0; i < rows; i++) {
+      int[] indices = program.getRowColumns(i);
+      double[] coefficients = program.getRowCoefficients(i);
+
+      for (int k = 0; k < indices.length; k++) {
+        columnRows[next[indices[k]]] = i;
+        columnValues[next[indices[k]]++] = coefficients[k];
+      }
+    }
+
+    int variables = columns + rows;
+    double sign = program.isMaximize() ? -1 : 1;
+    costs = new double[variables];
+    lower = new double[variables];
+    upper = new double[variables];
+    values = new double[variables];
+
+    for (int j = 0; j < columns; j++) {
+      costs[j] = sign * program.getCost(j);
+      lower[j] = program.getLowerBound(j);
+      upper[j] = program.getUpperBound(j);
+
+      if (!Double.isInfinite(lower[j])) {
+        values[j] = lower[j];
+      } else if (!Double.isInfinite(upper[j])) {
+        values[j] = upper[j];
+      }
+    }
+
+    for (int i = 0; i < rows; i++) {
+      lower[columns + i] = program.getRowLowerBound(i);
+      upper[columns + i] = program.getRowUpperBound(i);
+    }
+
+    basis = new int[rows];
+    position = new int[variables];
+    duals = new double[rows];
+
+    for (int j = 0; j < columns; j++) {
+      position[j] = -1;
+    }
+
+    for (int i = 0; i < rows; i++) {
+      basis[i] = columns + i;
+      position[columns + i] = i;
+    }
+
+    refactorize();
+  }
+
+  /**
+   * Solves the linear program.
+   *
+   * @return whether an optimal solution has been found
+   * @throws ArithmeticException if the method fails due to numerical issues
+   */
+  Status solve() {
+    for (int j = 0; j < values.length; j++) {
+      if (lower[j] > upper[j] + FEASIBILITY_TOLERANCE) {
+        return Status.INFEASIBLE;
+      }
+    }
+
+    double[] basicCosts = new double[rows];
+    double[] direction = new double[rows];
+    long maxIterations = 50L * (rows + columns) + 1000;
+    int degenerateSteps = 0;
+    int factorized = 0;
+
+    for (int iteration = 0;; iteration++) {
+      if (iteration > maxIterations) {
+        throw new ArithmeticException("Iteration limit exceeded.");
+      }
+
+      if (iteration - factorized >= REFACTORIZATION_INTERVAL) {
+        refactorize();
+        factorized = iteration;
+      }
+
+      boolean phaseOne = computeBasicCosts(basicCosts);
+      computeDuals(basicCosts);
+      int entering = chooseEntering(phaseOne, degenerateSteps > MAX_DEGENERATE_STEPS);
+
+      if (entering == -1 && factorized != iteration) {
+        // verify the result using a fresh inverse
+        refactorize();
+        factorized = iteration;
+        iteration--;
+        continue;
+      } else if (entering == -1) {
+        return phaseOne ? Status.INFEASIBLE : Status.OPTIMAL;
+      }
+
+      double sign = getReducedCost(entering, phaseOne) < 0 ? 1 : -1;
+      computeDirection(entering, direction);
+
+      // ratio test, the entering variable might reach its opposite bound first
+      double step = upper[entering] - lower[entering];
+      int leaving = -1;
+      double leavingBound = 0;
+
+      for (int k = 0; k < rows; k++) {
+        int variable = basis[k];
+        double rate = -sign * direction[k];
+        double bound = rate > 0 ? upper[variable] : lower[variable];
+
+        if (Math.abs(direction[k]) <= PIVOT_TOLERANCE) {
+          continue;
+        } else if (phaseOne && rate > 0 && values[variable] < lower[variable]
+            - FEASIBILITY_TOLERANCE) {
+          bound = lower[variable];
+        } else if (phaseOne && rate < 0 && values[variable] > upper[variable]
+            + FEASIBILITY_TOLERANCE) {
+          bound = upper[variable];
+        } else if (phaseOne && !isFeasible(variable)) {
+          // moving away from its bounds is accounted for by the costs
+          continue;
+        }
+
+        if (!Double.isInfinite(bound)) {
+          double limit = Math.max(0, (bound - values[variable]) / rate);
+
+          if (limit < step - DEGENERATE_STEP
+              || (limit <= step + DEGENERATE_STEP && leaving != -1 && isPreferred(k, leaving,
+                  direction, degenerateSteps > MAX_DEGENERATE_STEPS))) {
+            step = limit;
+            leaving = k;
+            leavingBound = bound;
+          }
+        }
+      }
+
+      if (Double.isInfinite(step)) {
+        if (phaseOne) {
+          throw new ArithmeticException("Unbounded ray while searching a feasible solution.");
+        }
+
+        return Status.UNBOUNDED;
+      }
+
+      values[entering] += sign * step;
+
+      for (int k = 0; k < rows; k++) {
+        values[basis[k]] -= sign * direction[k] * step;
+      }
+
+      if (leaving == -1) {
+        values[entering] = sign > 0 ? upper[entering] : lower[entering];
+      } else {
+        values[basis[leaving]] = leavingBound;
+        pivot(leaving, entering, direction);
+      }
+
+      degenerateSteps = step < DEGENERATE_STEP ? degenerateSteps + 1 : 0;
+    }
+  }
+
+  /**
+   * Returns a bound on the optimal objective value based on the current dual solution. The bound
+   * is evaluated exactly and rounded safely, i.e. it is a lower bound on the optimum of a
+   * minimization problem and an upper bound on the optimum of a maximization problem. Must be
+   * called after an optimal solution has been found.
+   *
+   * @return the bound or {@code null} if the bound is infinite due to unbounded variables
+   */
+  Double getSafeObjectiveBound() {
+    BigDecimal[] y = new BigDecimal[rows];
+    BigDecimal result = BigDecimal.ZERO;
+
+    // restrict the dual variables to signs that do not render the bound infinite
+    for (int i = 0; i < rows; i++) {
+      double dual = duals[i];
+
+      if ((dual > 0 && Double.isInfinite(lower[columns + i]))
+          || (dual < 0 && Double.isInfinite(upper[columns + i]))) {
+        dual = 0;
+      }
+
+      y[i] = new BigDecimal(dual);
+
+      if (dual > 0) {
+        result = result.add(y[i].multiply(new BigDecimal(lower[columns + i])));
+      } else if (dual < 0) {
+        result = result.add(y[i].multiply(new BigDecimal(upper[columns + i])));
+      }
+    }
+
+    for (int j = 0; j < columns; j++) {
+      BigDecimal reducedCost = new BigDecimal(costs[j]);
+
+      for (int k = columnStart[j]; k < columnStart[j + 1]; k++) {
+        reducedCost = reducedCost.subtract(y[columnRows[k]].multiply(
+            new BigDecimal(columnValues[k])));
+      }
+
+      int sign = reducedCost.signum();
+      double bound = sign > 0 ? lower[j] : upper[j];
+
+      if (sign != 0 && Double.isInfinite(bound)) {
+        return null;
+      } else if (sign != 0) {
+        result = result.add(reducedCost.multiply(new BigDecimal(bound)));
+      }
+    }
+
+    double bound = result.doubleValue();
+
+    if (new BigDecimal(bound).compareTo(result) > 0) {
+      bound = Math.nextAfter(bound, Double.NEGATIVE_INFINITY);
+    }
+
+    return program.isMaximize() ? -bound : bound;
+  }
+
+  /**
+   * Sets the costs of all basic variables. The sum of infeasibilities is minimized as long as any
+   * basic variable violates its bounds.
+   *
+   * @param basicCosts costs of the basic variables in order of the basis
+   * @return {@code true} iff the current solution is infeasible
+   */
+  private boolean computeBasicCosts(double[] basicCosts) {
+    boolean result = false;
+
+    for (int k = 0; k < rows; k++) {
+      int variable = basis[k];
+
+      if (values[variable] < lower[variable] - FEASIBILITY_TOLERANCE) {
+        basicCosts[k] = -1;
+        result = true;
+      } else if (values[variable] > upper[variable] + FEASIBILITY_TOLERANCE) {
+        basicCosts[k] = 1;
+        result = true;
+      } else {
+        basicCosts[k] = 0;
+      }
+    }
+
+    for (int k = 0; !result && k < rows; k++) {
+      basicCosts[k] = costs[basis[k]];
+    }
+
+    return result;
+  }
+
+  /**
+   * Computes the dual solution for the given costs of the basic variables.
+   *
+   * @param basicCosts costs of the basic variables in order of the basis
+   */
+  private void computeDuals(double[] basicCosts) {
+    System.arraycopy(basicCosts, 0, duals, 0, rows);
+
+    // multiply by all eta matrices from the right, starting with the most recent one
+    for (int e = etas - 1; e >= 0; e--) {
+      int row = etaPositions[e];
+      double value = duals[row];
+
+      for (int p = etaStart[e]; p < etaStart[e + 1]; p++) {
+        value -= etaValues[p] * duals[etaRows[p]];
+      }
+
+      duals[row] = value / etaPivots[e];
+    }
+  }
+
+  /**
+   * Returns the reduced cost of a non-basic variable with respect to the current duals.
+   *
+   * @param variable index of the variable
+   * @param phaseOne whether the sum of infeasibilities is minimized
+   * @return the reduced cost
+   */
+  private double getReducedCost(int variable, boolean phaseOne) {
+    double result = phaseOne ? 0 : costs[variable];
+
+    if (variable >= columns) {
+      result += duals[variable - columns];
+    } else {
+      for (int k = columnStart[variable]; k < columnStart[variable + 1]; k++) {
+        result -= duals[columnRows[k]] * columnValues[k];
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Chooses the entering variable, either the one with the largest reduced cost (Dantzig's rule)
+   * or the one with the smallest index (Bland's rule).
+   *
+   * @param phaseOne whether the sum of infeasibilities is minimized
+   * @param bland whether to use Bland's rule to prevent cycling
+   * @return the entering variable or {@code -1} if the current solution is optimal
+   */
+  private int chooseEntering(boolean phaseOne, boolean bland) {
+    int result = -1;
+    double best = OPTIMALITY_TOLERANCE;
+
+    for (int j = 0; j < values.length && (result == -1 || !bland); j++) {
+      if (position[j] == -1) {
+        double reducedCost = getReducedCost(j, phaseOne);
+        boolean eligible =
+            (reducedCost < -best && values[j] < upper[j] - FEASIBILITY_TOLERANCE)
+                || (reducedCost > best && values[j] > lower[j] + FEASIBILITY_TOLERANCE);
+
+        if (eligible) {
+          result = j;
+          best = Math.abs(reducedCost);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Computes how the basic variables change when increasing a non-basic variable.
+   *
+   * @param variable the non-basic variable
+   * @param direction change of each basic variable in order of the basis, negated
+   */
+  private void computeDirection(int variable, double[] direction) {
+    for (int k = 0; k < rows; k++) {
+      direction[k] = 0;
+    }
+
+    if (variable >= columns) {
+      direction[variable - columns] = -1;
+    } else {
+      for (int p = columnStart[variable]; p < columnStart[variable + 1]; p++) {
+        direction[columnRows[p]] = columnValues[p];
+      }
+    }
+
+    multiplyInverse(direction);
+  }
+
+  /**
+   * Multiplies a vector by the inverse of the basis from the left, i.e. by all eta matrices
+   * starting with the oldest one.
+   *
+   * @param vector the vector, is overwritten by the product
+   */
+  private void multiplyInverse(double[] vector) {
+    for (int e = 0; e < etas; e++) {
+      int row = etaPositions[e];
+      double value = vector[row];
+
+      if (value != 0) {
+        value /= etaPivots[e];
+        vector[row] = value;
+
+        for (int p = etaStart[e]; p < etaStart[e + 1]; p++) {
+          vector[etaRows[p]] -= etaValues[p] * value;
+        }
+      }
+    }
+  }
+
+  /**
+   * Decides between two leaving candidates with equal step length.
+   *
+   * @param candidate position of the new candidate in the basis
+   * @param current position of the current candidate in the basis
+   * @param direction see {@link #computeDirection(int, double[])}
+   * @param bland whether to use Bland's rule to prevent cycling
+   * @return {@code true} iff the new candidate should be preferred
+   */
+  private boolean isPreferred(int candidate, int current, double[] direction, boolean bland) {
+    if (bland) {
+      return basis[candidate] < basis[current];
+    } else {
+      return Math.abs(direction[candidate]) > Math.abs(direction[current]);
+    }
+  }
+
+  /**
+   * Replaces a basic variable and updates the inverse of the basis.
+   *
+   * @param leaving position of the leaving variable in the basis
+   * @param entering the entering variable
+   * @param direction see {@link #computeDirection(int, double[])}
+   */
+  private void pivot(int leaving, int entering, double[] direction) {
+    addEta(leaving, direction);
+    position[basis[leaving]] = -1;
+    basis[leaving] = entering;
+    position[entering] = leaving;
+  }
+
+  /**
+   * Appends an eta matrix to the inverse of the basis.
+   *
+   * @param row the pivot position
+   * @param column the column of the eta matrix, i.e. the entering column multiplied by the inverse
+   */
+  private void addEta(int row, double[] column) {
+    if (etas == etaPositions.length) {
+      etaPositions = Arrays.copyOf(etaPositions, 2 * etas);
+      etaPivots = Arrays.copyOf(etaPivots, 2 * etas);
+      etaStart = Arrays.copyOf(etaStart, 2 * etas + 1);
+    }
+
+    int end = etaStart[etas];
+
+    for (int k = 0; k < rows; k++) {
+      if (k != row && column[k] != 0) {
+        if (end == etaRows.length) {
+          etaRows = Arrays.copyOf(etaRows, 2 * end);
+          etaValues = Arrays.copyOf(etaValues, 2 * end);
+        }
+
+        etaRows[end] = k;
+        etaValues[end++] = column[k];
+      }
+    }
+
+    etaPositions[etas] = row;
+    etaPivots[etas] = column[row];
+    etaStart[++etas] = end;
+  }
+
+  /**
+   * Recomputes the inverse of the basis starting from the identity, as well as the values of all
+   * basic variables. Logical variables are inserted first, since their columns are unit vectors.
+   * Each remaining basic variable takes the free position of its largest transformed coefficient,
+   * thus the order of the basis might change.
+   *
+   * @throws ArithmeticException if the basis is singular
+   */
+  private void refactorize() {
+    int[] variables = basis.clone();
+    boolean[] assigned = new boolean[rows];
+    double[] column = new double[rows];
+    etas = 0;
+
+    for (int variable : variables) {
+      if (variable >= columns) {
+        int row = variable - columns;
+        column[row] = -1;
+        addEta(row, column);
+        column[row] = 0;
+        assigned[row] = true;
+        basis[row] = variable;
+        position[variable] = row;
+      }
+    }
+
+    for (int variable : variables) {
+      if (variable < columns) {
+        computeDirection(variable, column);
+        int row = -1;
+
+        for (int k = 0; k < rows; k++) {
+          if (!assigned[k] && (row == -1 || Math.abs(column[k]) > Math.abs(column[row]))) {
+            row = k;
+          }
+        }
+
+        if (row == -1 || Math.abs(column[row]) <= PIVOT_TOLERANCE) {
+          throw new ArithmeticException("Basis is singular.");
+        }
+
+        addEta(row, column);
+        assigned[row] = true;
+        basis[row] = variable;
+        position[variable] = row;
+      }
+    }
+
+    computeBasicValues();
+  }
+
+  /**
+   * Computes the values of all basic variables from the values of the non-basic ones.
+   */
+  private void computeBasicValues() {
+    double[] sum = new double[rows];
+
+    for (int j = 0; j < values.length; j++) {
+      if (position[j] == -1 && values[j] != 0) {
+        if (j >= columns) {
+          sum[j - columns] -= values[j];
+        } else {
+          for (int p = columnStart[j]; p < columnStart[j + 1]; p++) {
+            sum[columnRows[p]] += columnValues[p] * values[j];
+          }
+        }
+      }
+    }
+
+    multiplyInverse(sum);
+
+    for (int k = 0; k < rows; k++) {
+      values[basis[k]] = -sum[k];
+    }
+  }
+
+  private boolean isFeasible(int variable) {
+    return values[variable] >= lower[variable] - FEASIBILITY_TOLERANCE
+        && values[variable] <= upper[variable] + FEASIBILITY_TOLERANCE;
+  }
+}
@@ -22,6 +22,25 @@ class Scip extends Solver {
     return "scip -f " + filename;
   }
 
+  /**
+   * Sessions rely on the interactive shell reporting unknown commands along with their name. This
+   * has not been verified for any release of SCIP yet, each session is probed before use.
+   */
+  @Override
+  protected String getSessionCommand() {
+    return "scip";
+  }
+
+  @Override
+  protected String getSessionInput(String filename) {
+    return "read " + filename + "\noptimize\ndisplay solution\n";
+  }
+
+  @Override
+  protected String getVersionCommand() {
+    return "scip -c quit";
+  }
+
   @Override
   protected void handleLine(String line) throws LinearProgramException {
     if (line.contains("problem is solved [optimal solution found]")) {
@@ -3,22 +3,98 @@ package proof.solver;
 import proof.exception.ExceptionHelper;
 import proof.exception.LinearProgramException;
 import proof.exception.UnsupportedSolverException;
+import proof.util.Metrics;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.StringTokenizer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 
 /**
- * Common interface for all linear program solvers.
+ * Common interface for all linear program solvers. By default, a new solver process is started for
+ * every linear program. If sessions are enabled (see {@link #setSessionsEnabled(boolean)}), solvers
+ * that provide an interactive shell (see {@link #getSessionCommand()}) are driven via a single
+ * long-lived process instead, which is reused for all linear programs. Each solver falls back to
+ * starting a new process for every linear program if the session can not be established or breaks
+ * down.
+ *
+ * <p>
+ * Sessions rely on the shell echoing the unknown {@link #SESSION_MARKER} command after processing
+ * each linear program. Since this behavior is not part of any documented solver interface, a new
+ * session is probed before use. Sessions are disabled by default until the echo has been verified
+ * against the releases of each supported solver.
+ * </p>
+ *
+ * <p>
+ * The output of each solver process is consumed by separate threads, such that the solver is never
+ * blocked by a full pipe and the validation is never blocked by a hanging solver. A solver that
+ * exceeds the timeout (see {@link #setTimeout(long)}) is killed.
+ * </p>
  *
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
 public abstract class Solver {
+  /**
+   * Unknown command sent after each linear program in a session. The solver will echo it once all
+   * previous commands have been processed.
+   */
+  private static final String SESSION_MARKER = "ocm-validator-end-of-program-";
+
+  /**
+   * Maximum time in milliseconds for a new session to solve its first linear programs.
+   */
+  private static final long SESSION_PROBE_TIMEOUT = 30000;
+
+  /**
+   * Maximum time in milliseconds to wait for the error output of a terminated solver process.
+   */
+  private static final long ERROR_OUTPUT_TIMEOUT = 1000;
+
+  /**
+   * Matches lines of the solver output containing a version number.
+   */
+  private static final Pattern VERSION_PATTERN = Pattern.compile(".*\\d+\\.\\d+.*");
+
+  /**
+   * Maximum time in milliseconds for the version command to report the version, unless the timeout
+   * of this solver is shorter.
+   */
+  private static final long VERSION_TIMEOUT = 10000;
+
+  /**
+   * Marks a version that could not be determined. Compared by identity, thus never equal to any
+   * reported version.
+   */
+  private static final String UNKNOWN_VERSION = new String();
+
   private Double result;
   private String filename;
+  private boolean sessionsEnabled = false;
+  private boolean compactNames = false;
+  private boolean mps = false;
+  private String version = null;
+  private Metrics metrics = null;
+  private long timeout = 0;
+  private boolean keepFiles = false;
+  private Process session = null;
+  private BufferedReader sessionOutput = null;
+  private Writer sessionInput = null;
+  private int sessionPrograms = 0;
+  private File pipe = null;
 
   /**
    * Initializes the solver and asserts it is available.
@@ -31,6 +107,193 @@ public abstract class Solver {
     }
   }
 
+  /**
+   * Creates another solver of the same kind. A solver keeps track of the output it is currently
+   * parsing, thus concurrent validations require a separate instance for each thread.
+   *
+   * @return the new solver
+   * @throws UnsupportedSolverException if the solver could not be instantiated
+   */
+  public Solver newInstance() {
+    try {
+      Solver solver = getClass().newInstance();
+      solver.sessionsEnabled = sessionsEnabled;
+      solver.compactNames = compactNames;
+      solver.mps = mps;
+      solver.version = version;
+      solver.metrics = metrics;
+      solver.timeout = timeout;
+      solver.keepFiles = keepFiles;
+      return solver;
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw ExceptionHelper.wrap(e, new UnsupportedSolverException("Could not instantiate "
+          + getClass().getName() + "."));
+    }
+  }
+
+  /**
+   * Sets whether linear programs may be solved within a long-lived solver session. Sessions are
+   * disabled by default. Closes the current session if sessions are disabled.
+   *
+   * @param enabled {@code false} to start a new solver process for each linear program
+   */
+  public void setSessionsEnabled(boolean enabled) {
+    sessionsEnabled = enabled;
+
+    if (!enabled) {
+      closeSession();
+    }
+  }
+
+  /**
+   * Returns whether linear programs are solved within a long-lived solver session. Will return
+   * {@code false} after a session has failed.
+   *
+   * @return {@code true} iff sessions are used whenever supported by the solver
+   */
+  public boolean isSessionsEnabled() {
+    return sessionsEnabled;
+  }
+
+  /**
+   * Sets whether columns are named after their indices when writing linear programs to files. If
+   * files are kept, the original names are written to a separate file with the additional
+   * extension {@code .names}.
+   *
+   * @param compactNames {@code true} to write compact column names
+   */
+  public void setCompactNames(boolean compactNames) {
+    this.compactNames = compactNames;
+  }
+
+  public boolean isCompactNames() {
+    return compactNames;
+  }
+
+  /**
+   * Sets whether linear programs are written to files in free MPS format instead of CPLEX LP
+   * format.
+   *
+   * @param mps {@code true} to write MPS files
+   */
+  public void setMps(boolean mps) {
+    this.mps = mps;
+  }
+
+  public boolean isMps() {
+    return mps;
+  }
+
+  /**
+   * Sets whether linear programs are written to temporary files that are kept after solving them.
+   * Otherwise, programs are streamed to the solver whenever possible and no files are kept.
+   *
+   * @param keepFiles {@code true} to keep all linear program files, e.g. for debugging
+   */
+  public void setKeepFiles(boolean keepFiles) {
+    this.keepFiles = keepFiles;
+  }
+
+  public boolean isKeepFiles() {
+    return keepFiles;
+  }
+
+  /**
+   * Sets the metrics the time spent on writing and solving linear programs is recorded in.
+   *
+   * @param metrics the metrics or {@code null} if nothing should be recorded
+   */
+  public void setMetrics(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public Metrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Sets the maximum wall-clock time for solving a single linear program. A solver process that
+   * exceeds this time is killed and the linear program is considered unsolved.
+   *
+   * @param timeout the timeout in milliseconds, {@code 0} for no limit
+   */
+  public void setTimeout(long timeout) {
+    this.timeout = timeout;
+  }
+
+  public long getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Returns the file containing the linear program that has been solved most recently by an
+   * external solver process. Note that this file might have been deleted or might be a named pipe.
+   *
+   * @return the name of the file or {@code null} if no file has been solved yet
+   */
+  public String getFilename() {
+    return filename;
+  }
+
+  /**
+   * Returns the version of this solver as reported by the solver itself, see
+   * {@link #getVersionCommand()}. The version is determined once.
+   *
+   * @return the first line of output containing a version number or {@code null} if unknown
+   */
+  public String getVersion() {
+    if (version == null) {
+      version = getVersionCommand() == null ? UNKNOWN_VERSION : readVersion();
+    }
+
+    return version == UNKNOWN_VERSION ? null : version;
+  }
+
+  /**
+   * Runs the version command, which is destroyed once {@link #VERSION_TIMEOUT} or the timeout of
+   * this solver has elapsed.
+   *
+   * @return the first line of output containing a version number or {@link #UNKNOWN_VERSION}
+   */
+  private String readVersion() {
+    Process process = null;
+    long limit = timeout == 0 ? VERSION_TIMEOUT : Math.min(timeout, VERSION_TIMEOUT);
+
+    try {
+      ProcessBuilder builder = new ProcessBuilder(getVersionCommand().split(" "));
+      builder.redirectErrorStream(true);
+      process = builder.start();
+      process.getOutputStream().close();
+      OutputPump output = new OutputPump(process.getInputStream());
+      output.start();
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limit);
+
+      for (String line = output.nextLine(deadline); line != null; line =
+          output.nextLine(deadline)) {
+        if (VERSION_PATTERN.matcher(line).matches()) {
+          return line.trim();
+        }
+      }
+    } catch (IOException | TimeoutException e) {
+      // the version remains unknown
+    } finally {
+      if (process != null) {
+        process.destroy();
+      }
+    }
+
+    return UNKNOWN_VERSION;
+  }
+
+  /**
+   * Terminates the current solver session, if any, and removes the named pipe of this solver. A
+   * new session and pipe are created when solving the next linear program.
+   */
+  public void close() {
+    closeSession();
+    deletePipe();
+  }
+
   /**
    * Solves the linear program contained in the given file. The file must contain a problem
    * described in CPLEX LP format. Will return 0 if the given file is empty.
@@ -42,34 +305,381 @@ public abstract class Solver {
    *         solution is too low
    */
   public double solve(String filename) throws LinearProgramException {
+    if (sessionsEnabled && isSessionSupported()) {
+      try {
+        if (session == null) {
+          startSession();
+        }
+
+        return solveInSession(filename);
+      } catch (IOException e) {
+        // the session is broken, fall back to a new process per linear program
+        setSessionsEnabled(false);
+      }
+    }
+
+    return solveOnce(filename);
+  }
+
+  /**
+   * Solves the given linear program. Unless the solver is able to process the program directly,
+   * the program is written in CPLEX LP or MPS format (see {@link #setMps(boolean)}) to a named pipe
+   * the solver reads from, see {@link ProgramPipe}. Temporary files are only written if requested
+   * (see {@link #setKeepFiles(boolean)}) or if named pipes are not supported.
+   *
+   * @param program the linear program
+   * @param name name of the linear program, prefix of the temporary file
+   * @return the optimal objective value
+   *
+   * @throws LinearProgramException if the program could not be written or solved
+   */
+  public double solve(LinearProgram program, String name) throws LinearProgramException {
+    LinearProgramWriter writer = mps ? new MpsWriter(compactNames) : new LpWriter(compactNames);
+    File currentPipe = keepFiles ? null : getPipe(writer.getExtension());
+
+    if (currentPipe != null) {
+      try {
+        return solveViaPipe(program, writer, currentPipe);
+      } catch (LinearProgramException e) {
+        // the pipe might still be held open by the failed solver
+        deletePipe();
+        throw e;
+      }
+    }
+
+    File file = null;
+
+    try {
+      file = File.createTempFile(name, writer.getExtension()).getAbsoluteFile();
+    } catch (IOException e) {
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, name));
+    }
+
+    try {
+      return solveViaFile(program, writer, file);
+    } finally {
+      if (!keepFiles) {
+        file.delete();
+      }
+    }
+  }
+
+  /**
+   * Returns the named pipe of this solver, creating it if necessary. The pipe is created in a
+   * private temporary directory, such that no other process is able to replace it. It is reused
+   * for all linear programs of the same format until this solver is {@link #close() closed}.
+   *
+   * @param extension file extension of the format
+   * @return the named pipe or {@code null} if named pipes are not supported
+   */
+  private File getPipe(String extension) {
+    if (pipe != null && !pipe.getName().endsWith(extension)) {
+      deletePipe();
+    }
+
+    if (pipe == null) {
+      try {
+        File directory = Files.createTempDirectory("ocm-validator-").toFile();
+        File file = new File(directory, "program" + extension);
+        directory.deleteOnExit();
+        file.deleteOnExit();
+
+        if (ProgramPipe.create(file)) {
+          pipe = file;
+        } else {
+          directory.delete();
+        }
+      } catch (IOException e) {
+        // fall back to temporary files
+      }
+    }
+
+    return pipe;
+  }
+
+  /**
+   * Removes the named pipe of this solver and its directory, if any.
+   */
+  private void deletePipe() {
+    if (pipe != null) {
+      pipe.delete();
+      pipe.getParentFile().delete();
+    }
+
+    pipe = null;
+  }
+
+  /**
+   * Terminates the current solver session, if any.
+   */
+  private void closeSession() {
+    if (session != null) {
+      session.destroy();
+    }
+
+    session = null;
+    sessionOutput = null;
+    sessionInput = null;
+  }
+
+  /**
+   * Writes the linear program to a file before solving it. If the file is kept and compact names
+   * are enabled, the original names are written to a separate file.
+   *
+   * @param program the linear program
+   * @param writer writer of the desired file format
+   * @param file the file
+   * @return the optimal objective value
+   * @throws LinearProgramException if the program could not be written or solved
+   */
+  private double solveViaFile(LinearProgram program, LinearProgramWriter writer, File file)
+      throws LinearProgramException {
+    long start = System.nanoTime();
+
+    try {
+      try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII)) {
+        writer.write(program, out);
+      }
+
+      if (compactNames && keepFiles) {
+        try (Writer out =
+            Files.newBufferedWriter(Paths.get(file + ".names"), StandardCharsets.US_ASCII)) {
+          writer.writeNames(program, out);
+        }
+      }
+    } catch (IOException e) {
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, file.getPath()));
+    }
+
+    if (metrics != null) {
+      metrics.recordSince(Metrics.Phase.WRITE, start);
+      start = System.nanoTime();
+    }
+
+    try {
+      return solve(file.getPath());
+    } finally {
+      if (metrics != null) {
+        metrics.recordSince(Metrics.Phase.SOLVE, start);
+      }
+    }
+  }
+
+  /**
+   * Streams the linear program to the solver via a named pipe. Like {@link #solve(String)}, falls
+   * back to a new solver process if the session breaks down. The program is written anew for each
+   * attempt.
+   *
+   * @param program the linear program
+   * @param writer writer of the desired file format
+   * @param pipe the named pipe
+   * @return the optimal objective value
+   * @throws LinearProgramException if the program could not be written or solved
+   */
+  private double solveViaPipe(LinearProgram program, LinearProgramWriter writer, File pipe)
+      throws LinearProgramException {
+    long start = System.nanoTime();
+
+    try {
+      if (sessionsEnabled && isSessionSupported()) {
+        try {
+          if (session == null) {
+            startSession();
+          }
+
+          return solveViaPipe(program, writer, pipe, true);
+        } catch (IOException e) {
+          // the session is broken, fall back to a new process per linear program
+          setSessionsEnabled(false);
+        }
+      }
+
+      return solveViaPipe(program, writer, pipe, false);
+    } catch (IOException e) {
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, pipe.getPath()));
+    } finally {
+      if (metrics != null) {
+        metrics.recordSince(Metrics.Phase.SOLVE, start);
+      }
+    }
+  }
+
+  /**
+   * Makes a single attempt of streaming the linear program to the solver.
+   *
+   * @param program the linear program
+   * @param writer writer of the desired file format
+   * @param pipe the named pipe
+   * @param inSession whether to solve the program within the current session
+   * @return the optimal objective value
+   * @throws LinearProgramException if the program could not be solved or has not been read
+   *         completely
+   * @throws IOException if the session is broken
+   */
+  private double solveViaPipe(LinearProgram program, LinearProgramWriter writer, File pipe,
+      boolean inSession) throws LinearProgramException, IOException {
+    ProgramPipe programPipe = new ProgramPipe(program, writer, pipe);
+    programPipe.start();
+
+    try {
+      double value = inSession ? solveInSession(pipe.getPath()) : solveOnce(pipe.getPath());
+
+      if (!programPipe.finish()) {
+        throw new LinearProgramException(this, pipe.getPath(),
+            "Linear program has not been read completely.");
+      }
+
+      return value;
+    } finally {
+      if (!programPipe.close()) {
+        // the session holds the pipe without reading, destroying it releases the writing thread
+        closeSession();
+      }
+    }
+  }
+
+  /**
+   * Solves the linear program contained in the given file by starting a new solver process.
+   *
+   * @param filename name of the file containing the problem
+   * @return the optimal objective value
+   * @throws LinearProgramException if the generated program could not be solved
+   */
+  private double solveOnce(String filename) throws LinearProgramException {
     Process process = null;
+    ErrorDrain errors = null;
+    OutputPump output = null;
     result = null;
     this.filename = filename;
 
     prepareSolver();
 
     try {
-      process = Runtime.getRuntime().exec(getCommand(filename));
-      BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-      BufferedReader errorReader =
-          new BufferedReader(new InputStreamReader(process.getErrorStream()));
-
-      for (String line = reader.readLine(); result == null && line != null; line =
-          reader.readLine()) {
-        if (errorReader.ready()) {
-          throw new LinearProgramException(this, filename, errorReader.readLine());
+      process = new ProcessBuilder(getCommand(filename).split(" ")).start();
+      process.getOutputStream().close();
+      errors = new ErrorDrain(process.getErrorStream());
+      errors.start();
+      output = new OutputPump(process.getInputStream());
+      output.start();
+      long deadline = timeout == 0 ? Long.MAX_VALUE : System.nanoTime() + timeout * 1000000;
+
+      for (String line = output.nextLine(deadline); result == null && line != null; line =
+          output.nextLine(deadline)) {
+        if (errors.getFirstLine() != null) {
+          throw new LinearProgramException(this, filename, errors.getFirstLine());
         } else {
           handleLine(line);
         }
       }
     } catch (IOException e) {
       throw ExceptionHelper.wrap(e, new LinearProgramException(this, filename));
+    } catch (TimeoutException e) {
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, filename,
+          "Solver timed out after " + timeout + " ms."));
     } finally {
       if (process != null) {
         process.destroy();
       }
     }
 
+    if (result == null) {
+      // the solver might have terminated due to an error
+      String error = errors.awaitFirstLine();
+      throw new LinearProgramException(this, filename, error == null
+          ? "Output is missing some information." : error);
+    }
+
+    return result;
+  }
+
+  /**
+   * Starts a new solver session and asserts it works by solving a tiny linear program twice. The
+   * session is terminated if it does not succeed within {@link #SESSION_PROBE_TIMEOUT}.
+   *
+   * @throws IOException if the session could not be established
+   */
+  private void startSession() throws IOException {
+    ProcessBuilder builder = new ProcessBuilder(getSessionCommand().split(" "));
+    builder.redirectErrorStream(true);
+
+    Process process = builder.start();
+    session = process;
+    sessionOutput = new BufferedReader(new InputStreamReader(process.getInputStream()));
+    sessionInput = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+
+    Watchdog watchdog = new Watchdog(process, SESSION_PROBE_TIMEOUT);
+    watchdog.start();
+
+    try {
+      File file = createSimpleLinearProgram();
+
+      try {
+        for (int i = 0; i < 2; i++) {
+          if ((int) solveInSession(file.getAbsolutePath()) != 3) {
+            throw new IOException("Solver session yields wrong results.");
+          }
+        }
+      } finally {
+        file.delete();
+      }
+    } catch (LinearProgramException e) {
+      throw ExceptionHelper.wrap(e, new IOException("Solver session yields no results."));
+    } finally {
+      watchdog.interrupt();
+    }
+  }
+
+  /**
+   * Solves the linear program contained in the given file within the current session. All output
+   * up to the echoed {@link #SESSION_MARKER} is consumed, such that the session can be reused.
+   *
+   * @param filename name of the file containing the problem
+   * @return the optimal objective value
+   * @throws LinearProgramException if the generated program could not be solved
+   * @throws IOException if the session is broken
+   */
+  private double solveInSession(String filename) throws LinearProgramException, IOException {
+    LinearProgramException failure = null;
+    result = null;
+    this.filename = filename;
+
+    prepareSolver();
+
+    String marker = SESSION_MARKER + sessionPrograms++;
+    Watchdog watchdog = new Watchdog(session, timeout);
+    watchdog.start();
+
+    try {
+      sessionInput.write(getSessionInput(filename));
+      sessionInput.write(marker + "\n");
+      sessionInput.flush();
+
+      for (String line = readSessionLine(); !line.contains(marker); line = readSessionLine()) {
+        if (failure == null && result == null) {
+          try {
+            handleLine(line);
+          } catch (LinearProgramException e) {
+            failure = e;
+          }
+        }
+      }
+    } catch (IOException e) {
+      if (!watchdog.hasFired()) {
+        throw e;
+      }
+
+      // the session has been killed, the next linear program starts a new one
+      closeSession();
+      throw ExceptionHelper.wrap(e, new LinearProgramException(this, filename,
+          "Solver timed out after " + timeout + " ms."));
+    } finally {
+      watchdog.interrupt();
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+
     if (result == null) {
       throw new LinearProgramException(this, filename, "Output is missing some information.");
     }
@@ -77,6 +687,22 @@ public abstract class Solver {
     return result;
   }
 
+  /**
+   * Reads the next line of the session output.
+   *
+   * @return the line
+   * @throws IOException if the session has terminated
+   */
+  private String readSessionLine() throws IOException {
+    String line = sessionOutput.readLine();
+
+    if (line == null) {
+      throw new IOException("Solver session terminated unexpectedly.");
+    }
+
+    return line;
+  }
+
   /**
    * Sets the result of the current computation.
    *
@@ -125,6 +751,46 @@ public abstract class Solver {
    */
   protected abstract String getCommand(String filename);
 
+  /**
+   * Returns the command used to print the version of this solver. The command must terminate
+   * without reading any input.
+   *
+   * @return the command or {@code null} if the version can not be determined
+   */
+  protected String getVersionCommand() {
+    return null;
+  }
+
+  /**
+   * Returns the command used to start an interactive session of this solver.
+   *
+   * @return the command or {@code null} if sessions are not supported
+   */
+  protected String getSessionCommand() {
+    return null;
+  }
+
+  /**
+   * Returns the commands sent to an interactive session to solve a single linear program. The
+   * solver must print its results to the standard output. Sessions are only used if both this
+   * method and {@link #getSessionCommand()} are overridden.
+   *
+   * @param filename name of the file containing the linear program to be solved
+   * @return newline terminated commands or {@code null} if sessions are not supported
+   */
+  protected String getSessionInput(String filename) {
+    return null;
+  }
+
+  /**
+   * Returns whether this solver provides an interactive session.
+   *
+   * @return {@code true} iff both the session command and input are given
+   */
+  private boolean isSessionSupported() {
+    return getSessionCommand() != null && getSessionInput("my-linear-program.lp") != null;
+  }
+
   /**
    * Called for each line in the solvers output. This method must be overridden to parse the actual
    * results.
@@ -136,30 +802,208 @@ public abstract class Solver {
 
   /**
    * Returns true if this solver is available on the command line. Availability is tested by solving
-   * a tiny linear program.
+   * a tiny linear program. Solvers that do not depend on external software may override this.
    *
    * @return {@code true} if this solver can be used
    */
-  private boolean isAvailable() {
+  protected boolean isAvailable() {
     Integer opt = null;
 
     try {
-      File file = File.createTempFile("simple-linear-program", ".lp");
-      PrintWriter writer = new PrintWriter(file.getAbsoluteFile(), "UTF-8");
-
-      writer.println("Minimize");
-      writer.println("obj: x + y");
-      writer.println("Subject To");
-      writer.println("c1: x >= 2");
-      writer.println("c2: y >= 1");
-      writer.println("End");
-      writer.close();
-
-      opt = (int) solve(file.getAbsoluteFile().toString());
+      File file = createSimpleLinearProgram();
+      opt = (int) solveOnce(file.getAbsolutePath());
+      file.delete();
     } catch (LinearProgramException | IOException e) {
       // solver is not available
     }
 
     return opt != null && opt == 3;
   }
+
+  /**
+   * Writes a tiny linear program with an optimal objective value of 3 to a temporary file.
+   *
+   * @return the file containing the linear program
+   * @throws IOException if the file could not be written
+   */
+  private static File createSimpleLinearProgram() throws IOException {
+    File file = File.createTempFile("simple-linear-program", ".lp");
+    PrintWriter writer = new PrintWriter(file.getAbsoluteFile(), "UTF-8");
+
+    writer.println("Minimize");
+    writer.println("obj: x + y");
+    writer.println("Subject To");
+    writer.println("c1: x >= 2");
+    writer.println("c2: y >= 1");
+    writer.println("End");
+    writer.close();
+
+    return file.getAbsoluteFile();
+  }
+
+  /**
+   * Destroys a process once a timeout has elapsed, unless interrupted before.
+   */
+  private static class Watchdog extends Thread {
+    private final Process process;
+    private final long timeout;
+    private volatile boolean fired = false;
+
+    /**
+     * Creates a new watchdog, which is not started yet.
+     *
+     * @param process the watched process
+     * @param timeout the timeout in milliseconds, {@code 0} for no limit
+     */
+    Watchdog(Process process, long timeout) {
+      this.process = process;
+      this.timeout = timeout;
+      setDaemon(true);
+    }
+
+    @Override
+    public void start() {
+      if (timeout > 0) {
+        super.start();
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        Thread.sleep(timeout);
+        fired = true;
+        process.destroy();
+      } catch (InterruptedException e) {
+        // the process has finished in time
+      }
+    }
+
+    /**
+     * Returns whether the process has been destroyed due to the timeout.
+     *
+     * @return {@code true} iff the timeout has elapsed
+     */
+    boolean hasFired() {
+      return fired;
+    }
+  }
+
+  /**
+   * Reads the standard output of a process until it is closed, such that the output can be
+   * consumed with a timeout.
+   */
+  private static class OutputPump extends Thread {
+    /**
+     * Marks the end of the output. Compared by identity, thus never equal to any line.
+     */
+    private static final String END = new String();
+
+    private final BufferedReader reader;
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+    /**
+     * Creates a new pump, which is not started yet.
+     *
+     * @param outputStream the standard output of the process
+     */
+    OutputPump(InputStream outputStream) {
+      reader = new BufferedReader(new InputStreamReader(outputStream));
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try (BufferedReader in = reader) {
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+          lines.add(line);
+        }
+      } catch (IOException e) {
+        // the process has been destroyed
+      } finally {
+        lines.add(END);
+      }
+    }
+
+    /**
+     * Returns the next line of the output, waiting until it is available.
+     *
+     * @param deadline latest point in time as given by {@link System#nanoTime()},
+     *        {@link Long#MAX_VALUE} to wait indefinitely
+     * @return the line or {@code null} if the output has been closed
+     * @throws TimeoutException if no line is available before the deadline
+     */
+    String nextLine(long deadline) throws TimeoutException {
+      String result = null;
+
+      try {
+        result = deadline == Long.MAX_VALUE ? lines.take()
+            : lines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+
+      if (result == null) {
+        throw new TimeoutException();
+      }
+
+      return result == END ? null : result;
+    }
+  }
+
+  /**
+   * Reads the error output of a process until it is closed. Only the first line is kept.
+   */
+  private static class ErrorDrain extends Thread {
+    private final BufferedReader reader;
+    private volatile String firstLine = null;
+
+    /**
+     * Creates a new drain, which is not started yet.
+     *
+     * @param errorStream the error output of the process
+     */
+    ErrorDrain(InputStream errorStream) {
+      reader = new BufferedReader(new InputStreamReader(errorStream));
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try (BufferedReader in = reader) {
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+          if (firstLine == null) {
+            firstLine = line;
+          }
+        }
+      } catch (IOException e) {
+        // the process has been destroyed
+      }
+    }
+
+    /**
+     * Returns the first line of the error output read so far.
+     *
+     * @return the line or {@code null} if there is none yet
+     */
+    String getFirstLine() {
+      return firstLine;
+    }
+
+    /**
+     * Waits until the error output is closed, which happens once the process has terminated.
+     *
+     * @return the first line of the error output or {@code null} if there is none
+     */
+    String awaitFirstLine() {
+      try {
+        join(ERROR_OUTPUT_TIMEOUT);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      return firstLine;
+    }
+  }
 }
@@ -34,6 +34,9 @@ public class SolverFactory {
         case "gurobi":
           result = new Gurobi();
           break;
+        case "internal":
+          result = new InternalSolver();
+          break;
         default:
           throw new UnsupportedSolverException(
               "The requested linear program solver is not supported: " + param);
@@ -44,7 +47,8 @@ public class SolverFactory {
   }
 
   /**
-   * Detects which linear program solvers are available and chooses one.
+   * Detects which linear program solvers are available and chooses one. The {@link InternalSolver}
+   * is never chosen, it must be requested explicitly.
    *
    * @return the chosen solver
    * @throws UnsupportedSolverException if no solver is available
@@ -3,10 +3,12 @@ package proof.util;
 import proof.exception.ExceptionHelper;
 import proof.exception.InvalidConfigurationException;
 import proof.exception.UnsupportedSolverException;
+import proof.solver.ResultCache;
 import proof.solver.Solver;
 import proof.solver.SolverFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -22,12 +24,53 @@ public class Config {
   /**
    * Usage synopsis to be given to the user.
    */
-  public static final String USAGE = "SYNOPSIS\n" + "  validator -f <file> [-v] [-s <solver>]\n\n"
-      + "OPTIONS\n\n" + "  -f <file>, --file <file>\n"
+  public static final String USAGE = "SYNOPSIS\n"
+      + "  validator -f <file> [-v] [-s <solver>] [-t <threads>] [-o | --sessions] [-c] [-m]\n"
+      + "            [--keep-lp] [--constraint-threads <threads>] [--sparse]\n"
+      + "            [--timeout <seconds>]\n"
+      + "            [--cache-dir <dir> [--cache-size <entries>]] [--metrics-out <file>]\n\n"
+      + "OPTIONS\n\n"
+      + "  -f <file>, --file <file>\n"
       + "\tValidate the proof contained in <file>.\n\n" + "  -v, --verbose\n"
       + "\tPrint verbose information during validation.\n\n" + "  -s <solver>, --solver <solver>\n"
       + "\tUse <solver> as the linear program solver for validating lower bounds.\n"
-      + "\tValid choices are {scip,cplex,gurobi}.";
+      + "\tValid choices are {scip,cplex,gurobi,internal}.\n\n"
+      + "  -t <threads>, --threads <threads>\n"
+      + "\tValidate up to <threads> leaves concurrently. Defaults to 1.\n\n"
+      + "  --constraint-threads <threads>\n"
+      + "\tValidate the Kuratowski constraints of each leaf using up to <threads>\n"
+      + "\tthreads. Defaults to 1.\n\n"
+      + "  -o, --one-shot\n"
+      + "\tStart a new solver process for each linear program. This is the default.\n\n"
+      + "  --sessions\n"
+      + "\tReuse an interactive solver session for all linear programs instead of\n"
+      + "\tstarting a new process for each. Falls back to new processes if the\n"
+      + "\tsession does not work as expected. Supported by SCIP and CPLEX.\n\n"
+      + "  -c, --compact-names\n"
+      + "\tName variables after their indices in linear program files. The original\n"
+      + "\tnames are written to a separate file with the extension .names if\n"
+      + "\tlinear program files are kept.\n\n"
+      + "  -m, --mps\n"
+      + "\tWrite linear programs in free MPS format instead of CPLEX LP format.\n\n"
+      + "  --keep-lp\n"
+      + "\tWrite each linear program to a temporary file that is kept after solving\n"
+      + "\tit. By default, programs are streamed to the solver via named pipes.\n\n"
+      + "  --sparse\n"
+      + "\tOmit all variables that do not occur in any Kuratowski constraint. The\n"
+      + "\tprograms shrink considerably, but might prove weaker lower bounds.\n\n"
+      + "  --timeout <seconds>\n"
+      + "\tKill the solver if a single linear program is not solved within <seconds>.\n"
+      + "\tDoes not apply to the internal solver. Defaults to no limit.\n\n"
+      + "  --cache-dir <dir>\n"
+      + "\tStore the results of all linear programs in <dir> and reuse them whenever\n"
+      + "\tthe same program is solved by the same solver again.\n\n"
+      + "  --cache-size <entries>\n"
+      + "\tKeep at most <entries> results in the cache, removing the least recently\n"
+      + "\tused ones. Defaults to " + ResultCache.DEFAULT_MAX_ENTRIES + ".\n\n"
+      + "  --metrics-out <file>\n"
+      + "\tWrite the time spent in each phase and some counters per leaf to <file>\n"
+      + "\tin JSON. The same metrics are aggregated in Prometheus text format in a\n"
+      + "\tseparate file with the additional extension .prom.";
 
   /**
    * Whether verbose mode is enabled. Instead of accessing this field directly, the {@link #logger}
@@ -40,6 +83,38 @@ public class Config {
    */
   public final Solver solver;
 
+  /**
+   * Whether sparse linear programs are generated, see
+   * {@link proof.solver.LinearProgramGenerator#setSparse(boolean)}.
+   */
+  public final boolean sparse;
+
+  /**
+   * The cache of linear program results or {@code null} if results are not cached.
+   */
+  public final ResultCache cache;
+
+  /**
+   * Timings and counters of the validation, disabled unless they are written to the
+   * {@link #metricsFile}.
+   */
+  public final Metrics metrics;
+
+  /**
+   * Target of the {@link #metrics} or {@code null} if they are not written.
+   */
+  public final Path metricsFile;
+
+  /**
+   * The maximum number of leaves to be validated concurrently.
+   */
+  public final int threads;
+
+  /**
+   * The maximum number of Kuratowski constraints of a single leaf to be validated concurrently.
+   */
+  public final int constraintThreads;
+
   /**
    * A synopsis of the current configuration.
    */
@@ -66,6 +141,17 @@ public class Config {
     Boolean finalVerbose = null;
     String finalSolver = null;
     String finalFile = null;
+    Integer finalThreads = null;
+    Integer finalConstraintThreads = null;
+    Boolean finalOneShot = null;
+    Boolean finalCompactNames = null;
+    Boolean finalMps = null;
+    Boolean finalSparse = null;
+    Boolean finalKeepLp = null;
+    String finalCacheDir = null;
+    Integer finalCacheSize = null;
+    String finalMetricsFile = null;
+    Integer finalTimeout = null;
 
     for (int i = 0; i < args.length; i++) {
       switch (args[i].trim()) {
@@ -95,6 +181,94 @@ public class Config {
           }
           break;
 
+        case "-t":
+        case "--threads":
+          if (i == args.length - 1) {
+            throw new InvalidConfigurationException("No number of threads specified.");
+          } else {
+            assertUniqueness(args[i], finalThreads);
+            finalThreads = parsePositive(args[++i], "number of threads");
+          }
+          break;
+
+        case "--constraint-threads":
+          if (i == args.length - 1) {
+            throw new InvalidConfigurationException("No number of constraint threads specified.");
+          } else {
+            assertUniqueness(args[i], finalConstraintThreads);
+            finalConstraintThreads = parsePositive(args[++i], "number of constraint threads");
+          }
+          break;
+
+        case "-o":
+        case "--one-shot":
+          assertUniqueness(args[i], finalOneShot);
+          finalOneShot = true;
+          break;
+
+        case "--sessions":
+          assertUniqueness(args[i], finalOneShot);
+          finalOneShot = false;
+          break;
+
+        case "-c":
+        case "--compact-names":
+          assertUniqueness(args[i], finalCompactNames);
+          finalCompactNames = true;
+          break;
+
+        case "-m":
+        case "--mps":
+          assertUniqueness(args[i], finalMps);
+          finalMps = true;
+          break;
+
+        case "--keep-lp":
+          assertUniqueness(args[i], finalKeepLp);
+          finalKeepLp = true;
+          break;
+
+        case "--sparse":
+          assertUniqueness(args[i], finalSparse);
+          finalSparse = true;
+          break;
+
+        case "--timeout":
+          if (i == args.length - 1) {
+            throw new InvalidConfigurationException("No timeout specified.");
+          } else {
+            assertUniqueness(args[i], finalTimeout);
+            finalTimeout = parsePositive(args[++i], "timeout");
+          }
+          break;
+
+        case "--cache-dir":
+          if (i == args.length - 1) {
+            throw new InvalidConfigurationException("No cache directory specified.");
+          } else {
+            assertUniqueness(args[i], finalCacheDir);
+            finalCacheDir = args[++i];
+          }
+          break;
+
+        case "--cache-size":
+          if (i == args.length - 1) {
+            throw new InvalidConfigurationException("No cache size specified.");
+          } else {
+            assertUniqueness(args[i], finalCacheSize);
+            finalCacheSize = parsePositive(args[++i], "cache size");
+          }
+          break;
+
+        case "--metrics-out":
+          if (i == args.length - 1) {
+            throw new InvalidConfigurationException("No metrics file specified.");
+          } else {
+            assertUniqueness(args[i], finalMetricsFile);
+            finalMetricsFile = args[++i];
+          }
+          break;
+
         default:
           throw new InvalidConfigurationException("Unknown command line parameter: " + args[i]);
       }
@@ -104,6 +278,30 @@ public class Config {
       finalVerbose = false;
     }
 
+    if (finalThreads == null) {
+      finalThreads = 1;
+    }
+
+    if (finalConstraintThreads == null) {
+      finalConstraintThreads = 1;
+    }
+
+    if (finalOneShot == null) {
+      finalOneShot = true;
+    }
+
+    if (finalCompactNames == null) {
+      finalCompactNames = false;
+    }
+
+    if (finalMps == null) {
+      finalMps = false;
+    }
+
+    if (finalSparse == null) {
+      finalSparse = false;
+    }
+
     if (finalFile == null) {
       throw new InvalidConfigurationException("No input file specified.");
     }
@@ -125,7 +323,35 @@ public class Config {
               : (finalSolver + " is not available on this system.")));
     }
 
+    if (finalCacheSize != null && finalCacheDir == null) {
+      throw new InvalidConfigurationException("No cache directory specified.");
+    }
+
+    if (finalCacheDir == null) {
+      cache = null;
+    } else {
+      try {
+        cache =
+            new ResultCache(Paths.get(finalCacheDir), finalCacheSize == null
+                ? ResultCache.DEFAULT_MAX_ENTRIES : finalCacheSize);
+      } catch (IOException e) {
+        throw ExceptionHelper.wrap(e, new InvalidConfigurationException(
+            "Could not open cache directory: " + finalCacheDir));
+      }
+    }
+
+    solver.setSessionsEnabled(!finalOneShot);
+    solver.setCompactNames(finalCompactNames);
+    solver.setMps(finalMps);
+    solver.setKeepFiles(finalKeepLp != null);
+    solver.setTimeout(finalTimeout == null ? 0 : 1000L * finalTimeout);
+    metricsFile = finalMetricsFile == null ? null : Paths.get(finalMetricsFile);
+    metrics = new Metrics(metricsFile != null);
+    solver.setMetrics(metrics);
     verbose = finalVerbose;
+    sparse = finalSparse;
+    threads = finalThreads;
+    constraintThreads = finalConstraintThreads;
     report = getReport();
 
     logger = new ProgressLogger(out, verbose);
@@ -179,6 +405,32 @@ public class Config {
     }
   }
 
+  /**
+   * Parses a positive integer, such as the number of threads to be used for validating leaves.
+   *
+   * @param value command line argument
+   * @param name name of the parsed quantity, used for error messages
+   * @return the positive integer
+   * @throws InvalidConfigurationException if the argument is not a positive integer
+   */
+  private int parsePositive(String value, String name) throws InvalidConfigurationException {
+    int result = 0;
+
+    try {
+      result = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw ExceptionHelper.wrap(e, new InvalidConfigurationException("Invalid " + name + ": "
+          + value));
+    }
+
+    if (result < 1) {
+      throw new InvalidConfigurationException(Character.toUpperCase(name.charAt(0))
+          + name.substring(1) + " must be positive: " + value);
+    }
+
+    return result;
+  }
+
   /**
    * Returns a summary of all set options.
    *
@@ -186,6 +438,16 @@ public class Config {
    */
   private String getReport() {
     return "CONFIGURATION\n\n  verbose: " + verbose + "\n  linear program solver: "
-        + solver.getClass().getSimpleName() + "\n  file to validate: " + file;
+        + solver.getClass().getSimpleName() + "\n  solver sessions: " + solver.isSessionsEnabled()
+        + "\n  compact variable names: " + solver.isCompactNames()
+        + "\n  linear program format: " + (solver.isMps() ? "MPS" : "LP")
+        + "\n  keep linear program files: " + solver.isKeepFiles()
+        + "\n  solver timeout: "
+        + (solver.getTimeout() == 0 ? "none" : (solver.getTimeout() / 1000 + " s"))
+        + "\n  sparse linear programs: " + sparse + "\n  threads: " + threads
+        + "\n  constraint threads: " + constraintThreads
+        + "\n  result cache: " + (cache == null ? "none" : cache.getDirectory())
+        + "\n  metrics: " + (metricsFile == null ? "none" : metricsFile)
+        + "\n  file to validate: " + file;
   }
 }
@@ -0,0 +1,104 @@
+package proof.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Map from primitive long keys to arbitrary values. Keys are stored in a {@link LongSet}, such that
+ * no key is boxed. Entries are kept in the order of insertion and can not be removed individually.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ *
+ * @param <V> type of the values
+ */
+public class LongMap<V> {
+  private final LongSet keys;
+  private final List<V> values;
+
+  /**
+   * Initializes an empty map.
+   */
+  public LongMap() {
+    keys = new LongSet();
+    values = new ArrayList<>();
+  }
+
+  /**
+   * Initializes an empty map.
+   *
+   * @param expectedSize number of entries that can be added without resizing
+   */
+  public LongMap(int expectedSize) {
+    keys = new LongSet(expectedSize);
+    values = new ArrayList<>(expectedSize);
+  }
+
+  /**
+   * Returns the value associated with a key.
+   *
+   * @param key the key
+   * @return the value or {@code null} if there is no such entry
+   */
+  public V get(long key) {
+    int index = keys.indexOf(key);
+
+    return index == -1 ? null : values.get(index);
+  }
+
+  /**
+   * Associates a value with a key. Any previously associated value is replaced.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the previously associated value or {@code null} if there is none
+   */
+  public V put(long key, V value) {
+    int index = keys.indexOf(key);
+    V result = null;
+
+    if (index == -1) {
+      keys.add(key);
+      values.add(value);
+    } else {
+      result = values.set(index, value);
+    }
+
+    return result;
+  }
+
+  public boolean containsKey(long key) {
+    return keys.contains(key);
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  /**
+   * Returns a key by its index in the order of insertion.
+   *
+   * @param index the index
+   * @return the key
+   */
+  public long getKey(int index) {
+    return keys.get(index);
+  }
+
+  /**
+   * Returns a value by its index in the order of insertion.
+   *
+   * @param index the index
+   * @return the value
+   */
+  public V getValue(int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    keys.clear();
+    values.clear();
+  }
+}
@@ -0,0 +1,167 @@
+package proof.util;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive long values based on open addressing with linear probing. Avoids boxing and
+ * the per-entry allocations of {@link java.util.HashSet}. Used for packed keys like
+ * {@link proof.data.CrossingIndex#pack()}. Values are kept in the order of insertion and can be
+ * accessed by their dense index. Values can not be removed individually.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LongSet {
+  private static final int MIN_CAPACITY = 16;
+
+  /**
+   * All values in order of insertion.
+   */
+  private long[] values;
+
+  /**
+   * The hash table, each slot is either empty ({@code 0}) or refers to the value at the stored
+   * index minus one. The capacity is a power of two and at least twice the number of values.
+   */
+  private int[] slots;
+  private int size = 0;
+
+  /**
+   * Initializes an empty set.
+   */
+  public LongSet() {
+    this(MIN_CAPACITY / 2);
+  }
+
+  /**
+   * Initializes an empty set.
+   *
+   * @param expectedSize number of values that can be added without resizing
+   */
+  public LongSet(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+
+    while (capacity < 2 * expectedSize) {
+      capacity *= 2;
+    }
+
+    values = new long[capacity / 2];
+    slots = new int[capacity];
+  }
+
+  /**
+   * Mixes all bits of a key (see the finalizer of MurmurHash3). In contrast to
+   * {@link Long#hashCode(long)}, keys differing in few bits only are spread evenly.
+   *
+   * @param key the key
+   * @return the hash of the key
+   */
+  public static int hash(long key) {
+    long result = key;
+    result ^= result >>> 33;
+    result *= 0xff51afd7ed558ccdL;
+    result ^= result >>> 33;
+    result *= 0xc4ceb9fe1a85ec53L;
+    result ^= result >>> 33;
+
+    return (int) result;
+  }
+
+  /**
+   * Adds a value unless it is already contained.
+   *
+   * @param value the value
+   * @return {@code true} iff the value was not contained before
+   */
+  public boolean add(long value) {
+    int slot = findSlot(value);
+    boolean result = slots[slot] == 0;
+
+    if (result) {
+      if (2 * (size + 1) > slots.length) {
+        resize();
+        slot = findSlot(value);
+      }
+
+      values[size++] = value;
+      slots[slot] = size;
+    }
+
+    return result;
+  }
+
+  public boolean contains(long value) {
+    return slots[findSlot(value)] != 0;
+  }
+
+  /**
+   * Returns the index of a value in the order of insertion.
+   *
+   * @param value the value
+   * @return the index or {@code -1} if the value is not contained
+   */
+  public int indexOf(long value) {
+    return slots[findSlot(value)] - 1;
+  }
+
+  /**
+   * Returns a value by its index in the order of insertion.
+   *
+   * @param index the index
+   * @return the value
+   */
+  public long get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Invalid index: " + index);
+    }
+
+    return values[index];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes all values. The capacity is retained.
+   */
+  public void clear() {
+    Arrays.fill(slots, 0);
+    size = 0;
+  }
+
+  /**
+   * Returns the slot containing the value or the empty slot the value would be stored in.
+   *
+   * @param value the value
+   * @return index of the slot
+   */
+  private int findSlot(long value) {
+    int mask = slots.length - 1;
+    int result = hash(value) & mask;
+
+    while (slots[result] != 0 && values[slots[result] - 1] != value) {
+      result = (result + 1) & mask;
+    }
+
+    return result;
+  }
+
+  /**
+   * Doubles the capacity and re-inserts all values.
+   */
+  private void resize() {
+    values = Arrays.copyOf(values, slots.length);
+    slots = new int[2 * slots.length];
+    int mask = slots.length - 1;
+
+    for (int i = 0; i < size; i++) {
+      int slot = hash(values[i]) & mask;
+
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+
+      slots[slot] = i + 1;
+    }
+  }
+}
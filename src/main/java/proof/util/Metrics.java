@@ -0,0 +1,413 @@
+package proof.util;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the time spent in each phase of the validation as well as some counters, separately for
+ * each leaf. Aggregated over all leaves, the timings are summarized by their quantiles. The metrics
+ * can be written in JSON and in the Prometheus text exposition format.
+ *
+ * <p>
+ * Leaves are identified by their index in the log. Since each leaf is validated by a single thread,
+ * the current leaf is kept per thread (see {@link #setCurrentLeaf(int)}). Values recorded by a
+ * thread without any current leaf are ignored. All methods are thread-safe.
+ * </p>
+ *
+ * <p>
+ * Metrics that are not written anyway should be disabled (see {@link #Metrics(boolean)}), such
+ * that recording values neither allocates any memory nor contends for any lock.
+ * </p>
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class Metrics {
+  /**
+   * Prefix of all metrics in the Prometheus text exposition format.
+   */
+  private static final String PREFIX = "ocm_validator_";
+
+  /**
+   * Quantiles to be reported for each phase.
+   */
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+  /**
+   * Timed phases of validating a single leaf.
+   */
+  public enum Phase {
+    /**
+     * Reading the leaf from the log, only measured while streaming.
+     */
+    PARSE,
+
+    /**
+     * Reading and validating all Kuratowski constraints.
+     */
+    CONSTRAINTS,
+
+    /**
+     * Generating the linear program.
+     */
+    GENERATION,
+
+    /**
+     * Writing the linear program to a file, not measured if the program is streamed to the solver.
+     */
+    WRITE,
+
+    /**
+     * Solving the linear program, excluding writing it unless it is streamed to the solver.
+     */
+    SOLVE,
+
+    /**
+     * Validating the leaf as a whole, excluding parsing it.
+     */
+    LEAF
+  }
+
+  /**
+   * Counted quantities of a single leaf.
+   */
+  public enum Counter {
+    CONSTRAINTS, ROWS, COLUMNS, CACHE_HITS
+  }
+
+  /**
+   * Recorded values per leaf. Each array contains the nanoseconds per phase, {@code -1} if not
+   * measured, followed by the value of each counter.
+   */
+  private final Map<Integer, long[]> leaves = new TreeMap<>();
+  private final ThreadLocal<Integer> currentLeaf = new ThreadLocal<>();
+  private final boolean enabled;
+
+  /**
+   * Creates new enabled metrics.
+   */
+  public Metrics() {
+    this(true);
+  }
+
+  /**
+   * Creates new metrics.
+   *
+   * @param enabled {@code false} to ignore all recorded values
+   */
+  public Metrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Sets the leaf all values recorded by the calling thread are attributed to.
+   *
+   * @param leaf index of the leaf
+   */
+  public void setCurrentLeaf(int leaf) {
+    if (enabled) {
+      currentLeaf.set(leaf);
+    }
+  }
+
+  /**
+   * Adds the duration of a phase to a specific leaf.
+   *
+   * @param leaf index of the leaf
+   * @param phase the phase
+   * @param nanos duration in nanoseconds
+   */
+  public void record(int leaf, Phase phase, long nanos) {
+    if (enabled) {
+      synchronized (this) {
+        long[] values = getValues(leaf);
+        values[phase.ordinal()] = Math.max(values[phase.ordinal()], 0) + nanos;
+      }
+    }
+  }
+
+  /**
+   * Adds the time elapsed since the given start to the current leaf of the calling thread.
+   *
+   * @param phase the phase
+   * @param start start of the phase as given by {@link System#nanoTime()}
+   */
+  public void recordSince(Phase phase, long start) {
+    long nanos = System.nanoTime() - start;
+    Integer leaf = currentLeaf.get();
+
+    if (leaf != null) {
+      record(leaf, phase, nanos);
+    }
+  }
+
+  /**
+   * Increases a counter of the current leaf of the calling thread.
+   *
+   * @param counter the counter
+   * @param amount value to be added
+   */
+  public void count(Counter counter, long amount) {
+    Integer leaf = enabled ? currentLeaf.get() : null;
+
+    if (leaf != null) {
+      synchronized (this) {
+        getValues(leaf)[Phase.values().length + counter.ordinal()] += amount;
+      }
+    }
+  }
+
+  /**
+   * Returns the recorded duration of a phase.
+   *
+   * @param leaf index of the leaf
+   * @param phase the phase
+   * @return duration in nanoseconds or {@code -1} if not recorded
+   */
+  public synchronized long getNanos(int leaf, Phase phase) {
+    long[] values = leaves.get(leaf);
+
+    return values == null ? -1 : values[phase.ordinal()];
+  }
+
+  /**
+   * Returns the value of a counter.
+   *
+   * @param leaf index of the leaf
+   * @param counter the counter
+   * @return the value
+   */
+  public synchronized long getCount(int leaf, Counter counter) {
+    long[] values = leaves.get(leaf);
+
+    return values == null ? 0 : values[Phase.values().length + counter.ordinal()];
+  }
+
+  /**
+   * Writes all metrics in JSON to the given file and in the Prometheus text exposition format to
+   * a separate file with the additional extension {@code .prom}.
+   *
+   * @param file target of the JSON metrics
+   * @throws IOException if writing to any of the files fails
+   */
+  public void write(Path file) throws IOException {
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writeJson(out);
+    }
+
+    try (Writer out =
+        Files.newBufferedWriter(Paths.get(file + ".prom"), StandardCharsets.UTF_8)) {
+      writePrometheus(out);
+    }
+  }
+
+  /**
+   * Writes all metrics as a single JSON object. Per leaf, durations are given in nanoseconds. The
+   * summary contains the total of each counter and the quantiles of each phase over all leaves.
+   *
+   * @param out target of the metrics
+   * @throws IOException if writing to the output fails
+   */
+  public synchronized void writeJson(Writer out) throws IOException {
+    JSONArray jsonLeaves = new JSONArray();
+
+    for (Map.Entry<Integer, long[]> entry : leaves.entrySet()) {
+      JSONObject jsonLeaf = new JSONObject();
+      jsonLeaf.put("leaf", entry.getKey());
+
+      for (Phase phase : Phase.values()) {
+        if (entry.getValue()[phase.ordinal()] >= 0) {
+          jsonLeaf.put(getName(phase) + "Nanos", entry.getValue()[phase.ordinal()]);
+        }
+      }
+
+      for (Counter counter : Counter.values()) {
+        jsonLeaf.put(getName(counter), entry.getValue()[Phase.values().length + counter.ordinal()]);
+      }
+
+      jsonLeaves.put(jsonLeaf);
+    }
+
+    JSONObject phases = new JSONObject();
+
+    for (Phase phase : Phase.values()) {
+      long[] values = collect(phase);
+
+      if (values.length > 0) {
+        JSONObject jsonPhase = new JSONObject();
+        jsonPhase.put("count", values.length);
+        jsonPhase.put("sumNanos", sum(values));
+        jsonPhase.put("minNanos", values[0]);
+        jsonPhase.put("maxNanos", values[values.length - 1]);
+
+        for (double quantile : QUANTILES) {
+          jsonPhase.put("p" + Math.round(100 * quantile) + "Nanos", getQuantile(values, quantile));
+        }
+
+        phases.put(getName(phase), jsonPhase);
+      }
+    }
+
+    JSONObject counters = new JSONObject();
+
+    for (Counter counter : Counter.values()) {
+      counters.put(getName(counter), getTotal(counter));
+    }
+
+    JSONObject result = new JSONObject();
+    result.put("leaves", jsonLeaves);
+    result.put("phases", phases);
+    result.put("counters", counters);
+    out.write(result.toString(2));
+    out.write('\n');
+    out.flush();
+  }
+
+  /**
+   * Writes all aggregated metrics in the Prometheus text exposition format. The durations of all
+   * phases form a single summary in seconds, labeled by the phase. Each counter is written as a
+   * separate metric.
+   *
+   * @param out target of the metrics
+   * @throws IOException if writing to the output fails
+   */
+  public synchronized void writePrometheus(Writer out) throws IOException {
+    String name = PREFIX + "phase_seconds";
+    out.write("# HELP " + name + " Time spent per leaf in each phase of the validation.\n");
+    out.write("# TYPE " + name + " summary\n");
+
+    for (Phase phase : Phase.values()) {
+      long[] values = collect(phase);
+      String label = "phase=\"" + getName(phase) + "\"";
+
+      if (values.length > 0) {
+        for (double quantile : QUANTILES) {
+          out.write(name + "{" + label + ",quantile=\"" + quantile + "\"} "
+              + toSeconds(getQuantile(values, quantile)) + "\n");
+        }
+
+        out.write(name + "_sum{" + label + "} " + toSeconds(sum(values)) + "\n");
+        out.write(name + "_count{" + label + "} " + values.length + "\n");
+      }
+    }
+
+    for (Counter counter : Counter.values()) {
+      name = PREFIX + counter.name().toLowerCase(Locale.ROOT) + "_total";
+      out.write("# HELP " + name + " Total number of "
+          + counter.name().toLowerCase(Locale.ROOT).replace('_', ' ') + " over all leaves.\n");
+      out.write("# TYPE " + name + " counter\n");
+      out.write(name + " " + getTotal(counter) + "\n");
+    }
+
+    out.flush();
+  }
+
+  /**
+   * Returns the values recorded for a leaf, creating them if necessary.
+   *
+   * @param leaf index of the leaf
+   * @return the values
+   */
+  private long[] getValues(int leaf) {
+    long[] result = leaves.get(leaf);
+
+    if (result == null) {
+      result = new long[Phase.values().length + Counter.values().length];
+      Arrays.fill(result, 0, Phase.values().length, -1);
+      leaves.put(leaf, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Collects the durations of a phase over all leaves it has been recorded for.
+   *
+   * @param phase the phase
+   * @return the durations in ascending order
+   */
+  private long[] collect(Phase phase) {
+    long[] result = new long[leaves.size()];
+    int size = 0;
+
+    for (long[] values : leaves.values()) {
+      if (values[phase.ordinal()] >= 0) {
+        result[size++] = values[phase.ordinal()];
+      }
+    }
+
+    result = Arrays.copyOf(result, size);
+    Arrays.sort(result);
+
+    return result;
+  }
+
+  private long getTotal(Counter counter) {
+    long result = 0;
+
+    for (long[] values : leaves.values()) {
+      result += values[Phase.values().length + counter.ordinal()];
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns a quantile by the nearest-rank method.
+   *
+   * @param values non-empty array in ascending order
+   * @param quantile the quantile within {@code (0,1]}
+   * @return the smallest value such that at least the given fraction of values is not greater
+   */
+  static long getQuantile(long[] values, double quantile) {
+    int rank = (int) Math.ceil(quantile * values.length);
+
+    return values[Math.max(rank, 1) - 1];
+  }
+
+  private static long sum(long[] values) {
+    long result = 0;
+
+    for (long value : values) {
+      result += value;
+    }
+
+    return result;
+  }
+
+  private static String toSeconds(long nanos) {
+    return Double.toString(nanos / 1e9);
+  }
+
+  /**
+   * Converts the name of a constant to camel case, e.g. {@code CACHE_HITS} to {@code cacheHits}.
+   *
+   * @param constant the constant
+   * @return the name in camel case
+   */
+  private static String getName(Enum<?> constant) {
+    StringBuilder result = new StringBuilder();
+    boolean upper = false;
+
+    for (char c : constant.name().toLowerCase(Locale.ROOT).toCharArray()) {
+      if (c == '_') {
+        upper = true;
+      } else {
+        result.append(upper ? Character.toUpperCase(c) : c);
+        upper = false;
+      }
+    }
+
+    return result.toString();
+  }
+}
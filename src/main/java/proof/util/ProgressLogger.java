@@ -3,7 +3,8 @@ package proof.util;
 import java.io.PrintStream;
 
 /**
- * Global logger. Keeps track of the progress of the validation.
+ * Global logger. Keeps track of the progress of the validation. All methods are synchronized since
+ * leaves might be validated concurrently.
  *
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
@@ -30,7 +31,7 @@ public class ProgressLogger {
    *
    * @param maxProgress progress to reach until finished
    */
-  public void reset(int maxProgress) {
+  public synchronized void reset(int maxProgress) {
     if (maxProgress < 1) {
       throw new IllegalArgumentException("Size must be greater zero.");
     }
@@ -39,12 +40,26 @@ public class ProgressLogger {
     this.progress = 0;
   }
 
+  /**
+   * Increases the progress to reach until finished. Used if the total progress is not known in
+   * advance.
+   *
+   * @param additionalProgress progress to be added to the maximum
+   */
+  public synchronized void expand(int additionalProgress) {
+    if (additionalProgress < 0) {
+      throw new IllegalArgumentException("Progress must not decrease.");
+    }
+
+    maxProgress += additionalProgress;
+  }
+
   /**
    * Prints a (multi-line) message even when {@link #verbose} is disabled.
    *
    * @param message message to be printed
    */
-  public void println(String message) {
+  public synchronized void println(String message) {
     out.println("\r" + message);
   }
 
@@ -53,7 +68,7 @@ public class ProgressLogger {
    *
    * @param message line to be printed
    */
-  public void print(String message) {
+  public synchronized void print(String message) {
     if (verbose) {
       out.println("[" + String.format("%3d%%", (progress * 99) / maxProgress) + "] " + message);
     } else {
@@ -68,7 +83,7 @@ public class ProgressLogger {
    *
    * @param message line to be printed
    */
-  public void progress(String message) {
+  public synchronized void progress(String message) {
     progress();
     print(message);
   }
@@ -76,7 +91,7 @@ public class ProgressLogger {
   /**
    * Increases the current progress.
    */
-  public void progress() {
+  public synchronized void progress() {
     progress++;
 
     if (progress > maxProgress) {
@@ -48,6 +48,7 @@ public class Statistics extends HashMap<String, Integer> {
 
   @Override
   public void clear() {
+    super.clear();
     maxTitleLength = 0;
     maxValue = 0;
   }
@@ -3,19 +3,20 @@ package proof.validator;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import proof.data.CrossingIndex;
+import proof.data.Assignment;
 import proof.data.Graph;
 import proof.data.reader.VariablesReader;
 import proof.exception.ExceptionHelper;
 import proof.exception.InvalidCoverageException;
 import proof.exception.ReaderException;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Validates the fixed variables of all leaves. The set of all leaves must completely cover the
@@ -24,21 +25,23 @@ import java.util.Map;
  * there are no ambiguities caused by multiple leaves reporting the same or overlapping
  * configurations.
  *
+ * <p>
+ * While a log is being streamed, leaves are {@link #add(Assignment) added} one at a time and merged
+ * with their siblings right away. Since the OCM logger reports the leaves in depth-first order of
+ * the branch tree, only the unmatched siblings along the current branch are kept in memory.
+ * </p>
+ *
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
 public class BranchCoverageValidator implements Validator<JSONArray> {
   private final VariablesReader variablesReader;
 
   /**
-   * Used to sort the leaves in descending number of branching variables.
+   * Leaves added so far that have not been merged yet, indexed by each of their variables.
    */
-  static final Comparator<Map<CrossingIndex, Boolean>> LEAF_COMPARATOR =
-      new Comparator<Map<CrossingIndex, Boolean>>() {
-    @Override
-    public int compare(Map<CrossingIndex, Boolean> vars1, Map<CrossingIndex, Boolean> vars2) {
-      return vars2.size() - vars1.size();
-    }
-  };
+  private final Map<Sibling, Leaf> unmatched = new HashMap<>();
+  private final Set<Leaf> unmatchedLeaves = new HashSet<>();
+  private boolean empty = true;
 
   /**
    * Creates a new coverage validator.
@@ -54,23 +57,25 @@ public class BranchCoverageValidator implements Validator<JSONArray> {
    */
   @Override
   public void validate(JSONArray leaves) throws InvalidCoverageException {
-    List<Map<CrossingIndex, Boolean>> parsedVariables =
-        new LinkedList<Map<CrossingIndex, Boolean>>();
+    List<Assignment> parsedVariables = new LinkedList<Assignment>();
 
     // collect the fixed variables of each leaf
     for (int i = 0; i < leaves.length(); i++) {
-      JSONObject leaf = leaves.getJSONObject(i);
-
-      JSONArray jsonVars = leaf.getJSONArray("fixedVariables");
-      try {
-        Map<CrossingIndex, Boolean> variablesOfLeaf = variablesReader.read(jsonVars);
-        parsedVariables.add(variablesOfLeaf);
-      } catch (ReaderException e) {
-        throw ExceptionHelper.wrap(e, new InvalidCoverageException(
-            "Encountered invalid variable indices."));
-      }
+      parsedVariables.add(read(leaves.getJSONObject(i)));
     }
 
+    validate(parsedVariables);
+  }
+
+  /**
+   * Validates the fixed variables of all leaves as returned by {@link #read(JSONObject)}. The list
+   * will be modified.
+   *
+   * @param parsedVariables fixed variables of each leaf
+   * @throws InvalidCoverageException if the leaves do not cover all configurations exactly once
+   */
+  public void validate(List<Assignment> parsedVariables)
+      throws InvalidCoverageException {
     if (parsedVariables.isEmpty()) {
       throw new InvalidCoverageException("Could not find any leaves.");
     }
@@ -78,76 +83,242 @@ public class BranchCoverageValidator implements Validator<JSONArray> {
     mergeAllLeaves(parsedVariables);
   }
 
+  /**
+   * Adds the fixed variables of a single leaf as returned by {@link #read(JSONObject)}. The leaf is
+   * merged with its sibling as soon as both have been added, merged leaves are added again. The
+   * assignment will be modified.
+   *
+   * @param vars fixed variables of the leaf
+   * @throws InvalidCoverageException if the leaf overlaps with another leaf
+   */
+  public void add(Assignment vars) throws InvalidCoverageException {
+    empty = false;
+    Leaf leaf = new Leaf(vars);
+    int var = vars.nextFixed(0);
+
+    while (var != -1) {
+      Leaf sibling = unmatched.get(new Sibling(leaf, var));
+
+      if (sibling == null) {
+        var = vars.nextFixed(var + 1);
+      } else if (sibling.vars.getValue(var) == vars.getValue(var)) {
+        throw new InvalidCoverageException("Could not merge all leaves.");
+      } else {
+        for (int other = sibling.vars.nextFixed(0); other != -1; other = sibling.vars
+            .nextFixed(other + 1)) {
+          unmatched.remove(new Sibling(sibling, other));
+        }
+
+        unmatchedLeaves.remove(sibling);
+        vars.release(var);
+        leaf = new Leaf(vars);
+        var = vars.nextFixed(0);
+      }
+    }
+
+    for (var = vars.nextFixed(0); var != -1; var = vars.nextFixed(var + 1)) {
+      unmatched.put(new Sibling(leaf, var), leaf);
+    }
+
+    unmatchedLeaves.add(leaf);
+  }
+
+  /**
+   * Validates the coverage of all leaves {@link #add(Assignment) added} so far. The leaves that
+   * could not be merged while being added are merged once more regardless of their order. Resets
+   * this validator afterwards.
+   *
+   * @throws InvalidCoverageException if the leaves do not cover all configurations exactly once
+   */
+  public void finish() throws InvalidCoverageException {
+    if (empty) {
+      throw new InvalidCoverageException("Could not find any leaves.");
+    }
+
+    List<Assignment> parsedVariables = new ArrayList<>(unmatchedLeaves.size());
+
+    for (Leaf leaf : unmatchedLeaves) {
+      parsedVariables.add(leaf.vars);
+    }
+
+    unmatched.clear();
+    unmatchedLeaves.clear();
+    empty = true;
+    mergeAllLeaves(parsedVariables);
+  }
+
+  /**
+   * Reads the fixed variables of a single leaf. Used to collect the variables of all leaves while
+   * the log is being streamed.
+   *
+   * @param leaf JSON object describing the leaf
+   * @return the fixed variables of the leaf
+   * @throws InvalidCoverageException if any variable is invalid
+   */
+  public Assignment read(JSONObject leaf) throws InvalidCoverageException {
+    JSONArray jsonVars = leaf.getJSONArray("fixedVariables");
+
+    try {
+      return variablesReader.read(jsonVars);
+    } catch (ReaderException e) {
+      throw ExceptionHelper.wrap(e, new InvalidCoverageException(
+          "Encountered invalid variable indices."));
+    }
+  }
+
   /**
    * Tries to merge matching leaves until there is only one leaf with no fixed variables left. If
    * this can not be achieved, the leaves are either overlapping or not all of the variables are
    * covered.
    *
+   * <p>
+   * Leaves are processed in descending order of their depth (i.e. number of fixed variables). Each
+   * of the deepest leaves must have a sibling of the same depth that differs by the value of a
+   * single variable. Siblings are found by hashing each leaf once for every variable, omitting
+   * that variable. Merged leaves are moved to the next level.
+   * </p>
+   *
    * @param parsedVariables fixed variables of each branch
    */
-  private void mergeAllLeaves(List<Map<CrossingIndex, Boolean>> parsedVariables)
-      throws InvalidCoverageException {
-    // sort the leaves by number of variables
-    Collections.sort(parsedVariables, LEAF_COMPARATOR);
+  private void mergeAllLeaves(List<Assignment> parsedVariables) throws InvalidCoverageException {
+    // bucket the leaves by number of variables
+    int maxDepth = 0;
+
+    for (Assignment leaf : parsedVariables) {
+      maxDepth = Math.max(maxDepth, leaf.size());
+    }
+
+    List<List<Leaf>> levels = new ArrayList<>(maxDepth + 1);
+
+    for (int depth = 0; depth <= maxDepth; depth++) {
+      levels.add(new ArrayList<Leaf>());
+    }
+
+    for (Assignment vars : parsedVariables) {
+      levels.get(vars.size()).add(new Leaf(vars));
+    }
+
+    int remaining = parsedVariables.size();
 
     // merge all leaves that differ by the value of a single variable
-    while (parsedVariables.size() > 1) {
-      int size = parsedVariables.get(0).size();
-      boolean merged = false;
+    for (int depth = maxDepth; depth > 0; depth--) {
+      Map<Sibling, Leaf> unmatched = new HashMap<>();
+
+      for (Leaf leaf : levels.get(depth)) {
+        Leaf sibling = null;
+        int branchVariable = leaf.vars.nextFixed(0);
+
+        while (branchVariable != -1) {
+          sibling = unmatched.get(new Sibling(leaf, branchVariable));
+
+          if (sibling != null && !sibling.merged) {
+            break;
+          }
 
-      for (int i = 1; !merged && i < parsedVariables.size(); i++) {
-        if (parsedVariables.get(i).size() == size) {
-          merged = mergeIfPossible(parsedVariables, 0, i);
+          sibling = null;
+          branchVariable = leaf.vars.nextFixed(branchVariable + 1);
+        }
+
+        if (sibling == null) {
+          for (int var = leaf.vars.nextFixed(0); var != -1; var = leaf.vars.nextFixed(var + 1)) {
+            unmatched.put(new Sibling(leaf, var), leaf);
+          }
+        } else if (sibling.vars.getValue(branchVariable) == leaf.vars.getValue(branchVariable)) {
+          throw new InvalidCoverageException("Could not merge all leaves.");
+        } else {
+          sibling.merged = true;
+          leaf.vars.release(branchVariable);
+          levels.get(depth - 1).add(new Leaf(leaf.vars));
+          remaining--;
         }
       }
 
-      if (!merged) {
-        throw new InvalidCoverageException("Could not merge all leaves.");
+      for (Leaf leaf : unmatched.values()) {
+        if (!leaf.merged) {
+          throw new InvalidCoverageException(remaining == 1
+              ? "Some variables remain uncovered after merging all leaves."
+              : "Could not merge all leaves.");
+        }
       }
+
+      levels.set(depth, null);
     }
 
     // check there is exactly one leaf remaining, covering all variables
-    if (!parsedVariables.get(0).isEmpty()) {
-      throw new InvalidCoverageException(
-          "Some variables remain uncovered after merging all leaves.");
+    if (remaining != 1) {
+      throw new InvalidCoverageException("Could not merge all leaves.");
     }
   }
 
   /**
-   * Tries to merge the leaves contained at {@code i} and {@code j}. The leaves will be merged if
-   * they differ by the assignment of a single variable. Will remove one of the merged leaves and
-   * alter the other one upon success.
-   *
-   * @param leaves list of all leaves
-   * @param firstLeaf first leaf index
-   * @param secondLeaf second leaf index
-   * @return {@code true} iff the leaves were successfully merged
+   * The fixed variables of a single leaf, along with a hash of all assigned values. The hash is
+   * the sum over all fixed variables, such that a single variable can be omitted in constant time.
    */
-  private boolean mergeIfPossible(List<Map<CrossingIndex, Boolean>> leaves, int firstLeaf,
-      int secondLeaf) {
-    boolean result = true;
-    Map<CrossingIndex, Boolean> varsA = leaves.get(firstLeaf);
-    Map<CrossingIndex, Boolean> varsB = leaves.get(secondLeaf);
-    CrossingIndex branchVariable = null;
-    Iterator<CrossingIndex> it = varsA.keySet().iterator();
-
-    while (result && it.hasNext()) {
-      CrossingIndex ci = it.next();
-      result &= varsB.containsKey(ci);
-
-      if (varsA.get(ci) != varsB.get(ci)) {
-        result = branchVariable == null;
-        branchVariable = ci;
+  private static class Leaf {
+    final Assignment vars;
+    final int hash;
+    boolean merged = false;
+
+    Leaf(Assignment vars) {
+      this.vars = vars;
+
+      int sum = 0;
+      for (int var = vars.nextFixed(0); var != -1; var = vars.nextFixed(var + 1)) {
+        sum += hash(var, vars.getValue(var));
       }
+
+      hash = sum;
+    }
+
+    static int hash(int var, boolean value) {
+      return mix(2 * var + (value ? 1 : 0));
+    }
+
+    /**
+     * Scrambles the bits of the value (finalization step of MurmurHash3).
+     */
+    static int mix(int value) {
+      int result = value;
+      result ^= result >>> 16;
+      result *= 0x85ebca6b;
+      result ^= result >>> 13;
+      result *= 0xc2b2ae35;
+      result ^= result >>> 16;
+      return result;
+    }
+  }
+
+  /**
+   * Identifies a leaf without one of its variables. Two leaves with the same variables are
+   * siblings iff they are equal when omitting the branch variable.
+   */
+  private static class Sibling {
+    private final Leaf leaf;
+    private final int branchVariable;
+    private final int hash;
+
+    Sibling(Leaf leaf, int branchVariable) {
+      this.leaf = leaf;
+      this.branchVariable = branchVariable;
+      hash = leaf.hash - Leaf.hash(branchVariable, leaf.vars.getValue(branchVariable))
+          + Leaf.mix(-1 - branchVariable);
     }
 
-    if (result) {
-      varsA.remove(branchVariable);
-      leaves.remove(varsB);
-      // shift varsA to the right
-      Collections.sort(leaves, LEAF_COMPARATOR);
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Sibling)) {
+        return false;
+      }
+
+      Sibling sibling = (Sibling) other;
+
+      return hash == sibling.hash && branchVariable == sibling.branchVariable
+          && leaf.vars.equalsExcept(sibling.leaf.vars, branchVariable);
     }
 
-    return result;
+    @Override
+    public int hashCode() {
+      return hash;
+    }
   }
 }
@@ -0,0 +1,134 @@
+package proof.validator;
+
+import org.json.JSONArray;
+
+import proof.data.Graph;
+import proof.data.KuratowskiConstraint;
+import proof.data.reader.ConstraintReader;
+import proof.exception.InvalidProofException;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads and validates a range of Kuratowski constraints of a single leaf within a
+ * {@link java.util.concurrent.ForkJoinPool}. Ranges are split in halves until they are small enough
+ * to be validated sequentially. Each sub task uses its own {@link ConstraintReader} and
+ * {@link ConstraintValidator}, which only share the immutable graph.
+ *
+ * <p>
+ * The reported failure is always the one of the lowest invalid constraint, regardless of the order
+ * of completion: Once a constraint is found to be invalid, all constraints of higher index are
+ * skipped, but those of lower index are still validated.
+ * </p>
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+class ConstraintTask extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Maximum number of constraints to be validated without splitting the range.
+   */
+  static final int THRESHOLD = 16;
+
+  private final Graph graph;
+  private final JSONArray constraints;
+  private final KuratowskiConstraint[] result;
+  private final int begin;
+  private final int end;
+
+  /**
+   * Index of the lowest invalid constraint found so far by any task of the same leaf.
+   */
+  private final AtomicInteger firstFailure;
+  private int failure = -1;
+  private InvalidProofException exception = null;
+
+  /**
+   * Creates a new task for all constraints of a leaf.
+   *
+   * @param graph underlying non-expanded graph
+   * @param constraints JSON array of all Kuratowski constraints
+   * @param result target of the read constraints, must have the length of the JSON array
+   */
+  ConstraintTask(Graph graph, JSONArray constraints, KuratowskiConstraint[] result) {
+    this(graph, constraints, result, 0, constraints.length(),
+        new AtomicInteger(constraints.length()));
+  }
+
+  private ConstraintTask(Graph graph, JSONArray constraints, KuratowskiConstraint[] result,
+      int begin, int end, AtomicInteger firstFailure) {
+    this.graph = graph;
+    this.constraints = constraints;
+    this.result = result;
+    this.begin = begin;
+    this.end = end;
+    this.firstFailure = firstFailure;
+  }
+
+  @Override
+  protected void compute() {
+    if (end - begin <= THRESHOLD) {
+      validateSequentially();
+    } else {
+      int middle = (begin + end) >>> 1;
+      ConstraintTask left =
+          new ConstraintTask(graph, constraints, result, begin, middle, firstFailure);
+      ConstraintTask right =
+          new ConstraintTask(graph, constraints, result, middle, end, firstFailure);
+      invokeAll(left, right);
+
+      ConstraintTask first = left.failure != -1 ? left : right;
+      failure = first.failure;
+      exception = first.exception;
+    }
+  }
+
+  /**
+   * Returns the index of the lowest invalid constraint. Must not be called before the task is
+   * completed.
+   *
+   * @return the index or {@code -1} if all constraints are valid
+   */
+  int getFailure() {
+    return failure;
+  }
+
+  /**
+   * Returns the reason why the lowest invalid constraint is invalid.
+   *
+   * @return the exception or {@code null} if all constraints are valid
+   */
+  InvalidProofException getFailureCause() {
+    return exception;
+  }
+
+  /**
+   * Validates the range of this task one constraint after another, stopping at the first invalid
+   * one.
+   */
+  private void validateSequentially() {
+    ConstraintReader reader = new ConstraintReader(graph);
+    ConstraintValidator validator = new ConstraintValidator(graph);
+
+    for (int j = begin; j < end && j < firstFailure.get(); j++) {
+      try {
+        KuratowskiConstraint constraint = reader.read(constraints.getJSONObject(j));
+        validator.validate(constraint);
+        result[j] = constraint;
+      } catch (InvalidProofException e) {
+        failure = j;
+        exception = e;
+
+        int current = firstFailure.get();
+
+        while (j < current && !firstFailure.compareAndSet(current, j)) {
+          current = firstFailure.get();
+        }
+
+        return;
+      }
+    }
+  }
+}
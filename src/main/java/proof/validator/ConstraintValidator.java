@@ -1,23 +1,17 @@
 package proof.validator;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
-import proof.data.CrossingIndex;
 import proof.data.Graph;
+import proof.data.KuratowskiConstraint;
 import proof.data.Path;
-import proof.data.reader.CrossingReader;
-import proof.data.reader.PathReader;
+import proof.data.reader.ConstraintReader;
 import proof.exception.ExceptionHelper;
 import proof.exception.InvalidConstraintException;
-import proof.exception.InvalidPathException;
 import proof.exception.ReaderException;
-import proof.util.Config;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Validates a single Kuratwoski Constraint. The only type of constraints included in the log are
@@ -28,8 +22,7 @@ import java.util.Set;
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
 public class ConstraintValidator implements Validator<JSONObject> {
-  private final CrossingReader crossingReader;
-  private final Graph graph;
+  private final ConstraintReader reader;
 
   /**
    * Creates a new constraint validator.
@@ -37,8 +30,7 @@ public class ConstraintValidator implements Validator<JSONObject> {
    * @param graph underlying non-expanded graph
    */
   public ConstraintValidator(Graph graph) {
-    this.graph = graph;
-    crossingReader = new CrossingReader(graph);
+    reader = new ConstraintReader(graph);
   }
 
   /**
@@ -47,48 +39,35 @@ public class ConstraintValidator implements Validator<JSONObject> {
    */
   @Override
   public void validate(JSONObject object) throws InvalidConstraintException {
-    // A constraint is considered to be relevant as long as it does not require any crossings
-    // that are currently not realizable (because of the branching)
-    // only relevant constraints are validated
-    boolean relevant = true;
-    final Set<CrossingIndex> requiredCrossings = new HashSet<CrossingIndex>();
-
-    // realize required variables
-    // override branching variables if required (should never happen but still)
-    JSONArray crossings = object.getJSONArray("requiredCrossings");
-
-    for (int i = 0; relevant && i < crossings.length(); i++) {
-      try {
-        requiredCrossings.add(crossingReader.read(crossings.getJSONArray(i)));
-      } catch (ReaderException e) {
-        throw ExceptionHelper.wrap(e, new InvalidConstraintException(
-            "Encountered infeasible crossing."));
-      }
+    KuratowskiConstraint constraint = null;
+
+    try {
+      constraint = reader.read(object);
+    } catch (ReaderException e) {
+      throw ExceptionHelper.wrap(e, new InvalidConstraintException(e.getMessage()));
     }
 
-    PathReader reader = new PathReader(graph, requiredCrossings);
-    JSONArray jsonPaths = object.getJSONArray("paths");
-    Path[] paths = new Path[jsonPaths.length()];
+    validate(constraint);
+  }
 
-    for (int i = 0; i < paths.length; i++) {
-      try {
-        Config.get().logger.print("    path " + i);
-        paths[i] = reader.read(jsonPaths.getJSONArray(i));
-      } catch (InvalidPathException e) {
-        throw ExceptionHelper.wrap(e, new InvalidConstraintException("Path " + i + " is invalid."));
-      }
-    }
+  /**
+   * Validates a single Kuratowski constraint that has already been read. Asserts that all paths are
+   * disjoint and that the constraint represents a valid K3,3 or K5.
+   *
+   * @param constraint the Kuratowski constraint
+   * @throws InvalidConstraintException if the constraint is invalid
+   */
+  public void validate(KuratowskiConstraint constraint) throws InvalidConstraintException {
+    Path[] paths = constraint.getPaths().toArray(new Path[constraint.getPaths().size()]);
+    int[] intersection = Path.findIntersection(constraint.getPaths());
 
     // paths must be disjoint
-    for (int i = 0; i < paths.length; i++) {
-      for (int j = i + 1; j < paths.length; j++) {
-        if (!paths[i].isDisjointTo(paths[j])) {
-          throw new InvalidConstraintException("Paths are not disjoint (" + i + "," + j + ").");
-        }
-      }
+    if (intersection != null) {
+      throw new InvalidConstraintException("Paths are not disjoint (" + intersection[0] + ","
+          + intersection[1] + ").");
     }
 
-    String constraintType = object.getString("type");
+    String constraintType = constraint.getType();
 
     if ("K33".equals(constraintType)) {
       validateK33(paths);
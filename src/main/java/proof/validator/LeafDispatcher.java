@@ -0,0 +1,210 @@
+package proof.validator;
+
+import org.json.JSONObject;
+
+import proof.data.Graph;
+import proof.exception.ExceptionHelper;
+import proof.exception.InvalidProofException;
+import proof.solver.Solver;
+import proof.util.Config;
+import proof.util.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Hands leaves to the {@link LeafValidator} one at a time. Leaves are either validated immediately
+ * or by a bounded pool of threads. In the latter case, results are inspected in order of the
+ * leaves, thus the reported failure is always the one of the first invalid branch, regardless of
+ * the order of completion. At most twice as many leaves as there are threads are kept pending,
+ * such that leaves can be streamed from the log.
+ *
+ * <p>
+ * Failures are not reported before {@link #finish()}, such that the caller is able to report any
+ * failure of the branch coverage first. Leaves submitted after the first invalid leaf are skipped.
+ * </p>
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+class LeafDispatcher {
+  private final Graph graph;
+  private final int threads;
+  private final ExecutorService executor;
+  private final Queue<Future<Void>> pending = new ArrayDeque<>();
+  private int submitted = 0;
+  private int finished = 0;
+
+  /**
+   * The failure of the first invalid leaf, {@code null} if all leaves have been valid so far.
+   */
+  private InvalidProofException failure = null;
+
+  /**
+   * Each thread uses its own {@link LeafValidator} and {@link Solver}. Validators are reused across
+   * leaves, such that consecutive leaves can share the generated base model.
+   */
+  private final ThreadLocal<LeafValidator> validators = new ThreadLocal<LeafValidator>() {
+    @Override
+    protected LeafValidator initialValue() {
+      Solver solver = Config.get().solver.newInstance();
+
+      synchronized (solvers) {
+        solvers.add(solver);
+      }
+
+      return new LeafValidator(graph, solver);
+    }
+  };
+
+  /**
+   * All solvers created by this dispatcher, to be closed eventually.
+   */
+  private final List<Solver> solvers = new ArrayList<>();
+  private final LeafValidator validator;
+
+  /**
+   * Creates a new dispatcher. Must be {@link #close() closed} after use.
+   *
+   * @param graph underlying non-expanded graph
+   * @param threads maximum number of leaves to be validated concurrently
+   */
+  LeafDispatcher(Graph graph, int threads) {
+    this.graph = graph;
+    this.threads = threads;
+    executor = threads == 1 ? null : Executors.newFixedThreadPool(threads);
+    validator = threads == 1 ? new LeafValidator(graph) : null;
+  }
+
+  /**
+   * Validates the next leaf. Might return before the leaf has been validated if multiple threads
+   * are used. Any failure is reported by {@link #finish()}.
+   *
+   * @param leaf JSON object describing the leaf
+   */
+  void submit(final JSONObject leaf) {
+    final int index = submitted++;
+
+    if (failure != null) {
+      // a previous leaf is invalid already
+      return;
+    } else if (executor == null) {
+      Config.get().logger.print("branch " + index);
+
+      try {
+        validate(validator, leaf, index);
+      } catch (InvalidProofException e) {
+        failure = ExceptionHelper.wrap(e, new InvalidProofException("Could not validate branch "
+            + index + "."));
+      }
+
+      finished++;
+    } else {
+      pending.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws InvalidProofException {
+          Config.get().logger.print("branch " + index);
+          validate(validators.get(), leaf, index);
+          return null;
+        }
+      }));
+
+      if (pending.size() > 2 * threads) {
+        awaitNext();
+      }
+    }
+  }
+
+  /**
+   * Waits until all submitted leaves have been validated.
+   *
+   * @throws InvalidProofException if any of the leaves is invalid
+   */
+  void finish() throws InvalidProofException {
+    while (!pending.isEmpty()) {
+      awaitNext();
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Stops all pending validations and terminates all solver sessions.
+   */
+  void close() {
+    if (executor == null) {
+      Config.get().solver.close();
+    } else {
+      executor.shutdownNow();
+
+      synchronized (solvers) {
+        for (Solver solver : solvers) {
+          solver.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Validates a single leaf. All metrics recorded meanwhile by the calling thread are attributed to
+   * this leaf.
+   *
+   * @param leafValidator validator of the calling thread
+   * @param leaf JSON object describing the leaf
+   * @param index index of the leaf
+   * @throws InvalidProofException if the leaf is invalid
+   */
+  private void validate(LeafValidator leafValidator, JSONObject leaf, int index)
+      throws InvalidProofException {
+    Metrics metrics = Config.get().metrics;
+    metrics.setCurrentLeaf(index);
+    long start = System.nanoTime();
+
+    try {
+      leafValidator.validate(leaf, index);
+    } finally {
+      metrics.recordSince(Metrics.Phase.LEAF, start);
+    }
+  }
+
+  /**
+   * Waits for the validation of the oldest pending leaf. Once any leaf is invalid, all subsequent
+   * leaves are cancelled instead.
+   */
+  private void awaitNext() {
+    int index = finished++;
+    Future<Void> next = pending.remove();
+
+    if (failure != null) {
+      next.cancel(true);
+      return;
+    }
+
+    try {
+      next.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+
+      if (cause instanceof InvalidProofException) {
+        failure = ExceptionHelper.wrap((InvalidProofException) cause, new InvalidProofException(
+            "Could not validate branch " + index + "."));
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else {
+        throw ExceptionHelper.wrap(e, new RuntimeException("Could not validate branch " + index
+            + "."));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw ExceptionHelper.wrap(e, new RuntimeException("Validation was interrupted."));
+    }
+  }
+}
@@ -5,31 +5,46 @@ import org.json.JSONObject;
 
 import proof.data.CrossingIndex;
 import proof.data.Graph;
+import proof.data.KuratowskiConstraint;
+import proof.data.reader.ConstraintReader;
 import proof.data.reader.CrossingReader;
 import proof.exception.ExceptionHelper;
 import proof.exception.InvalidProofException;
 import proof.exception.LinearProgramException;
+import proof.solver.LinearProgram;
 import proof.solver.LinearProgramGenerator;
+import proof.solver.ResultCache;
 import proof.solver.Solver;
 import proof.util.Config;
+import proof.util.Metrics;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Validates a single leaf of the branch and bound tree. All Kuratowski subdivions in the leaf are
- * validated by the {@link ConstraintValidator}. A linear program is generated by the
- * {@link LinearProgramGenerator} to validate the claimed lower bound.
+ * validated by the {@link ConstraintValidator}, optionally by multiple threads (see
+ * {@link ConstraintTask}). A linear program is generated by the {@link LinearProgramGenerator} to
+ * validate the claimed lower bound.
  *
  * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
  */
 public class LeafValidator implements Validator<JSONObject> {
+  /**
+   * Pools for validating Kuratowski constraints by parallelism, shared by all leaf validators. The
+   * worker threads of a {@link ForkJoinPool} are daemons and terminate once idle, thus the pools
+   * are never shut down.
+   */
+  private static final Map<Integer, ForkJoinPool> pools = new HashMap<>();
+
   private final Graph graph;
   private final Solver solver;
   private final LinearProgramGenerator generator;
+  private final ForkJoinPool constraintPool;
 
   /**
    * Initializes a new leaf validator.
@@ -37,13 +52,50 @@ public class LeafValidator implements Validator<JSONObject> {
    * @param graph underlying non-expanded graph
    */
   public LeafValidator(Graph graph) {
+    this(graph, Config.get().solver);
+  }
+
+  /**
+   * Initializes a new leaf validator that uses a specific solver. Required for validating leaves
+   * concurrently, since a single solver must not be shared by multiple threads.
+   *
+   * @param graph underlying non-expanded graph
+   * @param solver linear program solver to be used
+   */
+  public LeafValidator(Graph graph, Solver solver) {
+    this(graph, solver, Config.get().constraintThreads);
+  }
+
+  /**
+   * Initializes a new leaf validator that uses a specific solver and validates the Kuratowski
+   * constraints of each leaf concurrently.
+   *
+   * @param graph underlying non-expanded graph
+   * @param solver linear program solver to be used
+   * @param constraintThreads maximum number of constraints to be validated concurrently
+   */
+  public LeafValidator(Graph graph, Solver solver, int constraintThreads) {
     this.graph = graph;
+    this.solver = solver;
     generator = new LinearProgramGenerator(graph);
-    solver = Config.get().solver;
+    generator.setSparse(Config.get().sparse);
+    constraintPool = constraintThreads == 1 ? null : getPool(constraintThreads);
   }
 
   @Override
   public void validate(JSONObject leaf) throws InvalidProofException {
+    validate(leaf, -1);
+  }
+
+  /**
+   * Validates a leaf. The index of the leaf is part of the names of its linear program files, see
+   * {@link Solver#solve(LinearProgram, String)}, and of the reported failures.
+   *
+   * @param leaf JSON object describing the leaf
+   * @param index index of the leaf or {@code -1} if unknown
+   * @throws InvalidProofException if the leaf is invalid
+   */
+  public void validate(JSONObject leaf, int index) throws InvalidProofException {
     // extract branching variables
     JSONArray variables = leaf.getJSONArray("fixedVariables");
 
@@ -56,41 +108,126 @@ public class LeafValidator implements Validator<JSONObject> {
       vars.put(cross, variable.getInt("value") == 1);
     }
 
-    // validate all Kuratowski constraints
-    ConstraintValidator constraintValidator = new ConstraintValidator(graph);
+    // validate all Kuratowski constraints, each of them is read only once
+    Metrics metrics = Config.get().metrics;
+    long start = System.nanoTime();
     JSONArray constraints = leaf.getJSONArray("constraints");
+    List<KuratowskiConstraint> kuratowskiConstraints =
+        constraintPool == null ? validateConstraints(constraints)
+            : validateConstraintsConcurrently(constraints);
+    metrics.recordSince(Metrics.Phase.CONSTRAINTS, start);
+    metrics.count(Metrics.Counter.CONSTRAINTS, kuratowskiConstraints.size());
+
+    // validate the claimed lower bound
+    Config.get().logger.print("  generate linear program");
+    start = System.nanoTime();
+    LinearProgram program = generator.createLinearProgram(vars, leaf, kuratowskiConstraints);
+    metrics.recordSince(Metrics.Phase.GENERATION, start);
+    metrics.count(Metrics.Counter.ROWS, program.getNumberOfRows());
+    metrics.count(Metrics.Counter.COLUMNS, program.getNumberOfColumns());
+    Config.get().logger.print("  solve linear program");
+
+    ResultCache cache = Config.get().cache;
+    String key = cache == null ? null : ResultCache.getKey(program, solver);
+    Double lowerBound = key == null ? null : cache.get(key, solver);
+    String label = index == -1 ? "leaf" : ("leaf " + index);
+    String source = "cached result of " + label;
+
+    if (lowerBound == null) {
+      lowerBound = solver.solve(program, index == -1 ? "leaf-" : ("leaf" + index + "-"));
+      // only kept files can be inspected, pipes and other temporary files are gone already
+      source = solver.isKeepFiles() && solver.getFilename() != null ? solver.getFilename() : label;
+
+      if (key != null) {
+        cache.put(key, solver, lowerBound);
+      }
+    } else {
+      Config.get().logger.print("  reuse cached result");
+      metrics.count(Metrics.Counter.CACHE_HITS, 1);
+    }
+
+    int expected = graph.getClaimedLowerBound();
+
+    if (Math.ceil(lowerBound) < expected) {
+      throw new LinearProgramException(solver, source, "Lower bound is too small: " + lowerBound
+          + " instead of " + expected + ".");
+    }
+  }
+
+  /**
+   * Reads and validates all Kuratowski constraints of a leaf one after another.
+   *
+   * @param constraints JSON array of all constraints
+   * @return the read constraints
+   * @throws InvalidProofException if any constraint is invalid
+   */
+  private List<KuratowskiConstraint> validateConstraints(JSONArray constraints)
+      throws InvalidProofException {
+    ConstraintReader constraintReader = new ConstraintReader(graph);
+    ConstraintValidator constraintValidator = new ConstraintValidator(graph);
+    List<KuratowskiConstraint> result = new ArrayList<>(constraints.length());
 
     for (int j = 0; j < constraints.length(); j++) {
       try {
         Config.get().logger.progress("  Kuratowski constraint " + j);
-        constraintValidator.validate(constraints.getJSONObject(j));
+        KuratowskiConstraint constraint = constraintReader.read(constraints.getJSONObject(j));
+        constraintValidator.validate(constraint);
+        result.add(constraint);
       } catch (InvalidProofException e) {
         throw ExceptionHelper.wrap(e, new InvalidProofException("Could not validate constraint "
             + j + "."));
       }
     }
 
-    // validate the claimed lower bound
-    String file = null;
-    try {
-      int expected = graph.getClaimedLowerBound();
-
-      file = File.createTempFile("leaf", "." + expected + ".lp").getAbsolutePath();
-      PrintWriter out = new PrintWriter(file);
-      Config.get().logger.print("  generate linear program");
-      out.print(generator.createLinearProgram(vars, leaf));
-      out.close();
-      Config.get().logger.print("  linear program written to " + file);
-      Config.get().logger.print("  solve linear program");
-
-      double lowerBound = solver.solve(file);
-
-      if (Math.ceil(lowerBound) < expected) {
-        throw new LinearProgramException(solver, file, "Lower bound is too small: " + lowerBound
-            + " instead of " + expected + ".");
+    return result;
+  }
+
+  /**
+   * Reads and validates all Kuratowski constraints of a leaf concurrently. Reports the same failure
+   * as {@link #validateConstraints(JSONArray)}, i.e. the one of the lowest invalid constraint.
+   *
+   * @param constraints JSON array of all constraints
+   * @return the read constraints
+   * @throws InvalidProofException if any constraint is invalid
+   */
+  private List<KuratowskiConstraint> validateConstraintsConcurrently(JSONArray constraints)
+      throws InvalidProofException {
+    KuratowskiConstraint[] result = new KuratowskiConstraint[constraints.length()];
+    ConstraintTask task = new ConstraintTask(graph, constraints, result);
+    constraintPool.invoke(task);
+
+    if (task.getFailure() != -1) {
+      throw ExceptionHelper.wrap(task.getFailureCause(), new InvalidProofException(
+          "Could not validate constraint " + task.getFailure() + "."));
+    }
+
+    // the progress is updated afterwards, such that the logger is not contended by the pool
+    for (int j = 0; j < result.length; j++) {
+      Config.get().logger.progress();
+    }
+
+    Config.get().logger.print("  " + result.length + " Kuratowski constraints");
+
+    return Arrays.asList(result);
+  }
+
+  /**
+   * Returns the shared pool of the given parallelism for validating Kuratowski constraints. The
+   * pool is created on first use.
+   *
+   * @param parallelism the number of threads of the pool
+   * @return the pool
+   */
+  private static ForkJoinPool getPool(int parallelism) {
+    synchronized (pools) {
+      ForkJoinPool result = pools.get(parallelism);
+
+      if (result == null) {
+        result = new ForkJoinPool(parallelism);
+        pools.put(parallelism, result);
       }
-    } catch (IOException e) {
-      throw ExceptionHelper.wrap(e, new LinearProgramException(solver, file));
+
+      return result;
     }
   }
 }
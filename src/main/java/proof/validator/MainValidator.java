@@ -3,11 +3,13 @@ package proof.validator;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import proof.data.Assignment;
 import proof.data.Graph;
 import proof.data.reader.GraphReader;
-import proof.exception.ExceptionHelper;
+import proof.data.reader.LogReader;
 import proof.exception.InvalidProofException;
 import proof.util.Config;
+import proof.util.Metrics;
 
 /**
  * The main validator for validating a complete log file.
@@ -16,6 +18,27 @@ import proof.util.Config;
  */
 public class MainValidator implements Validator<JSONObject> {
   private static final GraphReader graphReader = new GraphReader();
+  private final int threads;
+
+  /**
+   * Creates a new main validator using the number of threads given by the {@link Config}.
+   */
+  public MainValidator() {
+    this(Config.get().threads);
+  }
+
+  /**
+   * Creates a new main validator.
+   *
+   * @param threads maximum number of leaves to be validated concurrently
+   */
+  public MainValidator(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive.");
+    }
+
+    this.threads = threads;
+  }
 
   /**
    * Validates a whole log file as provided by the OCM logger.
@@ -29,32 +52,7 @@ public class MainValidator implements Validator<JSONObject> {
 
     // is the proof trivial in terms of a known lower bound formula?
     if (object.getJSONObject("solution").getBoolean("trivial")) {
-      Config.get().logger.reset(1);
-      Config.get().logger.print("lower bound is claimed to be trivial");
-
-      if (!graph.isConnected()) {
-        throw new InvalidProofException("Lower bound is invalid since the graph is disconnected");
-      }
-
-      boolean valid = false;
-
-      if (graph.getClaimedLowerBound() <= 1) {
-        valid = true;
-        Config.get().logger.progress("bound is less than 2");
-      } else if (graph.getClaimedLowerBound() == 6 + graph.getNumberOfEdges() - 3
-          * graph.getNumberOfNodes()) {
-        valid = true;
-        Config.get().logger.progress("bound follows from Euler's polyhedron formula");
-      } else if (graph.getClaimedLowerBound() == (int) Math.ceil(Math.pow(graph.getNumberOfEdges(),
-          3) / (33.75 * Math.pow(graph.getNumberOfNodes(), 2)) - 3 * graph.getNumberOfNodes())) {
-        valid = true;
-        Config.get().logger.progress("bound follows from the formula by Pach, Spencer, and Tóth");
-      }
-
-      if (!valid) {
-        throw new InvalidProofException("The claimed lower bound of "
-            + graph.getClaimedLowerBound() + " is non-trivial.");
-      }
+      validateTrivialBound(graph);
     } else {
       JSONArray leaves = object.getJSONObject("solution").getJSONArray("leaves");
       int numberOfConstraints = 0;
@@ -69,17 +67,108 @@ public class MainValidator implements Validator<JSONObject> {
       Config.get().logger.print("branch coverage");
       coverageValidator.validate(leaves);
 
-      for (int i = 0; i < leaves.length(); i++) {
-        Config.get().logger.print("branch " + i + " of " + leaves.length());
-        LeafValidator leafValidator = new LeafValidator(graph);
-
-        try {
-          leafValidator.validate(leaves.getJSONObject(i));
-        } catch (InvalidProofException e) {
-          throw ExceptionHelper.wrap(e, new InvalidProofException("Could not validate branch " + i
-              + "."));
+      LeafDispatcher dispatcher = new LeafDispatcher(graph, threads);
+
+      try {
+        for (int i = 0; i < leaves.length(); i++) {
+          dispatcher.submit(leaves.getJSONObject(i));
         }
+
+        dispatcher.finish();
+      } finally {
+        dispatcher.close();
       }
     }
   }
+
+  /**
+   * Validates a whole log file while it is being read. Each leaf is validated as soon as it has
+   * been read and merged with its sibling right away, see
+   * {@link BranchCoverageValidator#add(Assignment)}. Invalid leaves are only reported once the
+   * branch coverage has been completed, such that a coverage failure is reported regardless of the
+   * number of threads. Leaves are skipped once the solution is known to be claimed trivial.
+   * Otherwise, leaves read before the claim are validated regardless.
+   *
+   * @param reader reader providing the log file
+   * @throws InvalidProofException if the proof is invalid
+   */
+  public void validate(LogReader reader) throws InvalidProofException {
+    final Graph graph = graphReader.read(reader.readGraph());
+
+    Config.get().logger
+        .print("trying to validate a lower bound of " + graph.getClaimedLowerBound());
+
+    // the total number of constraints is unknown, a single step is reserved for the coverage
+    Config.get().logger.reset(1);
+    final BranchCoverageValidator coverageValidator = new BranchCoverageValidator(graph);
+    final LeafDispatcher dispatcher = new LeafDispatcher(graph, threads);
+    boolean trivial = false;
+
+    try {
+      trivial = reader.readSolution(new LogReader.LeafHandler() {
+        private int index = 0;
+        private long start = System.nanoTime();
+
+        @Override
+        public void handle(JSONObject leaf) throws InvalidProofException {
+          // the leaf has been parsed since the previous one was handled
+          Config.get().metrics.record(index++, Metrics.Phase.PARSE, System.nanoTime() - start);
+          coverageValidator.add(coverageValidator.read(leaf));
+          Config.get().logger.expand(leaf.getJSONArray("constraints").length());
+          dispatcher.submit(leaf);
+          start = System.nanoTime();
+        }
+      });
+
+      // failures of the branch coverage take priority over failures of any leaf
+      if (!trivial) {
+        Config.get().logger.print("branch coverage");
+        coverageValidator.finish();
+        Config.get().logger.progress();
+      }
+
+      dispatcher.finish();
+    } finally {
+      dispatcher.close();
+    }
+
+    if (trivial) {
+      validateTrivialBound(graph);
+    }
+  }
+
+  /**
+   * Validates a lower bound that is claimed to follow from a known formula.
+   *
+   * @param graph underlying non-expanded graph
+   * @throws InvalidProofException if the bound does not follow from any known formula
+   */
+  private void validateTrivialBound(Graph graph) throws InvalidProofException {
+    Config.get().logger.reset(1);
+    Config.get().logger.print("lower bound is claimed to be trivial");
+
+    if (!graph.isConnected()) {
+      throw new InvalidProofException("Lower bound is invalid since the graph is disconnected");
+    }
+
+    boolean valid = false;
+
+    if (graph.getClaimedLowerBound() <= 1) {
+      valid = true;
+      Config.get().logger.progress("bound is less than 2");
+    } else if (graph.getClaimedLowerBound() == 6 + graph.getNumberOfEdges() - 3
+        * graph.getNumberOfNodes()) {
+      valid = true;
+      Config.get().logger.progress("bound follows from Euler's polyhedron formula");
+    } else if (graph.getClaimedLowerBound() == (int) Math.ceil(Math.pow(graph.getNumberOfEdges(),
+        3) / (33.75 * Math.pow(graph.getNumberOfNodes(), 2)) - 3 * graph.getNumberOfNodes())) {
+      valid = true;
+      Config.get().logger.progress("bound follows from the formula by Pach, Spencer, and Tóth");
+    }
+
+    if (!valid) {
+      throw new InvalidProofException("The claimed lower bound of "
+          + graph.getClaimedLowerBound() + " is non-trivial.");
+    }
+  }
 }
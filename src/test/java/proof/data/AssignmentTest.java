@@ -0,0 +1,118 @@
+package proof.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link Assignment}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class AssignmentTest {
+
+  @Test
+  public void testFix() {
+    Assignment assignment = new Assignment();
+    assignment.fix(3, true);
+    assignment.fix(200, false);
+
+    assertEquals(2, assignment.size());
+    assertTrue(assignment.isFixed(3));
+    assertTrue(assignment.getValue(3));
+    assertTrue(assignment.isFixed(200));
+    assertFalse(assignment.getValue(200));
+    assertFalse(assignment.isFixed(4));
+    assertFalse(assignment.isFixed(1000));
+  }
+
+  @Test
+  public void testFix_unordered() {
+    Assignment assignment = new Assignment();
+    int[] variables = {500000000, 7, 12, 3, 1 << 20, 9, 0};
+
+    for (int var : variables) {
+      assignment.fix(var, var % 2 == 0);
+    }
+
+    assertEquals(variables.length, assignment.size());
+    assertEquals("{0=1, 3=0, 7=0, 9=0, 12=1, 1048576=1, 500000000=1}", assignment.toString());
+  }
+
+  @Test
+  public void testFix_override() {
+    Assignment assignment = new Assignment();
+    assignment.fix(70, true);
+    assignment.fix(70, false);
+
+    assertEquals(1, assignment.size());
+    assertFalse(assignment.getValue(70));
+  }
+
+  @Test
+  public void testRelease() {
+    Assignment assignment = new Assignment();
+    assignment.fix(64, true);
+    assignment.release(64);
+    assignment.release(65);
+
+    assertEquals(0, assignment.size());
+    assertFalse(assignment.isFixed(64));
+    assertFalse(assignment.getValue(64));
+  }
+
+  @Test
+  public void testNextFixed() {
+    Assignment assignment = new Assignment();
+    assignment.fix(0, true);
+    assignment.fix(63, false);
+    assignment.fix(64, true);
+    assignment.fix(300, true);
+
+    assertEquals(0, assignment.nextFixed(0));
+    assertEquals(63, assignment.nextFixed(1));
+    assertEquals(64, assignment.nextFixed(64));
+    assertEquals(300, assignment.nextFixed(65));
+    assertEquals(-1, assignment.nextFixed(301));
+    assertEquals(-1, assignment.nextFixed(5000));
+  }
+
+  @Test
+  public void testEqualsExcept() {
+    Assignment first = new Assignment();
+    Assignment second = new Assignment();
+
+    first.fix(1, true);
+    first.fix(100, true);
+    second.fix(1, true);
+    second.fix(100, false);
+
+    assertTrue(first.equalsExcept(second, 100));
+    assertTrue(second.equalsExcept(first, 100));
+    assertFalse(first.equalsExcept(second, 1));
+
+    second.fix(130, false);
+    assertFalse(first.equalsExcept(second, 100));
+
+    second.release(130);
+    second.release(1);
+    second.fix(2, true);
+    assertFalse(first.equalsExcept(second, 100));
+  }
+
+  @Test
+  public void testEqualsExcept_differentLengths() {
+    Assignment first = new Assignment();
+    Assignment second = new Assignment();
+
+    first.fix(1, true);
+    second.fix(1, false);
+    second.fix(500, true);
+    second.release(500);
+
+    assertTrue(first.equalsExcept(second, 1));
+    assertTrue(second.equalsExcept(first, 1));
+  }
+}
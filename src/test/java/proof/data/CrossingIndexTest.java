@@ -2,6 +2,7 @@ package proof.data;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -38,6 +39,36 @@ public class CrossingIndexTest {
     assertFalse(ci.equals(null));
   }
 
+  @Test
+  public void testHashCode() {
+    // crossings with equal sums of indices used to collide
+    assertNotEquals(new CrossingIndex(1, 2, 3, 4).hashCode(),
+        new CrossingIndex(2, 1, 4, 3).hashCode());
+    assertEquals(new CrossingIndex(1, 2, 3, 4).hashCode(),
+        new CrossingIndex(3, 4, 1, 2).hashCode());
+  }
+
+  @Test
+  public void testPack() {
+    CrossingIndex crossing = new CrossingIndex(7, 0, 3, 65535);
+
+    assertEquals(crossing.pack(), CrossingIndex.pack(3, 65535, 7, 0));
+    assertEquals(crossing, CrossingIndex.unpack(crossing.pack()));
+    assertNotEquals(crossing.pack(), CrossingIndex.pack(7, 65535, 3, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPack_outOfRange() {
+    new CrossingIndex(1, 65536, 2, 0).pack();
+  }
+
+  @Test
+  public void testIsPackable() {
+    assertTrue(CrossingIndex.isPackable(65535, 65535));
+    assertFalse(CrossingIndex.isPackable(65536, 0));
+    assertFalse(CrossingIndex.isPackable(0, 65536));
+  }
+
   @Test
   public void testFirstSegmentIsConflicting() {
     CrossingIndex c10x21 = new CrossingIndex(1, 0, 2, 1);
@@ -1,5 +1,6 @@
 package proof.data;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -190,6 +191,36 @@ public class GraphTest {
     assertTrue(graph.areEdgesAdjacent(2, 2));
   }
 
+  @Test
+  public void testEdgesAreAdjacent_immutable() throws InvalidGraphException {
+    Graph graph = new Graph(5, 4, 0);
+
+    graph.addEdge(0, 0, 1, 1);
+    graph.addEdge(1, 1, 2, 1);
+    graph.addEdge(2, 3, 2, 1);
+    graph.addEdge(3, 3, 4, 1);
+    graph.makeImmutable();
+
+    for (int e1 = 0; e1 < 4; e1++) {
+      for (int e2 = 0; e2 < 4; e2++) {
+        assertEquals(Math.abs(e1 - e2) <= 1, graph.areEdgesAdjacent(e1, e2));
+      }
+    }
+
+    assertArrayEquals(new int[] {2, 3}, graph.getNonAdjacentEdges(0));
+    assertArrayEquals(new int[] {3}, graph.getNonAdjacentEdges(1));
+    assertArrayEquals(new int[] {0}, graph.getNonAdjacentEdges(2));
+    assertArrayEquals(new int[] {0, 1}, graph.getNonAdjacentEdges(3));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGetNonAdjacentEdges_mutable() throws InvalidGraphException {
+    Graph graph = new Graph(2, 1, 0);
+    graph.addEdge(0, 0, 1, 1);
+
+    graph.getNonAdjacentEdges(0);
+  }
+
   @Test
   public void testIsConnected() throws InvalidGraphException {
     Graph graph = new Graph(3, 1, 0);
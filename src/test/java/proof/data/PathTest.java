@@ -1,8 +1,11 @@
 package proof.data;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -10,7 +13,9 @@ import org.junit.Test;
 import proof.GraphBasedTest;
 import proof.exception.InvalidGraphException;
 import proof.exception.InvalidPathException;
+import proof.util.LongMap;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -68,6 +73,38 @@ public class PathTest extends GraphBasedTest {
     assertEquals(3, path.getTarget());
   }
 
+  @Test
+  public void testIndexCrossings() throws InvalidGraphException {
+    Set<CrossingIndex> crossings = new HashSet<>();
+    CrossingIndex crossing = new CrossingIndex(graph.getEdgeId(0, 1), 5, graph.getEdgeId(2, 3), 7);
+    crossings.add(crossing);
+
+    LongMap<CrossingIndex> index = Path.indexCrossings(crossings);
+
+    assertEquals(2, index.size());
+    assertEquals(crossing, index.get(SegmentIndex.pack(graph.getEdgeId(0, 1), 5)));
+    assertEquals(crossing, index.get(SegmentIndex.pack(graph.getEdgeId(2, 3), 7)));
+    assertNull(index.get(SegmentIndex.pack(graph.getEdgeId(0, 1), 7)));
+  }
+
+  @Test
+  public void testAddSection_sharedIndex() throws InvalidPathException, InvalidGraphException {
+    Set<CrossingIndex> crossings = new HashSet<>();
+    crossings.add(new CrossingIndex(graph.getEdgeId(0, 1), 5, graph.getEdgeId(2, 3), 7));
+    LongMap<CrossingIndex> index = Path.indexCrossings(crossings);
+
+    path = new Path(graph, crossings, index);
+    path.addSection(0, 1, -1, 5, true);
+    path.addSection(2, 3, 7, 42, true);
+
+    Path path2 = new Path(graph, crossings, index);
+    path2.addSection(0, 1, 5, 42, true);
+
+    assertEquals(3, path.getTarget());
+    assertEquals(crossings.iterator().next(), path2.getSource());
+    assertFalse(path.isDisjointTo(path2));
+  }
+
   @Test(expected = InvalidPathException.class)
   public void testAddSection_invalidCrossing() throws InvalidPathException {
     path.addSection(1, 2, -1, 5, true);
@@ -79,6 +116,38 @@ public class PathTest extends GraphBasedTest {
     path.addSection(3, 1, -1, 5, true);
   }
 
+  @Test
+  public void testAddSection_disconnectedMessage() throws InvalidPathException {
+    path.addSection(1, 2, -1, 42, true);
+
+    try {
+      path.addSection(3, 4, -1, 42, true);
+      fail("Disconnected path was not detected.");
+    } catch (InvalidPathException e) {
+      assertEquals("Path is disconnected: 3 != 2.", e.getMessage());
+    }
+  }
+
+  @Test(expected = InvalidPathException.class)
+  public void testAddSection_unrealizedSource() throws InvalidPathException {
+    path.addSection(1, 2, -1, 42, true);
+    path.addSection(2, 3, 5, 42, true);
+  }
+
+  @Test
+  public void testAddSection_duplicateNodes() throws InvalidPathException {
+    path.addSection(1, 2, -1, 42, true);
+    path.addSection(2, 3, -1, 42, true);
+    path.addSection(2, 3, -1, 42, false);
+
+    try {
+      path.addSection(2, 4, -1, 42, true);
+      fail("Duplicate node was not detected.");
+    } catch (InvalidPathException e) {
+      assertEquals("Path contains duplicate nodes.", e.getMessage());
+    }
+  }
+
   @Test
   public void testIsDisjointTo() throws InvalidPathException {
     path.addSection(1, 10, -1, 42, true);
@@ -101,6 +170,34 @@ public class PathTest extends GraphBasedTest {
     assertFalse(path2.isDisjointTo(path));
   }
 
+  @Test
+  public void testFindIntersection() throws InvalidPathException {
+    path.addSection(1, 2, -1, 42, true);
+    path.addSection(2, 3, -1, 42, true);
+
+    Path path1 = new Path(graph, new HashSet<CrossingIndex>());
+    path1.addSection(4, 5, -1, 42, true);
+    path1.addSection(5, 6, -1, 42, true);
+
+    Path path2 = new Path(graph, new HashSet<CrossingIndex>());
+    path2.addSection(3, 7, -1, 42, true);
+    path2.addSection(7, 8, -1, 42, true);
+
+    assertNull(Path.findIntersection(Arrays.asList(path, path1, path2)));
+
+    path2 = new Path(graph, new HashSet<CrossingIndex>());
+    path2.addSection(5, 7, -1, 42, false);
+    path2.addSection(5, 8, -1, 42, true);
+
+    assertArrayEquals(new int[] {1, 2}, Path.findIntersection(Arrays.asList(path, path1, path2)));
+
+    Path path3 = new Path(graph, new HashSet<CrossingIndex>());
+    path3.addSection(2, 9, -1, 42, true);
+
+    assertArrayEquals(new int[] {0, 3},
+        Path.findIntersection(Arrays.asList(path, path1, path2, path3)));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testIsDisjoint_differentGraphs() throws InvalidPathException, InvalidGraphException {
     Path path2 = new Path(createCompleteGraph(21), new HashSet<CrossingIndex>());
@@ -2,6 +2,7 @@ package proof.data;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -39,4 +40,11 @@ public class SegmentIndexTest {
     assertFalse(si.equals(new SegmentIndex(2, 2).hashCode()));
     assertFalse(si.equals(null));
   }
+
+  @Test
+  public void testPack() {
+    assertEquals(SegmentIndex.pack(2, 1), new SegmentIndex(2, 1).pack());
+    assertNotEquals(SegmentIndex.pack(2, 1), SegmentIndex.pack(1, 2));
+    assertNotEquals(new SegmentIndex(2, 1).hashCode(), new SegmentIndex(1, 2).hashCode());
+  }
 }
@@ -0,0 +1,72 @@
+package proof.data.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import proof.ResourceBasedTest;
+import proof.data.KuratowskiConstraint;
+import proof.data.Path;
+import proof.exception.InvalidPathException;
+import proof.exception.ReaderException;
+
+/**
+ * Tests for {@link ConstraintReader}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class ConstraintReaderTest extends ResourceBasedTest {
+  private ConstraintReader reader;
+
+  public ConstraintReaderTest() {
+    super("constraint");
+  }
+
+  @Before
+  public void init() {
+    reader = new ConstraintReader(createCompleteGraph(100));
+  }
+
+  @Test
+  public void testRead() throws ReaderException {
+    KuratowskiConstraint constraint = reader.read(loadJson("k33-required-crossing"));
+
+    assertEquals("K33", constraint.getType());
+    assertEquals(9, constraint.getPaths().size());
+    assertEquals(1, constraint.getRequiredCrossings().size());
+
+    Path path = constraint.getPaths().get(4);
+    assertEquals(2, path.getNumberOfSections());
+    assertEquals(-1, path.getSectionStart(0));
+    assertEquals(8, path.getSectionEnd(0));
+    assertEquals(16, path.getSectionEnd(1));
+  }
+
+  @Test
+  public void testRead_invalidPath() {
+    JSONObject resource = loadJson("k5-simple");
+    resource.getJSONArray("paths").getJSONArray(3).getJSONObject(0).getJSONObject("edge")
+        .put("target", 101);
+
+    try {
+      reader.read(resource);
+      fail("Invalid path was not detected.");
+    } catch (ReaderException e) {
+      assertEquals("Path 3 is invalid.", e.getMessage());
+      assertTrue(e.getCause() instanceof InvalidPathException);
+    }
+  }
+
+  @Test(expected = ReaderException.class)
+  public void testRead_infeasibleCrossing() throws ReaderException {
+    JSONObject resource = loadJson("k33-required-crossing");
+    resource.getJSONArray("requiredCrossings").getJSONArray(0).getJSONObject(1)
+        .getJSONObject("edge").put("target", 2);
+
+    reader.read(resource);
+  }
+}
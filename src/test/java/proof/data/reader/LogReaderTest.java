@@ -0,0 +1,154 @@
+package proof.data.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import proof.ResourceBasedTest;
+import proof.exception.InvalidProofException;
+
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Tests for {@link LogReader}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LogReaderTest extends ResourceBasedTest {
+  private JSONObject resource;
+  private final List<JSONObject> leaves = new LinkedList<>();
+
+  private final LogReader.LeafHandler handler = new LogReader.LeafHandler() {
+    @Override
+    public void handle(JSONObject leaf) {
+      leaves.add(leaf);
+    }
+  };
+
+  public LogReaderTest() {
+    super("log");
+  }
+
+  @Before
+  public void init() {
+    resource = loadJson("job74");
+    leaves.clear();
+  }
+
+  @Test
+  public void testRead_simple() throws InvalidProofException {
+    LogReader reader = new LogReader(new StringReader(resource.toString(2)));
+
+    assertEquals(resource.getJSONObject("graph").toString(), reader.readGraph().toString());
+    assertFalse(reader.readSolution(handler));
+    assertLeaves(resource.getJSONObject("solution").getJSONArray("leaves"));
+  }
+
+  @Test
+  public void testRead_multipleLeaves() throws InvalidProofException {
+    JSONArray expected = resource.getJSONObject("solution").getJSONArray("leaves");
+    expected.put(new JSONObject().put("constraints", new JSONArray()));
+    expected.put(new JSONObject());
+
+    LogReader reader = new LogReader(new StringReader(resource.toString()));
+    reader.readGraph();
+    reader.readSolution(handler);
+
+    assertLeaves(expected);
+  }
+
+  @Test
+  public void testRead_trivial() throws InvalidProofException {
+    LogReader reader = new LogReader(new StringReader(loadJson("job10").toString()));
+    reader.readGraph();
+
+    assertTrue(reader.readSolution(handler));
+    assertTrue(leaves.isEmpty());
+  }
+
+  @Test
+  public void testRead_trivialFirst() throws InvalidProofException {
+    String input = "{\"graph\": " + resource.getJSONObject("graph")
+        + ", \"solution\": {\"trivial\": true, \"leaves\": "
+        + resource.getJSONObject("solution").getJSONArray("leaves") + "}}";
+    LogReader reader = new LogReader(new StringReader(input));
+    reader.readGraph();
+
+    assertTrue(reader.readSolution(handler));
+    assertTrue(leaves.isEmpty());
+  }
+
+  @Test
+  public void testRead_solutionFirst() throws InvalidProofException {
+    String input =
+        "{\"solution\": " + resource.getJSONObject("solution") + ", \"graph\": "
+            + resource.getJSONObject("graph") + "}";
+    LogReader reader = new LogReader(new StringReader(input));
+
+    assertEquals(resource.getJSONObject("graph").toString(), reader.readGraph().toString());
+    assertFalse(reader.readSolution(handler));
+    assertLeaves(resource.getJSONObject("solution").getJSONArray("leaves"));
+  }
+
+  @Test
+  public void testRead_unknownKeys() throws InvalidProofException {
+    resource.put("comment", new JSONArray("[1, {\"graph\": 2}]"));
+    resource.getJSONObject("solution").put("comment", "leaves");
+
+    LogReader reader = new LogReader(new StringReader(resource.toString()));
+
+    assertEquals(resource.getJSONObject("graph").toString(), reader.readGraph().toString());
+    assertFalse(reader.readSolution(handler));
+    assertLeaves(resource.getJSONObject("solution").getJSONArray("leaves"));
+  }
+
+  @Test(expected = JSONException.class)
+  public void testRead_empty() {
+    new LogReader(new StringReader("{}")).readGraph();
+  }
+
+  @Test(expected = JSONException.class)
+  public void testRead_missingSolution() throws InvalidProofException {
+    resource.remove("solution");
+    LogReader reader = new LogReader(new StringReader(resource.toString()));
+    reader.readGraph();
+    reader.readSolution(handler);
+  }
+
+  @Test(expected = JSONException.class)
+  public void testRead_missingTrivial() throws InvalidProofException {
+    resource.getJSONObject("solution").remove("trivial");
+    LogReader reader = new LogReader(new StringReader(resource.toString()));
+    reader.readGraph();
+    reader.readSolution(handler);
+  }
+
+  @Test(expected = JSONException.class)
+  public void testRead_truncated() throws InvalidProofException {
+    String input = resource.toString();
+    LogReader reader = new LogReader(new StringReader(input.substring(0, input.length() - 2)));
+    reader.readGraph();
+    reader.readSolution(handler);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testRead_solutionBeforeGraph() throws InvalidProofException {
+    new LogReader(new StringReader(resource.toString())).readSolution(handler);
+  }
+
+  private void assertLeaves(JSONArray expected) {
+    assertEquals(expected.length(), leaves.size());
+
+    for (int i = 0; i < expected.length(); i++) {
+      assertEquals(expected.getJSONObject(i).toString(), leaves.get(i).toString());
+    }
+  }
+}
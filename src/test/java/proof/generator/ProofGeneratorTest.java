@@ -0,0 +1,89 @@
+package proof.generator;
+
+import static org.junit.Assert.assertEquals;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import proof.ValidatorTest;
+import proof.data.reader.LogReader;
+import proof.exception.InvalidProofException;
+import proof.validator.MainValidator;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Tests for {@link ProofGenerator}. All generated proofs are validated.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class ProofGeneratorTest extends ValidatorTest {
+
+  public ProofGeneratorTest() {
+    super("log");
+  }
+
+  private String generate(ProofGenerator generator) throws IOException {
+    StringWriter out = new StringWriter();
+    generator.write(out);
+
+    return out.toString();
+  }
+
+  @Test
+  public void testWrite() throws IOException, InvalidProofException {
+    String proof = generate(new ProofGenerator(12, 40, 1, 3, 10, 0, 42));
+    JSONObject json = new JSONObject(proof);
+
+    assertEquals(12, json.getJSONObject("graph").getInt("numberOfNodes"));
+    assertEquals(40, json.getJSONObject("graph").getJSONArray("edges").length());
+
+    JSONArray leaves = json.getJSONObject("solution").getJSONArray("leaves");
+    assertEquals(8, leaves.length());
+
+    for (int i = 0; i < leaves.length(); i++) {
+      assertEquals(3, leaves.getJSONObject(i).getJSONArray("fixedVariables").length());
+      assertEquals(10, leaves.getJSONObject(i).getJSONArray("constraints").length());
+    }
+
+    new MainValidator().validate(new LogReader(new StringReader(proof)));
+  }
+
+  @Test
+  public void testWrite_expansions() throws IOException, InvalidProofException {
+    String proof = generate(new ProofGenerator(8, 28, 3, 1, 20, 1, 3));
+
+    new MainValidator().validate(new LogReader(new StringReader(proof)));
+  }
+
+  @Test
+  public void testWrite_completeGraph() throws IOException, InvalidProofException {
+    String proof = generate(new ProofGenerator(9, 36, 1, 0, 5, 0, 7));
+
+    new MainValidator().validate(new LogReader(new StringReader(proof)));
+  }
+
+  @Test
+  public void testWrite_deterministic() throws IOException {
+    assertEquals(generate(new ProofGenerator(30, 200, 3, 2, 4, 1, 5)),
+        generate(new ProofGenerator(30, 200, 3, 2, 4, 1, 5)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testProofGenerator_tooFewEdges() {
+    new ProofGenerator(100, 27, 1, 0, 1, 0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testProofGenerator_tooManyEdges() {
+    new ProofGenerator(8, 29, 1, 0, 1, 0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testProofGenerator_tooManyExpansions() {
+    new ProofGenerator(8, 28, 3, 0, 1, 2, 0);
+  }
+}
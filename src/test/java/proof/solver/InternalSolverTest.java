@@ -0,0 +1,57 @@
+package proof.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import proof.exception.LinearProgramException;
+
+/**
+ * Tests class for the {@link InternalSolver} linear program solver.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class InternalSolverTest extends SolverTest {
+
+  /**
+   * Initializes a new internal solver test.
+   */
+  public InternalSolverTest() {
+    super(new Initializer() {
+      @Override
+      public Solver initialize() {
+        return new InternalSolver();
+      }
+    });
+  }
+
+  /**
+   * All variables are bounded, since no safe bound is derived if any variable is unbounded.
+   */
+  @Override
+  protected String getSimpleProgram() {
+    return "src/test/resources/linear-program/simple-bounded.lp";
+  }
+
+  @Test(timeout = 60000)
+  public void testSolve_manyRows() throws LinearProgramException {
+    int size = 10000;
+    LinearProgram program = new LinearProgram();
+
+    for (int j = 0; j < size; j++) {
+      program.addColumn(1, 0, 1);
+    }
+
+    // a dense inverse of the basis would require almost a gigabyte
+    for (int j = 0; j < size; j++) {
+      program.addRow(new int[] {j, (j + 1) % size}, new double[] {1, 1}, Double.NEGATIVE_INFINITY,
+          1.5);
+    }
+
+    for (int j = 0; j < 200; j += 2) {
+      program.addRow(new int[] {j}, new double[] {1}, 1, Double.POSITIVE_INFINITY);
+    }
+
+    assertEquals(100, new InternalSolver().solve(program, "many-rows"), 1e-6);
+  }
+}
@@ -0,0 +1,130 @@
+package proof.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import proof.ValidatorTest;
+import proof.data.CrossingIndex;
+import proof.data.Graph;
+import proof.data.reader.GraphReader;
+import proof.exception.InvalidProofException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for {@link LinearProgramGenerator}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LinearProgramGeneratorTest extends ValidatorTest {
+  private final Map<CrossingIndex, Boolean> fixedVariables = new HashMap<>();
+  private Graph graph;
+  private JSONObject leaf;
+  private JSONObject expandedLeaf;
+
+  public LinearProgramGeneratorTest() {
+    super("log");
+  }
+
+  /**
+   * Loads a leaf and creates a copy with a single expanded edge.
+   */
+  @Before
+  public void init() throws InvalidProofException {
+    JSONObject resource = loadJson("job74");
+    graph = new GraphReader().read(resource.getJSONObject("graph"));
+    leaf = resource.getJSONObject("solution").getJSONArray("leaves").getJSONObject(0);
+    expandedLeaf = new JSONObject(leaf.toString());
+    expandedLeaf.getJSONObject("expansions").put("3", 2);
+  }
+
+  @Test
+  public void testCreateLinearProgram_sameExpansions() throws InvalidProofException, IOException {
+    LinearProgramGenerator generator = new LinearProgramGenerator(graph);
+    String expected = write(generator, leaf);
+
+    assertEquals(expected, write(generator, leaf));
+    assertEquals(expected, write(generator, leaf));
+  }
+
+  @Test
+  public void testCreateLinearProgram_changingExpansions() throws InvalidProofException,
+      IOException {
+    String expected = write(new LinearProgramGenerator(graph), leaf);
+    String expectedExpanded = write(new LinearProgramGenerator(graph), expandedLeaf);
+    LinearProgramGenerator generator = new LinearProgramGenerator(graph);
+
+    assertNotEquals(expected, expectedExpanded);
+    assertEquals(expected, write(generator, leaf));
+    assertEquals(expectedExpanded, write(generator, expandedLeaf));
+    assertEquals(expected, write(generator, leaf));
+  }
+
+  @Test
+  public void testCreateLinearProgram_fixedVariables() throws InvalidProofException {
+    fixedVariables.put(new CrossingIndex(3, 2, 5, 0), true);
+    LinearProgram program =
+        new LinearProgramGenerator(graph).createLinearProgram(fixedVariables, expandedLeaf);
+    int fixedColumns = 0;
+
+    for (int j = 0; j < program.getNumberOfColumns(); j++) {
+      if (program.getColumnName(j).equals("x_e3_s2_e5_s0")) {
+        assertEquals(1, program.getLowerBound(j), 0);
+        fixedColumns++;
+      } else {
+        assertEquals(0, program.getLowerBound(j), 0);
+      }
+
+      assertEquals(1, program.getUpperBound(j), 0);
+    }
+
+    assertEquals(1, fixedColumns);
+  }
+
+  @Test
+  public void testCreateLinearProgram_sparse() throws InvalidProofException {
+    JSONArray constraints = expandedLeaf.getJSONArray("constraints");
+
+    while (constraints.length() > 2) {
+      constraints.remove(constraints.length() - 1);
+    }
+
+    fixedVariables.put(new CrossingIndex(3, 2, 5, 0), true);
+    LinearProgram full =
+        new LinearProgramGenerator(graph).createLinearProgram(fixedVariables, expandedLeaf);
+    LinearProgramGenerator generator = new LinearProgramGenerator(graph);
+    generator.setSparse(true);
+    LinearProgram sparse = generator.createLinearProgram(fixedVariables, expandedLeaf);
+
+    assertTrue(sparse.getNumberOfColumns() < full.getNumberOfColumns());
+    assertTrue(sparse.getNumberOfRows() <= full.getNumberOfRows());
+    assertEquals(1, sparse.getLowerBound(sparse.getColumn("x_e3_s2_e5_s0")), 0);
+
+    // the sparse program is a relaxation
+    InternalSolver solver = new InternalSolver();
+    assertTrue(solver.solve(sparse, "sparse") <= solver.solve(full, "full") + 1e-6);
+  }
+
+  @Test(expected = InvalidProofException.class)
+  public void testCreateLinearProgram_negativeExpansions() throws InvalidProofException {
+    expandedLeaf.getJSONObject("expansions").put("3", -1);
+    new LinearProgramGenerator(graph).createLinearProgram(fixedVariables, expandedLeaf);
+  }
+
+  private String write(LinearProgramGenerator generator, JSONObject leaf)
+      throws InvalidProofException, IOException {
+    StringWriter result = new StringWriter();
+    new LpWriter(false).write(generator.createLinearProgram(fixedVariables, leaf), result);
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,106 @@
+package proof.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Tests for {@link LinearProgramParser}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LinearProgramParserTest {
+  private Path file = null;
+
+  /**
+   * Called after each test. Deletes the temporary linear program.
+   */
+  @After
+  public void tearDown() throws IOException {
+    if (file != null) {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testParse_simple() throws IOException, ParseException {
+    LinearProgram program =
+        new LinearProgramParser().parse(Paths.get("src/test/resources/linear-program/simple.lp"));
+
+    assertTrue(program.isMaximize());
+    assertEquals(4, program.getNumberOfColumns());
+    assertEquals(3, program.getNumberOfRows());
+    assertEquals(3, program.getCost(program.getColumn("x3")), 0);
+    assertEquals(40, program.getUpperBound(program.getColumn("x1")), 0);
+    assertEquals(2, program.getLowerBound(program.getColumn("x4")), 0);
+    assertEquals(Double.POSITIVE_INFINITY, program.getUpperBound(program.getColumn("x2")), 0);
+    assertArrayEquals(new double[] {-1, 1, 1, 10}, program.getRowCoefficients(0), 0);
+    assertEquals(Double.NEGATIVE_INFINITY, program.getRowLowerBound(0), 0);
+    assertEquals(20, program.getRowUpperBound(0), 0);
+    assertEquals(0, program.getRowLowerBound(2), 0);
+    assertEquals(0, program.getRowUpperBound(2), 0);
+  }
+
+  @Test
+  public void testParse_multilineConstraints() throws IOException, ParseException {
+    LinearProgram program =
+        parse("Minimize\n obj: x + 2 y\nSubject To\n \\ comment\n x\n + y - x\n >= -1 c: 3 x -"
+            + " - y\n <= 2\nEnd");
+
+    assertEquals(2, program.getNumberOfRows());
+    assertArrayEquals(new int[] {0, 1}, program.getRowColumns(0));
+    assertArrayEquals(new double[] {0, 1}, program.getRowCoefficients(0), 0);
+    assertEquals(-1, program.getRowLowerBound(0), 0);
+    assertArrayEquals(new double[] {3, 1}, program.getRowCoefficients(1), 0);
+  }
+
+  @Test
+  public void testParse_bounds() throws IOException, ParseException {
+    LinearProgram program =
+        parse("Minimize\n obj: a + b + c + d + e\nSubject To\nBounds\n -1 <= a <= 1\n b >= -2\n"
+            + " -inf <= c\n d free\n e = 4\n 5 >= f\nEnd");
+
+    assertEquals(-1, program.getLowerBound(program.getColumn("a")), 0);
+    assertEquals(1, program.getUpperBound(program.getColumn("a")), 0);
+    assertEquals(-2, program.getLowerBound(program.getColumn("b")), 0);
+    assertEquals(Double.NEGATIVE_INFINITY, program.getLowerBound(program.getColumn("c")), 0);
+    assertEquals(Double.POSITIVE_INFINITY, program.getUpperBound(program.getColumn("c")), 0);
+    assertEquals(Double.NEGATIVE_INFINITY, program.getLowerBound(program.getColumn("d")), 0);
+    assertEquals(4, program.getLowerBound(program.getColumn("e")), 0);
+    assertEquals(4, program.getUpperBound(program.getColumn("e")), 0);
+    assertEquals(5, program.getUpperBound(program.getColumn("f")), 0);
+    assertEquals(0, program.getCost(program.getColumn("f")), 0);
+  }
+
+  @Test(expected = ParseException.class)
+  public void testParse_missingOperator() throws IOException, ParseException {
+    parse("Minimize\n obj: x y\nSubject To\nEnd");
+  }
+
+  @Test(expected = ParseException.class)
+  public void testParse_missingEnd() throws IOException, ParseException {
+    parse("Minimize\n obj: x\nSubject To\n x >= 1");
+  }
+
+  @Test(expected = ParseException.class)
+  public void testParse_integers() throws IOException, ParseException {
+    parse("Minimize\n obj: x\nSubject To\n x >= 1\nGeneral\n x\nEnd");
+  }
+
+  private LinearProgram parse(String content) throws IOException, ParseException {
+    file = Files.createTempFile("linear-program", ".lp");
+    Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+
+    return new LinearProgramParser().parse(file);
+  }
+}
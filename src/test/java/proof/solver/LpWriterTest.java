@@ -0,0 +1,126 @@
+package proof.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Tests for {@link LpWriter}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LpWriterTest {
+  private boolean compactNames = false;
+
+  @Test
+  public void testWrite() throws IOException {
+    LinearProgram program = new LinearProgram();
+    program.addColumn("a", 1, 0, 1);
+    program.addColumn("b", -2.5, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    program.addComment("first");
+    program.addRow(new int[] {0, 1}, new double[] {-1, 3}, 2, Double.POSITIVE_INFINITY);
+    program.addRow(new int[] {1}, new double[] {1}, 1, 1);
+    program.addComment("last");
+
+    assertEquals("Minimize\nobj:\n a - 2.5 b\nSubject To\n\\ first\n- a + 3 b >= 2\nb = 1"
+        + "\n\\ last\nBounds\n a <= 1\n b free\nEnd", write(program));
+  }
+
+  @Test
+  public void testWrite_columnNamer() throws IOException {
+    LinearProgram program = new LinearProgram();
+    program.setMaximize(true);
+    program.addColumn(1, 0, 1);
+    program.addColumn(1, 0, 1);
+    program.addRow(new int[] {0, 1}, new double[] {1, 1}, 0, 1);
+    program.setColumnNamer(new LinearProgram.ColumnNamer() {
+      @Override
+      public String getName(int column) {
+        return "y" + (column + 1);
+      }
+    });
+
+    assertEquals("Maximize\nobj:\n y1 + y2\nSubject To\ny1 + y2 >= 0\ny1 + y2 <= 1\nBounds\n"
+        + "End", write(program));
+  }
+
+  @Test
+  public void testWrite_bounds() throws IOException {
+    LinearProgram program = new LinearProgram();
+    program.addColumn("a", 0, 0, 1);
+    program.addColumn("b", 0, 0, 1);
+    program.addColumn("c", 0, 0, 3);
+    program.addColumn("d", 0, 0, Double.POSITIVE_INFINITY);
+    program.addColumn("e", 0, 1, 1);
+    program.addColumn("f", 0, -2, Double.POSITIVE_INFINITY);
+    program.addColumn("g", 0, Double.NEGATIVE_INFINITY, 5);
+    program.addColumn("h", 0, 0.5, 2);
+    program.addRow(new int[] {0, 2}, new double[] {1, 2}, Double.NEGATIVE_INFINITY, 1);
+    program.addRow(new int[] {1, 5}, new double[] {1, 1}, Double.NEGATIVE_INFINITY, 1);
+
+    assertEquals("Minimize\nobj:\n\nSubject To\na + 2 c <= 1\nb + f <= 1\nBounds\n b <= 1"
+        + "\n e = 1\n f >= -2\n -inf <= g <= 5\n 0.5 <= h <= 2\nEnd", write(program));
+  }
+
+  @Test
+  public void testWrite_parse() throws IOException, ParseException {
+    LinearProgram program = new LinearProgram();
+    program.addColumn(3, 0, 1);
+    program.addColumn(0, 0.5, 2);
+    program.addColumn(2, 0, Double.POSITIVE_INFINITY);
+    program.addRow(new int[] {0, 2}, new double[] {1, 1}, 1, Double.POSITIVE_INFINITY);
+    program.addRow(new int[] {1, 2}, new double[] {1, -0.25}, Double.NEGATIVE_INFINITY, 1);
+
+    Path file = Files.createTempFile("linear-program", ".lp");
+
+    try {
+      Files.write(file, write(program).getBytes(StandardCharsets.US_ASCII));
+      LinearProgram parsed = new LinearProgramParser().parse(file);
+
+      assertEquals(program.getNumberOfColumns(), parsed.getNumberOfColumns());
+      assertEquals(program.getNumberOfRows(), parsed.getNumberOfRows());
+
+      for (int j = 0; j < program.getNumberOfColumns(); j++) {
+        int column = parsed.getColumn(program.getColumnName(j));
+        assertEquals(program.getCost(j), parsed.getCost(column), 0);
+        assertEquals(program.getLowerBound(j), parsed.getLowerBound(column), 0);
+        assertEquals(program.getUpperBound(j), parsed.getUpperBound(column), 0);
+      }
+
+      assertArrayEquals(new double[] {1, -0.25}, parsed.getRowCoefficients(1), 0);
+      assertEquals(1, parsed.getRowUpperBound(1), 0);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testWrite_compactNames() throws IOException {
+    LinearProgram program = new LinearProgram();
+    program.addColumn("long_name", 1, 0, 1);
+    program.addColumn("other_name", 0, 0, 1);
+    program.addRow(new int[] {0, 1}, new double[] {1, 2}, Double.NEGATIVE_INFINITY, 1);
+    compactNames = true;
+
+    assertEquals("Minimize\nobj:\n x0\nSubject To\nx0 + 2 x1 <= 1\nBounds\nEnd", write(program));
+
+    StringWriter names = new StringWriter();
+    new LpWriter(true).writeNames(program, names);
+    assertEquals("x0 long_name\nx1 other_name\n", names.toString());
+  }
+
+  private String write(LinearProgram program) throws IOException {
+    StringWriter result = new StringWriter();
+    new LpWriter(compactNames).write(program, result);
+
+    return result.toString();
+  }
+}
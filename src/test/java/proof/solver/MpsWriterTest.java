@@ -0,0 +1,53 @@
+package proof.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Tests for {@link MpsWriter}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class MpsWriterTest {
+
+  @Test
+  public void testWrite() throws IOException {
+    LinearProgram program = new LinearProgram();
+    program.addColumn("a", 1, 0, 1);
+    program.addColumn("b", 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    program.addColumn("c", -2.5, 1, 1);
+    program.addColumn("d", 0, 0, Double.POSITIVE_INFINITY);
+    program.addRow(new int[] {0, 1}, new double[] {-1, 3}, 2, Double.POSITIVE_INFINITY);
+    program.addRow(new int[] {1, 2}, new double[] {1, 1}, Double.NEGATIVE_INFINITY, 4);
+    program.addRow(new int[] {0}, new double[] {1}, 0, 0);
+    program.addRow(new int[] {0, 2}, new double[] {1, 1}, -1, 1);
+
+    assertEquals("NAME linear-program\nROWS\n N obj\n G c0\n L c1\n E c2\n G c3\nCOLUMNS\n"
+        + " a obj 1 c0 -1\n a c2 1 c3 1\n b c0 3 c1 1\n c obj -2.5 c1 1\n c c3 1\n d obj 0\n"
+        + "RHS\n rhs c0 2\n rhs c1 4\n rhs c3 -1\nRANGES\n rng c3 2\n"
+        + "BOUNDS\n FR bnd b\n FX bnd c 1\nENDATA\n", write(program, false));
+  }
+
+  @Test
+  public void testWrite_compactNames() throws IOException {
+    LinearProgram program = new LinearProgram();
+    program.setMaximize(true);
+    program.addColumn("long_name", 1, -1, -0.5);
+    program.addRow(new int[] {0}, new double[] {1}, Double.NEGATIVE_INFINITY,
+        Double.POSITIVE_INFINITY);
+
+    assertEquals("NAME linear-program\nOBJSENSE\n    MAX\nROWS\n N obj\nCOLUMNS\n x0 obj 1\nRHS\n"
+        + "RANGES\nBOUNDS\n LO bnd x0 -1\n UP bnd x0 -0.5\nENDATA\n", write(program, true));
+  }
+
+  private String write(LinearProgram program, boolean compactNames) throws IOException {
+    StringWriter result = new StringWriter();
+    new MpsWriter(compactNames).write(program, result);
+
+    return result.toString();
+  }
+}
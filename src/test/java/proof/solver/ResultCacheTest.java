@@ -0,0 +1,155 @@
+package proof.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for {@link ResultCache}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class ResultCacheTest {
+  private final Solver solver = new InternalSolver();
+  private Path directory;
+
+  /**
+   * Version of the internal solver that is never cached.
+   */
+  public static class UnknownVersionSolver extends InternalSolver {
+    @Override
+    public String getVersion() {
+      return null;
+    }
+  }
+
+  /**
+   * Called before each test. Creates the cache directory.
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("result-cache");
+  }
+
+  /**
+   * Called after each test. Deletes the cache directory.
+   */
+  @After
+  public void tearDown() throws IOException {
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (Path file : stream) {
+        Files.delete(file);
+      }
+    }
+
+    Files.delete(directory);
+  }
+
+  @Test
+  public void testGet() throws IOException {
+    ResultCache cache = new ResultCache(directory, 10);
+    cache.put(createProgram(1), solver, 1.5);
+
+    assertEquals(1.5, cache.get(createProgram(1), solver), 0);
+    assertNull(cache.get(createProgram(2), solver));
+    assertEquals(1.5, new ResultCache(directory, 10).get(createProgram(1), solver), 0);
+  }
+
+  @Test
+  public void testGet_key() throws IOException {
+    ResultCache cache = new ResultCache(directory, 10);
+    String key = ResultCache.getKey(createProgram(1), solver);
+    cache.put(key, solver, 2.5);
+
+    assertEquals(2.5, cache.get(key, solver), 0);
+    assertEquals(2.5, cache.get(createProgram(1), solver), 0);
+    assertNull(cache.get((String) null, solver));
+  }
+
+  @Test
+  public void testPut_failed() throws IOException {
+    ResultCache cache = new ResultCache(directory, 10);
+    String key = ResultCache.getKey(createProgram(1), solver);
+
+    // a non-empty directory can not be replaced by the entry
+    Path blocking = Files.createDirectory(directory.resolve(key));
+    Path content = Files.createFile(blocking.resolve("content"));
+    cache.put(key, solver, 2.5);
+
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.tmp")) {
+      assertFalse(stream.iterator().hasNext());
+    } finally {
+      Files.delete(content);
+      Files.delete(blocking);
+    }
+  }
+
+  @Test
+  public void testGet_namesIgnored() throws IOException {
+    ResultCache cache = new ResultCache(directory, 10);
+    LinearProgram program = createProgram(1);
+    cache.put(program, solver, 1);
+    program.setColumnNamer(new LinearProgram.ColumnNamer() {
+      @Override
+      public String getName(int column) {
+        return "y" + column;
+      }
+    });
+
+    assertEquals(1, cache.get(program, solver), 0);
+  }
+
+  @Test
+  public void testGet_unknownVersion() throws IOException {
+    ResultCache cache = new ResultCache(directory, 10);
+    Solver unknown = new UnknownVersionSolver();
+    cache.put(createProgram(1), unknown, 1);
+
+    assertNull(cache.get(createProgram(1), unknown));
+    assertNull(cache.get(createProgram(1), solver));
+  }
+
+  @Test
+  public void testGet_corrupted() throws IOException {
+    ResultCache cache = new ResultCache(directory, 10);
+    cache.put(createProgram(1), solver, 1);
+    Files.write(directory.resolve(ResultCache.getKey(createProgram(1), solver)), new byte[0]);
+
+    assertNull(cache.get(createProgram(1), solver));
+  }
+
+  @Test
+  public void testPut_evictLeastRecentlyUsed() throws IOException {
+    ResultCache cache = new ResultCache(directory, 3);
+
+    for (int i = 0; i < 3; i++) {
+      cache.put(createProgram(i), solver, i);
+    }
+
+    assertNotNull(cache.get(createProgram(0), solver));
+    cache.put(createProgram(3), solver, 3);
+
+    assertNotNull(cache.get(createProgram(0), solver));
+    assertNull(cache.get(createProgram(1), solver));
+    assertNull(cache.get(createProgram(2), solver));
+    assertNotNull(cache.get(createProgram(3), solver));
+  }
+
+  private LinearProgram createProgram(double bound) {
+    LinearProgram result = new LinearProgram();
+    result.addColumn(1, 0, Double.POSITIVE_INFINITY);
+    result.addRow(new int[] {0}, new double[] {1}, bound, Double.POSITIVE_INFINITY);
+
+    return result;
+  }
+}
@@ -50,6 +50,11 @@ public class SolverFactoryTest {
     }
   }
 
+  @Test
+  public void testInternal() {
+    assertTrue(solverFactory.getSolver("internal") instanceof InternalSolver);
+  }
+
   @Test(expected = UnsupportedSolverException.class)
   public void testInvalid() {
     solverFactory.getSolver("foobar");
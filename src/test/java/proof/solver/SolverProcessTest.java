@@ -0,0 +1,248 @@
+package proof.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import proof.exception.LinearProgramException;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Tests for the handling of solver processes by the {@link Solver}. Solvers are replaced by shell
+ * scripts in {@code src/test/resources/solver}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class SolverProcessTest {
+  private static final String DIR = "src/test/resources/solver/";
+  private static final String PROGRAM = "src/test/resources/linear-program/simple.lp";
+
+  /**
+   * Runs a shell script instead of an actual solver.
+   */
+  private static class ScriptSolver extends Solver {
+    private final String script;
+
+    ScriptSolver(String script) {
+      this.script = script;
+    }
+
+    @Override
+    protected String getCommand(String filename) {
+      return "sh " + DIR + script + " " + filename;
+    }
+
+    @Override
+    protected void handleLine(String line) throws LinearProgramException {
+      if (line.startsWith("objective value:")) {
+        setResult(parseDouble(line));
+      }
+    }
+
+    @Override
+    protected boolean isAvailable() {
+      return true;
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testSolve() throws LinearProgramException {
+    Solver solver = new ScriptSolver("solving.sh");
+    solver.setTimeout(5000);
+
+    assertEquals(3, solver.solve(PROGRAM), 1e-6);
+  }
+
+  @Test(timeout = 10000)
+  public void testGetVersion_hanging() {
+    Solver solver = new ScriptSolver("solving.sh") {
+      @Override
+      protected String getVersionCommand() {
+        return "sh " + DIR + "hanging.sh";
+      }
+    };
+    solver.setTimeout(200);
+
+    assertNull(solver.getVersion());
+
+    // the failed lookup is not repeated
+    long start = System.currentTimeMillis();
+    assertNull(solver.getVersion());
+    assertTrue(System.currentTimeMillis() - start < 150);
+  }
+
+  @Test(timeout = 10000)
+  public void testSolve_timeout() {
+    Solver solver = new ScriptSolver("hanging.sh");
+    solver.setTimeout(200);
+    long start = System.currentTimeMillis();
+
+    try {
+      solver.solve(PROGRAM);
+      fail("Solved linear program by hanging solver.");
+    } catch (LinearProgramException expected) {
+      assertTrue(expected.getMessage().contains("timed out after 200 ms"));
+    }
+
+    assertTrue(System.currentTimeMillis() - start < 5000);
+  }
+
+  @Test(timeout = 10000)
+  public void testSolve_errorOutput() {
+    Solver solver = new ScriptSolver("noisy.sh");
+
+    try {
+      solver.solve(PROGRAM);
+      fail("Ignored error output of solver.");
+    } catch (LinearProgramException expected) {
+      assertTrue(expected.getMessage().contains("warning: line 0 of the error output"));
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testSolve_program() throws LinearProgramException {
+    Solver solver = new ScriptSolver("solving.sh");
+
+    assertEquals(3, solver.solve(createProgram(), "solver-process-test"), 1e-6);
+    assertEquals(3, solver.solve(createProgram(), "solver-process-test"), 1e-6);
+    assertEquals(0, findFiles("solver-process-test").length);
+
+    if (supportsPipes()) {
+      // the pipe is reused until the solver is closed
+      File pipe = new File(solver.getFilename());
+      assertTrue(pipe.exists());
+      solver.close();
+      assertFalse(pipe.exists());
+      assertFalse(pipe.getParentFile().exists());
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testSolve_programUnread() {
+    Solver solver = new ScriptSolver("ignoring.sh");
+    Assume.assumeTrue(supportsPipes());
+
+    try {
+      solver.solve(createProgram(), "solver-process-test");
+      fail("Solved linear program that has not been read.");
+    } catch (LinearProgramException expected) {
+      assertTrue(expected.getMessage().contains("has not been read completely"));
+    } finally {
+      solver.close();
+    }
+
+    assertEquals(0, findFiles("solver-process-test").length);
+  }
+
+  @Test(timeout = 10000)
+  public void testPipe_heldWithoutReading() throws IOException {
+    Assume.assumeTrue(supportsPipes());
+    File directory = Files.createTempDirectory("solver-process-test").toFile();
+    File file = new File(directory, "pipe");
+    ProgramPipe.create(file);
+    LinearProgram program = new LinearProgram();
+
+    // exceeds the buffer of the pipe
+    for (int j = 0; j < 100000; j++) {
+      program.addColumn(1, 0, 1);
+    }
+
+    ProgramPipe pipe = new ProgramPipe(program, new LpWriter(false), file);
+    pipe.start();
+
+    try (FileInputStream in = new FileInputStream(file)) {
+      assertFalse(pipe.close());
+      assertFalse(pipe.finish());
+    } finally {
+      file.delete();
+      directory.delete();
+    }
+
+    // the pipe is broken once closed by the reader
+    assertTrue(pipe.close());
+  }
+
+  @Test(timeout = 10000)
+  public void testSolve_keepFiles() throws LinearProgramException {
+    Solver solver = new ScriptSolver("ignoring.sh");
+    solver.setKeepFiles(true);
+    solver.setCompactNames(true);
+
+    assertEquals(3, solver.solve(createProgram(), "solver-process-test"), 1e-6);
+
+    File[] files = findFiles("solver-process-test");
+
+    for (File file : files) {
+      assertTrue(file.isFile());
+      file.delete();
+    }
+
+    // the program and the original names
+    assertEquals(2, files.length);
+  }
+
+  @Test
+  public void testNewInstance() {
+    Solver solver = new InternalSolver();
+    solver.setTimeout(1234);
+    solver.setKeepFiles(true);
+
+    assertEquals(0, new InternalSolver().getTimeout());
+    assertFalse(new InternalSolver().isKeepFiles());
+    assertEquals(1234, solver.newInstance().getTimeout());
+    assertTrue(solver.newInstance().isKeepFiles());
+  }
+
+  private LinearProgram createProgram() {
+    LinearProgram program = new LinearProgram();
+    program.addColumn(2, 0, 1);
+    program.addColumn(3, 0, 1);
+    program.addRow(new int[] {0, 1}, new double[] {1, 1}, 1.5, Double.POSITIVE_INFINITY);
+
+    return program;
+  }
+
+  /**
+   * Returns whether named pipes can be created on this system.
+   *
+   * @return {@code true} iff named pipes are supported
+   */
+  private boolean supportsPipes() {
+    try {
+      File directory = Files.createTempDirectory("solver-process-test").toFile();
+      File pipe = new File(directory, "pipe");
+      boolean result = ProgramPipe.create(pipe);
+      pipe.delete();
+      directory.delete();
+
+      return result;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns all temporary files with the given prefix.
+   *
+   * @param prefix the prefix
+   * @return the files
+   */
+  private File[] findFiles(final String prefix) {
+    return new File(System.getProperty("java.io.tmpdir")).listFiles(new FileFilter() {
+      @Override
+      public boolean accept(File file) {
+        return file.getName().startsWith(prefix);
+      }
+    });
+  }
+}
@@ -1,7 +1,11 @@
 package proof.solver;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
+import org.junit.After;
 import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
@@ -48,9 +52,46 @@ public abstract class SolverTest {
     Assume.assumeNotNull(solver);
   }
 
+  /**
+   * Called after each test. Terminates the solver session.
+   */
+  @After
+  public void tearDown() {
+    if (solver != null) {
+      solver.close();
+    }
+  }
+
   @Test
   public void testSimple() throws LinearProgramException {
-    assertEquals(116, (int) solver.solve("src/test/resources/linear-program/simple.lp"));
+    assertEquals(116, (int) solver.solve(getSimpleProgram()));
+  }
+
+  @Test
+  public void testSolve_program() throws LinearProgramException {
+    LinearProgram program = new LinearProgram();
+    program.addColumn(2, 0, 1);
+    program.addColumn(3, 0, 1);
+    program.addRow(new int[] {0, 1}, new double[] {1, 1}, 1.5, Double.POSITIVE_INFINITY);
+
+    assertEquals(3.5, solver.solve(program, "program"), 1e-6);
+  }
+
+  @Test
+  public void testSolve_compactNames() throws LinearProgramException {
+    LinearProgram program = new LinearProgram();
+    program.addColumn("first", 2, 0, 1);
+    program.addColumn("second", 3, 0, 1);
+    program.addRow(new int[] {0, 1}, new double[] {1, 1}, 1.5, Double.POSITIVE_INFINITY);
+    solver.setCompactNames(true);
+
+    assertEquals(3.5, solver.solve(program, "program"), 1e-6);
+  }
+
+  @Test
+  public void testGetVersion() {
+    assertNotNull(solver.getVersion());
+    assertEquals(solver.getVersion(), solver.newInstance().getVersion());
   }
 
   @Test(expected = LinearProgramException.class)
@@ -67,4 +108,53 @@ public abstract class SolverTest {
   public void testInvalid() throws LinearProgramException {
     solver.solve("src/test/resources/linear-program/invalid.lp");
   }
+
+  @Test
+  public void testSequence() throws LinearProgramException {
+    solver.setSessionsEnabled(true);
+    assertSequence();
+  }
+
+  @Test
+  public void testSequence_oneShot() throws LinearProgramException {
+    solver.setSessionsEnabled(false);
+    assertSequence();
+    assertFalse(solver.isSessionsEnabled());
+  }
+
+  @Test
+  public void testSequence_closed() throws LinearProgramException {
+    assertEquals(116, (int) solver.solve(getSimpleProgram()));
+    solver.close();
+    assertSequence();
+  }
+
+  /**
+   * Returns the file containing a simple linear program with an optimal objective value of 116.
+   *
+   * @return the path of the file
+   */
+  protected String getSimpleProgram() {
+    return "src/test/resources/linear-program/simple.lp";
+  }
+
+  /**
+   * Solves valid and invalid linear programs alternately using the same solver.
+   */
+  private void assertSequence() throws LinearProgramException {
+    String[] invalidPrograms = {"infeasible", "empty", "invalid"};
+
+    for (String program : invalidPrograms) {
+      assertEquals(116, (int) solver.solve(getSimpleProgram()));
+
+      try {
+        solver.solve("src/test/resources/linear-program/" + program + ".lp");
+        fail("Solved " + program + " linear program.");
+      } catch (LinearProgramException expected) {
+        // the next linear program must not be affected
+      }
+    }
+
+    assertEquals(116, (int) solver.solve(getSimpleProgram()));
+  }
 }
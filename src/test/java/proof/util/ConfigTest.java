@@ -2,6 +2,9 @@ package proof.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -12,8 +15,12 @@ import proof.exception.UnsupportedSolverException;
 import proof.solver.SolverFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Tests for {@link Config}.
@@ -46,6 +53,203 @@ public class ConfigTest {
     assertTrue(config.verbose);
   }
 
+  @Test
+  public void testThreads() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--threads", "4"};
+    Config config = new Config(args, out);
+
+    assertEquals(4, config.threads);
+  }
+
+  @Test
+  public void testThreads_default() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE};
+    Config config = new Config(args, out);
+
+    assertEquals(1, config.threads);
+  }
+
+  @Test
+  public void testConstraintThreads() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--constraint-threads", "3"};
+    Config config = new Config(args, out);
+
+    assertEquals(3, config.constraintThreads);
+    assertEquals(1, config.threads);
+  }
+
+  @Test
+  public void testConstraintThreads_default() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE};
+    Config config = new Config(args, out);
+
+    assertEquals(1, config.constraintThreads);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testConstraintThreads_zero() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--constraint-threads", "0"};
+    new Config(args, out);
+  }
+
+  @Test
+  public void testOneShot() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--one-shot"};
+    Config config = new Config(args, out);
+
+    assertFalse(config.solver.isSessionsEnabled());
+  }
+
+  @Test
+  public void testOneShot_default() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE};
+    Config config = new Config(args, out);
+
+    assertFalse(config.solver.isSessionsEnabled());
+  }
+
+  @Test
+  public void testSessions() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--sessions"};
+    Config config = new Config(args, out);
+
+    assertTrue(config.solver.isSessionsEnabled());
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testSessions_oneShot() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--sessions", "-o"};
+    new Config(args, out);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testOneShot_duplicate() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "-o", "--one-shot"};
+    new Config(args, out);
+  }
+
+  @Test
+  public void testFileFormat() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "-c", "--mps"};
+    Config config = new Config(args, out);
+
+    assertTrue(config.solver.isCompactNames());
+    assertTrue(config.solver.isMps());
+  }
+
+  @Test
+  public void testFileFormat_default() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE};
+    Config config = new Config(args, out);
+
+    assertFalse(config.solver.isCompactNames());
+    assertFalse(config.solver.isMps());
+    assertFalse(config.sparse);
+  }
+
+  @Test
+  public void testSparse() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--sparse"};
+    Config config = new Config(args, out);
+
+    assertTrue(config.sparse);
+  }
+
+  @Test
+  public void testTimeout() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--timeout", "60"};
+    Config config = new Config(args, out);
+
+    assertEquals(60000, config.solver.getTimeout());
+  }
+
+  @Test
+  public void testTimeout_default() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE};
+    Config config = new Config(args, out);
+
+    assertEquals(0, config.solver.getTimeout());
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testTimeout_negative() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--timeout", "-1"};
+    new Config(args, out);
+  }
+
+  @Test
+  public void testMetricsOut() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--metrics-out", "metrics.json"};
+    Config config = new Config(args, out);
+
+    assertEquals(Paths.get("metrics.json"), config.metricsFile);
+    assertSame(config.metrics, config.solver.getMetrics());
+  }
+
+  @Test
+  public void testMetricsOut_default() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE};
+    Config config = new Config(args, out);
+
+    assertNull(config.metricsFile);
+    assertNotNull(config.metrics);
+
+    // nothing is collected unless it is written
+    config.metrics.record(0, Metrics.Phase.SOLVE, 5);
+    assertEquals(-1, config.metrics.getNanos(0, Metrics.Phase.SOLVE));
+  }
+
+  @Test
+  public void testCache() throws InvalidConfigurationException, IOException {
+    Path directory = Files.createTempDirectory("result-cache");
+    String[] args = {"-f", FILE, "--cache-dir", directory.toString(), "--cache-size", "10"};
+
+    try {
+      Config config = new Config(args, out);
+      assertEquals(directory, config.cache.getDirectory());
+    } finally {
+      Files.delete(directory);
+    }
+  }
+
+  @Test
+  public void testCache_default() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE};
+    Config config = new Config(args, out);
+
+    assertNull(config.cache);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testCache_sizeWithoutDirectory() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--cache-size", "10"};
+    new Config(args, out);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testCache_invalidSize() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "--cache-dir", "cache", "--cache-size", "0"};
+    new Config(args, out);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testThreads_invalid() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "-t", "many"};
+    new Config(args, out);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testThreads_zero() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "-t", "0"};
+    new Config(args, out);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testMissingThreads() throws InvalidConfigurationException {
+    String[] args = {"-f", FILE, "-t"};
+    new Config(args, out);
+  }
+
   @Test
   public void testSolvers() throws InvalidConfigurationException {
     SolverFactory factory = new SolverFactory();
@@ -0,0 +1,50 @@
+package proof.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LongMap}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LongMapTest {
+
+  @Test
+  public void testPut() {
+    LongMap<String> map = new LongMap<>();
+
+    assertNull(map.put(5, "five"));
+    assertNull(map.put(-5, "minus five"));
+    assertEquals("five", map.put(5, "FIVE"));
+
+    assertEquals(2, map.size());
+    assertEquals("FIVE", map.get(5));
+    assertEquals("minus five", map.get(-5));
+    assertNull(map.get(6));
+    assertTrue(map.containsKey(-5));
+    assertFalse(map.containsKey(6));
+  }
+
+  @Test
+  public void testInsertionOrder() {
+    LongMap<Integer> map = new LongMap<>(1);
+
+    for (int i = 100; i > 0; i--) {
+      map.put(i, i);
+    }
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(100 - i, map.getKey(i));
+      assertEquals(100 - i, (int) map.getValue(i));
+    }
+
+    map.clear();
+    assertEquals(0, map.size());
+    assertNull(map.get(1));
+  }
+}
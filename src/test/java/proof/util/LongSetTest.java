@@ -0,0 +1,78 @@
+package proof.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LongSet}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LongSetTest {
+
+  @Test
+  public void testAdd() {
+    LongSet set = new LongSet();
+
+    assertTrue(set.add(42));
+    assertTrue(set.add(-1));
+    assertTrue(set.add(0));
+    assertFalse(set.add(42));
+
+    assertEquals(3, set.size());
+    assertTrue(set.contains(0));
+    assertTrue(set.contains(-1));
+    assertFalse(set.contains(1));
+  }
+
+  @Test
+  public void testInsertionOrder() {
+    LongSet set = new LongSet(2);
+
+    for (int i = 0; i < 1000; i++) {
+      set.add((long) (i * 7919 % 1000) << 32);
+    }
+
+    assertEquals(1000, set.size());
+
+    for (int i = 0; i < 1000; i++) {
+      long value = (long) (i * 7919 % 1000) << 32;
+      assertEquals(value, set.get(i));
+      assertEquals(i, set.indexOf(value));
+    }
+
+    assertEquals(-1, set.indexOf(1000L << 32));
+  }
+
+  @Test
+  public void testClear() {
+    LongSet set = new LongSet();
+    set.add(1);
+    set.add(2);
+    set.clear();
+
+    assertEquals(0, set.size());
+    assertFalse(set.contains(1));
+    assertTrue(set.add(2));
+    assertEquals(0, set.indexOf(2));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGet_invalidIndex() {
+    LongSet set = new LongSet();
+    set.add(1);
+    set.get(1);
+  }
+
+  @Test
+  public void testHash() {
+    // keys differing in their upper bits only must not collide
+    assertNotEquals(LongSet.hash(1L << 32), LongSet.hash(1L << 33));
+    assertNotEquals(LongSet.hash(1L << 32 | 1), LongSet.hash(1L << 33));
+    assertEquals(LongSet.hash(123456789L), LongSet.hash(123456789L));
+  }
+}
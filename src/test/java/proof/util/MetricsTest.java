@@ -0,0 +1,136 @@
+package proof.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Tests for {@link Metrics}.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class MetricsTest {
+  private Metrics metrics;
+
+  @Before
+  public void init() {
+    metrics = new Metrics();
+  }
+
+  @Test
+  public void testRecord() {
+    metrics.record(3, Metrics.Phase.SOLVE, 5);
+    metrics.record(3, Metrics.Phase.SOLVE, 7);
+
+    assertEquals(12, metrics.getNanos(3, Metrics.Phase.SOLVE));
+    assertEquals(-1, metrics.getNanos(3, Metrics.Phase.WRITE));
+    assertEquals(-1, metrics.getNanos(4, Metrics.Phase.SOLVE));
+  }
+
+  @Test
+  public void testDisabled() {
+    Metrics disabled = new Metrics(false);
+    disabled.record(3, Metrics.Phase.SOLVE, 5);
+    disabled.setCurrentLeaf(3);
+    disabled.count(Metrics.Counter.ROWS, 5);
+    disabled.recordSince(Metrics.Phase.WRITE, System.nanoTime());
+
+    assertEquals(-1, disabled.getNanos(3, Metrics.Phase.SOLVE));
+    assertEquals(-1, disabled.getNanos(3, Metrics.Phase.WRITE));
+    assertEquals(0, disabled.getCount(3, Metrics.Counter.ROWS));
+  }
+
+  @Test
+  public void testCurrentLeaf() throws InterruptedException {
+    metrics.count(Metrics.Counter.ROWS, 5);
+    metrics.recordSince(Metrics.Phase.SOLVE, System.nanoTime());
+    assertEquals(0, metrics.getCount(0, Metrics.Counter.ROWS));
+
+    metrics.setCurrentLeaf(2);
+    metrics.count(Metrics.Counter.ROWS, 5);
+    metrics.count(Metrics.Counter.ROWS, 2);
+    metrics.recordSince(Metrics.Phase.SOLVE, System.nanoTime());
+
+    // the current leaf is not shared between threads
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        metrics.count(Metrics.Counter.ROWS, 100);
+      }
+    };
+    thread.start();
+    thread.join();
+
+    assertEquals(7, metrics.getCount(2, Metrics.Counter.ROWS));
+    assertTrue(metrics.getNanos(2, Metrics.Phase.SOLVE) >= 0);
+  }
+
+  @Test
+  public void testGetQuantile() {
+    long[] values = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    assertEquals(5, Metrics.getQuantile(values, 0.5));
+    assertEquals(9, Metrics.getQuantile(values, 0.9));
+    assertEquals(10, Metrics.getQuantile(values, 0.99));
+    assertEquals(1, Metrics.getQuantile(new long[] {1}, 0.5));
+  }
+
+  @Test
+  public void testWriteJson() throws IOException {
+    for (int leaf = 0; leaf < 10; leaf++) {
+      metrics.record(leaf, Metrics.Phase.GENERATION, leaf + 1);
+    }
+
+    metrics.setCurrentLeaf(1);
+    metrics.count(Metrics.Counter.CACHE_HITS, 1);
+
+    StringWriter out = new StringWriter();
+    metrics.writeJson(out);
+    JSONObject json = new JSONObject(out.toString());
+
+    assertEquals(10, json.getJSONArray("leaves").length());
+    JSONObject leaf = json.getJSONArray("leaves").getJSONObject(1);
+    assertEquals(1, leaf.getInt("leaf"));
+    assertEquals(2, leaf.getLong("generationNanos"));
+    assertEquals(1, leaf.getLong("cacheHits"));
+    assertFalse(leaf.has("solveNanos"));
+
+    JSONObject generation = json.getJSONObject("phases").getJSONObject("generation");
+    assertEquals(10, generation.getInt("count"));
+    assertEquals(55, generation.getLong("sumNanos"));
+    assertEquals(5, generation.getLong("p50Nanos"));
+    assertEquals(9, generation.getLong("p90Nanos"));
+    assertEquals(10, generation.getLong("maxNanos"));
+    assertFalse(json.getJSONObject("phases").has("solve"));
+    assertEquals(1, json.getJSONObject("counters").getLong("cacheHits"));
+  }
+
+  @Test
+  public void testWritePrometheus() throws IOException {
+    metrics.record(0, Metrics.Phase.SOLVE, 2000000000L);
+    metrics.record(1, Metrics.Phase.SOLVE, 1000000000L);
+    metrics.setCurrentLeaf(0);
+    metrics.count(Metrics.Counter.CONSTRAINTS, 42);
+
+    StringWriter out = new StringWriter();
+    metrics.writePrometheus(out);
+    String result = out.toString();
+
+    assertTrue(result.contains("# TYPE ocm_validator_phase_seconds summary\n"));
+    assertTrue(
+        result.contains("ocm_validator_phase_seconds{phase=\"solve\",quantile=\"0.5\"} 1.0\n"));
+    assertTrue(result.contains("ocm_validator_phase_seconds_sum{phase=\"solve\"} 3.0\n"));
+    assertTrue(result.contains("ocm_validator_phase_seconds_count{phase=\"solve\"} 2\n"));
+    assertFalse(result.contains("phase=\"write\""));
+    assertTrue(result.contains("# TYPE ocm_validator_constraints_total counter\n"));
+    assertTrue(result.contains("ocm_validator_constraints_total 42\n"));
+    assertTrue(result.contains("ocm_validator_cache_hits_total 0\n"));
+  }
+}
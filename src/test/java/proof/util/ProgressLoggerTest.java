@@ -67,6 +67,27 @@ public class ProgressLoggerTest {
     }
   }
 
+  @Test
+  public void testExpand() {
+    logger.expand(MAX_PROGRESS);
+
+    for (int i = 0; i < 2 * MAX_PROGRESS; i++) {
+      logger.progress();
+    }
+
+    try {
+      logger.progress();
+      fail("Progress should never exceed the expanded maximum value of " + 2 * MAX_PROGRESS + ".");
+    } catch (IllegalArgumentException expected) {
+      // this is supposed to happen
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExpand_negative() {
+    logger.expand(-1);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testReset_invalidSizeZero() {
     logger.reset(0);
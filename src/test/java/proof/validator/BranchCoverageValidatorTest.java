@@ -81,6 +81,109 @@ public class BranchCoverageValidatorTest extends ValidatorTest {
     coverageValidator.validate(loadJson("unmergeable").getJSONArray("leaves"));
   }
 
+  @Test(expected = InvalidCoverageException.class)
+  public void testValidate_duplicateEmptyLeaves() throws InvalidCoverageException {
+    JSONArray leaves = new JSONArray();
+    leaves.put(createLeaf(new int[0], new boolean[0]));
+    leaves.put(createLeaf(new int[0], new boolean[0]));
+
+    coverageValidator.validate(leaves);
+  }
+
+  @Test
+  public void testValidate_completeTree() throws InvalidCoverageException {
+    coverageValidator.validate(createCompleteTree(10));
+  }
+
+  @Test(expected = InvalidCoverageException.class)
+  public void testValidate_completeTreeMissingLeaf() throws InvalidCoverageException {
+    JSONArray leaves = createCompleteTree(10);
+    leaves.remove(123);
+
+    coverageValidator.validate(leaves);
+  }
+
+  @Test(expected = InvalidCoverageException.class)
+  public void testValidate_completeTreeDuplicateLeaf() throws InvalidCoverageException {
+    JSONArray leaves = createCompleteTree(10);
+    leaves.put(leaves.get(123));
+
+    coverageValidator.validate(leaves);
+  }
+
+  @Test
+  public void testAdd_completeTree() throws InvalidCoverageException {
+    JSONArray leaves = createCompleteTree(10);
+
+    for (int i = 0; i < leaves.length(); i++) {
+      coverageValidator.add(coverageValidator.read(leaves.getJSONObject(i)));
+    }
+
+    coverageValidator.finish();
+  }
+
+  @Test(expected = InvalidCoverageException.class)
+  public void testAdd_duplicateLeaf() throws InvalidCoverageException {
+    JSONObject leaf = createLeaf(new int[] {0, 1}, new boolean[] {true, false});
+
+    // detected before all leaves have been added
+    coverageValidator.add(coverageValidator.read(leaf));
+    coverageValidator.add(coverageValidator.read(leaf));
+  }
+
+  @Test(expected = InvalidCoverageException.class)
+  public void testFinish_missingLeaf() throws InvalidCoverageException {
+    JSONArray leaves = createCompleteTree(4);
+
+    for (int i = 1; i < leaves.length(); i++) {
+      coverageValidator.add(coverageValidator.read(leaves.getJSONObject(i)));
+    }
+
+    coverageValidator.finish();
+  }
+
+  @Test(expected = InvalidCoverageException.class)
+  public void testFinish_empty() throws InvalidCoverageException {
+    coverageValidator.finish();
+  }
+
+  @Test
+  public void testFinish_reversedTree() throws InvalidCoverageException {
+    JSONArray leaves = createCompleteTree(6);
+
+    for (int i = leaves.length() - 1; i >= 0; i--) {
+      coverageValidator.add(coverageValidator.read(leaves.getJSONObject(i)));
+    }
+
+    coverageValidator.finish();
+  }
+
+  @Test
+  public void testValidate_unbalancedTree() throws InvalidCoverageException {
+    JSONArray leaves = new JSONArray();
+    int depth = 50;
+
+    // each leaf branches off at a different depth
+    for (int i = 1; i <= depth; i++) {
+      int[] vars = new int[i];
+      boolean[] values = new boolean[i];
+
+      for (int k = 0; k < i; k++) {
+        vars[k] = k;
+        values[k] = k == i - 1;
+      }
+
+      if (i == depth) {
+        leaves.put(createLeaf(vars, values));
+        values[i - 1] = false;
+      }
+
+      leaves.put(createLeaf(vars, values));
+    }
+
+    coverageValidator.validate(leaves);
+  }
+
   @Test
   public void testValidate_validCoverage() throws InvalidCoverageException, IOException {
     coverageValidator.validate(simpleResource);
@@ -91,4 +194,56 @@ public class BranchCoverageValidatorTest extends ValidatorTest {
     coverageValidator.validate(loadJson("single-leaf").getJSONArray("leaves"));
   }
 
+  /**
+   * Creates all leaves of a complete branching tree.
+   *
+   * @param depth number of fixed variables in each leaf
+   * @return the leaves
+   */
+  private JSONArray createCompleteTree(int depth) {
+    JSONArray result = new JSONArray();
+    int[] vars = new int[depth];
+    boolean[] values = new boolean[depth];
+
+    for (int i = 0; i < depth; i++) {
+      vars[i] = i;
+    }
+
+    for (int leaf = 0; leaf < 1 << depth; leaf++) {
+      for (int i = 0; i < depth; i++) {
+        values[i] = (leaf & (1 << i)) != 0;
+      }
+
+      result.put(createLeaf(vars, values));
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates a leaf. Variable {@code k} represents a crossing of segment {@code k} on edge
+   * {@code (0,1)} with the first segment of edge {@code (2,3)}.
+   *
+   * @param vars indices of the fixed variables
+   * @param values values of the fixed variables
+   * @return the leaf
+   */
+  private JSONObject createLeaf(int[] vars, boolean[] values) {
+    JSONArray fixedVariables = new JSONArray();
+
+    for (int i = 0; i < vars.length; i++) {
+      JSONArray crossing = new JSONArray();
+      crossing.put(new JSONObject("{\"edge\": {\"source\": 0, \"target\": 1}, \"segment\": "
+          + vars[i] + "}"));
+      crossing.put(new JSONObject("{\"edge\": {\"source\": 2, \"target\": 3}, \"segment\": 0}"));
+
+      JSONObject variable = new JSONObject();
+      variable.put("crossing", crossing);
+      variable.put("value", values[i] ? 1 : 0);
+      fixedVariables.put(variable);
+    }
+
+    return new JSONObject().put("fixedVariables", fixedVariables);
+  }
+
 }
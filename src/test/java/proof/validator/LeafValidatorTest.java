@@ -0,0 +1,96 @@
+package proof.validator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import proof.ValidatorTest;
+import proof.data.Graph;
+import proof.data.reader.GraphReader;
+import proof.exception.InvalidConstraintException;
+import proof.exception.InvalidProofException;
+import proof.solver.Solver;
+import proof.solver.SolverFactory;
+import proof.util.Config;
+
+/**
+ * Tests for {@link LeafValidator}, in particular for validating Kuratowski constraints
+ * concurrently.
+ *
+ * @author <a href="mailto:tilo@wiedera.de">Tilo Wiedera</a>
+ */
+public class LeafValidatorTest extends ValidatorTest {
+  private Graph graph;
+  private JSONObject leaf;
+  private Solver solver;
+
+  public LeafValidatorTest() {
+    super("log");
+  }
+
+  /**
+   * Loads the first leaf of a valid proof.
+   */
+  @Before
+  public void init() throws InvalidProofException {
+    JSONObject resource = loadJson("job74");
+    graph = new GraphReader().read(resource.getJSONObject("graph"));
+    leaf = resource.getJSONObject("solution").getJSONArray("leaves").getJSONObject(0);
+    solver = new SolverFactory().getSolver("internal");
+    Config.get().logger.reset(Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testValidate_concurrently() throws InvalidProofException {
+    assertTrue(leaf.getJSONArray("constraints").length() > 2 * ConstraintTask.THRESHOLD);
+
+    new LeafValidator(graph, solver, 3).validate(leaf);
+  }
+
+  @Test
+  public void testValidate_differentParallelism() throws InvalidProofException {
+    LeafValidator first = new LeafValidator(graph, solver, 2);
+    LeafValidator second = new LeafValidator(graph, solver, 4);
+
+    // creating the second validator must not affect the pool of the first one
+    first.validate(leaf);
+    second.validate(leaf);
+    first.validate(leaf);
+  }
+
+  @Test
+  public void testValidate_lowestFailure() {
+    JSONArray constraints = leaf.getJSONArray("constraints");
+    constraints.getJSONObject(constraints.length() - 1).getJSONArray("paths").remove(0);
+    constraints.getJSONObject(ConstraintTask.THRESHOLD + 1).getJSONArray("paths").remove(0);
+
+    for (int threads = 1; threads <= 4; threads++) {
+      try {
+        new LeafValidator(graph, solver, threads).validate(leaf);
+        fail("Invalid constraint was not detected.");
+      } catch (InvalidProofException e) {
+        assertEquals("Could not validate constraint " + (ConstraintTask.THRESHOLD + 1) + ".",
+            e.getMessage());
+        assertTrue(e.getCause() instanceof InvalidConstraintException);
+      }
+    }
+  }
+
+  @Test
+  public void testValidate_boundTooSmall() {
+    leaf.put("constraints", new JSONArray());
+
+    try {
+      new LeafValidator(graph, solver, 1).validate(leaf, 7);
+      fail("Validated a leaf whose lower bound is too small.");
+    } catch (InvalidProofException expected) {
+      assertTrue(expected.getMessage().contains("leaf 7"));
+      assertTrue(expected.getMessage().contains("Lower bound is too small"));
+    }
+  }
+}
@@ -1,14 +1,22 @@
 package proof.validator;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 
 import proof.ValidatorTest;
+import proof.data.reader.LogReader;
 import proof.exception.InvalidConfigurationException;
+import proof.exception.InvalidCoverageException;
 import proof.exception.InvalidProofException;
 
 import java.io.IOException;
+import java.io.StringReader;
 
 /**
  * Invalidity-tests for the {@link MainValidator}.
@@ -26,6 +34,81 @@ public class MainValidatorInvalidityTest extends ValidatorTest {
     new MainValidator().validate(loadJson("missing-constraint.json"));
   }
 
+  @Test
+  public void testMissingPath_concurrently() throws InvalidProofException, IOException {
+    JSONObject proof = loadJson("missing-path.json");
+    JSONArray leaves = proof.getJSONObject("solution").getJSONArray("leaves");
+    JSONObject invalidLeaf = leaves.getJSONObject(0);
+    JSONObject validLeaf =
+        loadJson("../job74.json").getJSONObject("solution").getJSONArray("leaves").getJSONObject(0);
+
+    // three leaves covering all assignments of two variables, only the first one is valid
+    leaves.put(0, copyLeaf(validLeaf, 1, -1));
+    leaves.put(1, copyLeaf(invalidLeaf, 0, 1));
+    leaves.put(2, copyLeaf(invalidLeaf, 0, 0));
+
+    try {
+      new MainValidator(3).validate(proof);
+      fail("Proof with invalid leaves must not be validated.");
+    } catch (InvalidProofException expected) {
+      assertEquals("Could not validate branch 1.", expected.getMessage());
+    }
+  }
+
+  /**
+   * Validates the resource without parsing it at once.
+   *
+   * @param filename name of the resource
+   * @throws InvalidProofException if the proof is invalid
+   */
+  private void validateStreaming(String filename) throws InvalidProofException {
+    new MainValidator().validate(new LogReader(new StringReader(loadJson(filename).toString())));
+  }
+
+  /**
+   * Creates a copy of the leaf with up to two fixed variables.
+   *
+   * @param leaf leaf to be copied
+   * @param first value of the first variable
+   * @param second value of the second variable, negative values are omitted
+   * @return the new leaf
+   */
+  private JSONObject copyLeaf(JSONObject leaf, int first, int second) {
+    JSONObject result = new JSONObject(leaf.toString());
+    JSONArray variables = new JSONArray();
+
+    variables.put(createVariable(3, 4, first));
+
+    if (second >= 0) {
+      variables.put(createVariable(5, 4, second));
+    }
+
+    result.put("fixedVariables", variables);
+
+    return result;
+  }
+
+  /**
+   * Creates a fixed variable representing a crossing of the edge {@code (0,1)} with another edge.
+   *
+   * @param source source of the other edge
+   * @param target target of the other edge
+   * @param value fixed value of the variable
+   * @return the fixed variable
+   */
+  private JSONObject createVariable(int source, int target, int value) {
+    JSONArray crossing = new JSONArray();
+    crossing.put(new JSONObject("{\"edge\": {\"source\": 0, \"target\": 1}, \"segment\": 0}"));
+    crossing.put(new JSONObject("{\"edge\": {\"source\": " + source + ", \"target\": " + target
+        + "}, \"segment\": 0}"));
+
+    JSONObject result = new JSONObject();
+    result.put("crossing", crossing);
+    result.put("value", value);
+
+    return result;
+  }
+
   @Test(expected = InvalidProofException.class)
   public void testMissingPath() throws InvalidProofException, IOException {
     new MainValidator().validate(loadJson("missing-path.json"));
@@ -41,6 +124,64 @@ public class MainValidatorInvalidityTest extends ValidatorTest {
     new MainValidator().validate(loadJson("non-trivial.json"));
   }
 
+  @Test(expected = InvalidProofException.class)
+  public void testMissingConstraint_streaming() throws InvalidProofException {
+    validateStreaming("missing-constraint.json");
+  }
+
+  @Test(expected = InvalidProofException.class)
+  public void testInvalidCrossing_streaming() throws InvalidProofException {
+    validateStreaming("invalid-crossing.json");
+  }
+
+  @Test(expected = InvalidProofException.class)
+  public void testNonTrivial_streaming() throws InvalidProofException {
+    validateStreaming("non-trivial.json");
+  }
+
+  @Test(expected = InvalidProofException.class)
+  public void testInsufficientCoverage_streaming() throws InvalidProofException {
+    JSONObject proof = loadJson("../job74.json");
+    JSONObject leaf = proof.getJSONObject("solution").getJSONArray("leaves").getJSONObject(0);
+    proof.getJSONObject("solution").getJSONArray("leaves").put(copyLeaf(leaf, 1, -1));
+
+    new MainValidator().validate(new LogReader(new StringReader(proof.toString())));
+  }
+
+  @Test
+  public void testInvalidLeafAndInsufficientCoverage_streaming() throws IOException {
+    JSONObject proof = loadJson("missing-path.json");
+    JSONArray leaves = proof.getJSONObject("solution").getJSONArray("leaves");
+    JSONObject invalidLeaf = leaves.getJSONObject(0);
+
+    // the branch fixing the variables to 1 and 0 is missing
+    leaves.put(0, copyLeaf(invalidLeaf, 0, -1));
+    leaves.put(1, copyLeaf(invalidLeaf, 1, 1));
+
+    for (int threads : new int[] {1, 3}) {
+      try {
+        new MainValidator(threads).validate(new LogReader(new StringReader(proof.toString())));
+        fail("Proof with insufficient coverage must not be validated.");
+      } catch (InvalidProofException expected) {
+        assertTrue(expected instanceof InvalidCoverageException);
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidLeaves_streamingTrivial() throws InvalidProofException {
+    JSONObject proof = loadJson("../job74.json");
+    JSONObject leaf = proof.getJSONObject("solution").getJSONArray("leaves").getJSONObject(0);
+    leaf.put("constraints", new JSONArray());
+    proof.getJSONObject("graph").put("claimedLowerBound", 1);
+
+    // the solution is claimed trivial before the leaves, thus the leaves are never validated
+    String input = "{\"graph\": " + proof.getJSONObject("graph")
+        + ", \"solution\": {\"trivial\": true, \"leaves\": [" + leaf + ", " + leaf + "]}}";
+
+    new MainValidator().validate(new LogReader(new StringReader(input)));
+  }
+
   @Test(expected = JSONException.class)
   public void testEmpty() throws InvalidProofException {
     new MainValidator().validate(new JSONObject());
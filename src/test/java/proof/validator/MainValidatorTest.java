@@ -5,11 +5,13 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import proof.ValidatorTest;
+import proof.data.reader.LogReader;
 import proof.exception.InvalidConfigurationException;
 import proof.exception.InvalidProofException;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileReader;
 import java.io.IOException;
 
 /**
@@ -48,4 +50,23 @@ public class MainValidatorTest extends ValidatorTest {
   public void testValidate() throws InvalidProofException, IOException {
     new MainValidator().validate(loadJson(proofFile.getName()));
   }
+
+  @Test
+  public void testValidate_concurrently() throws InvalidProofException, IOException {
+    new MainValidator(4).validate(loadJson(proofFile.getName()));
+  }
+
+  @Test
+  public void testValidate_streaming() throws InvalidProofException, IOException {
+    try (FileReader input = new FileReader(proofFile)) {
+      new MainValidator().validate(new LogReader(input));
+    }
+  }
+
+  @Test
+  public void testValidate_streamingConcurrently() throws InvalidProofException, IOException {
+    try (FileReader input = new FileReader(proofFile)) {
+      new MainValidator(4).validate(new LogReader(input));
+    }
+  }
 }
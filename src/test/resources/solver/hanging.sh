@@ -0,0 +1,3 @@
+#!/bin/sh
+# never terminates on its own
+sleep 60
@@ -0,0 +1,8 @@
+#!/bin/sh
+# writes more error output than fits into a pipe before printing any result
+i=0
+while [ $i -lt 20000 ]; do
+  echo "warning: line $i of the error output" >&2
+  i=$((i + 1))
+done
+echo "objective value: 3"